@@ -1,6 +1,8 @@
 package com.vasylenko.ecollectobackend.collection;
 
 import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import com.vasylenko.ecollectobackend.common.userlist.StampIdsBatchRequest;
+import com.vasylenko.ecollectobackend.dto.BatchResultDto;
 import com.vasylenko.ecollectobackend.dto.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,12 +22,14 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/me/collection")
 @RequiredArgsConstructor
 @Tag(name = "Collection", description = "User collection endpoints (protected - requires Bearer JWT).")
 public class CollectionController {
 
     private final CollectionService collectionService;
+    private final CollectionStatsService collectionStatsService;
     private final CurrentUserService currentUserService;
 
     @GetMapping
@@ -43,6 +48,50 @@ public class CollectionController {
         return ResponseEntity.ok(collectionService.getCollection(userId));
     }
 
+    @GetMapping("/stamps")
+    @Operation(summary = "Get collection with stamp details",
+            description = "Returns one page of the authenticated user's collection, each item joined with its full "
+                    + "catalog entry on the server, so rendering a collection needs no per-stamp requests. "
+                    + "sort=addedAt|year|denomination (default addedAt), order=asc|desc (default newest first for "
+                    + "addedAt, ascending otherwise), offset (default 0), limit (default 50, max 200).",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Collection page retrieved.",
+                    content = @Content(schema = @Schema(implementation = CollectionPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown sort or order, negative offset or non-positive limit.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<CollectionPageDto> getCollectionStamps(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        String userId = currentUserService.getCurrentUserId();
+        return ResponseEntity.ok(collectionService.getCollectionPage(userId, sort, order, offset, limit));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Get collection statistics",
+            description = "Returns owned-of-total counts per year, series and designer and the total face value "
+                    + "of the authenticated user's collection, read from a per-user statistics document.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved.",
+                    content = @Content(schema = @Schema(implementation = CollectionStatsDto.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<CollectionStatsDto> getCollectionStats() {
+        String userId = currentUserService.getCurrentUserId();
+        return ResponseEntity.ok(collectionStatsService.getStats(userId));
+    }
+
     @PostMapping("/items")
     @Operation(summary = "Add to collection", description = "Adds a stamp to the authenticated user's collection.",
             security = @SecurityRequirement(name = "bearerAuth"))
@@ -81,6 +130,46 @@ public class CollectionController {
         collectionService.removeItem(userId, stampId);
         return ResponseEntity.noContent().build();
     }
-}
 
+    @PostMapping("/items:batch")
+    @Operation(summary = "Add several to collection",
+            description = "Adds up to " + StampIdsBatchRequest.MAX_ITEMS + " stamps to the authenticated user's collection "
+                    + "in one unordered bulk write. Each stamp is reported as CREATED, DUPLICATE or NOT_FOUND (unknown stamp).",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "207", description = "Per-stamp results, in request order.",
+                    content = @Content(schema = @Schema(implementation = BatchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResultDto> addBatchToCollection(@Valid @RequestBody StampIdsBatchRequest request) {
+        String userId = currentUserService.getCurrentUserId();
+        BatchResultDto result = new BatchResultDto(collectionService.addItems(userId, request.getStampIds()));
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+    }
 
+    @DeleteMapping("/items:batch")
+    @Operation(summary = "Remove several from collection",
+            description = "Removes up to " + StampIdsBatchRequest.MAX_ITEMS + " stamps from the authenticated user's collection "
+                    + "in one unordered bulk write. Each stamp is reported as DELETED or NOT_FOUND.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "207", description = "Per-stamp results, in request order.",
+                    content = @Content(schema = @Schema(implementation = BatchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResultDto> removeBatchFromCollection(@Valid @RequestBody StampIdsBatchRequest request) {
+        String userId = currentUserService.getCurrentUserId();
+        BatchResultDto result = new BatchResultDto(collectionService.removeItems(userId, request.getStampIds()));
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+    }
+}
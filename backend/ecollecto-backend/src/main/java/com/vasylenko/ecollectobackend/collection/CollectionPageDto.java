@@ -0,0 +1,23 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One page of the user's collection with full stamp details.")
+public class CollectionPageDto {
+
+    @Schema(description = "Total number of stamps in the collection.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long total;
+
+    @Schema(description = "Requested page, in the requested order.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CollectionStampDto> items;
+}
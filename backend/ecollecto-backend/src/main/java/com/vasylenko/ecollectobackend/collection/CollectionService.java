@@ -1,52 +1,221 @@
 package com.vasylenko.ecollectobackend.collection;
 
-import com.vasylenko.ecollectobackend.common.exception.ConflictException;
-import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DuplicateKeyException;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.stamp.popularity.PopularityList;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
 
+/**
+ * The authenticated user's stamp collection ({@code user_collections}); see {@link UserListService}.
+ */
 @Service
-@RequiredArgsConstructor
-public class CollectionService {
+public class CollectionService extends UserListService<CollectionItemDto> {
 
-    private final CollectionRepository collectionRepository;
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private final StampCatalog stampCatalog;
+    private final CollectionStatsService collectionStatsService;
+    private final StampPopularityService stampPopularityService;
+
+    public CollectionService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                             StampStatesService stampStatesService,
+                             CollectionStatsService collectionStatsService,
+                             StampPopularityService stampPopularityService) {
+        super(mongoTemplate, stampCatalog, stampStatesService, CollectionItemDocument.class, "in your collection");
+        this.stampCatalog = stampCatalog;
+        this.collectionStatsService = collectionStatsService;
+        this.stampPopularityService = stampPopularityService;
+    }
 
     public List<CollectionItemDto> getCollection(String userId) {
-        return collectionRepository.findByUserId(userId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return findAll(userId);
     }
 
-    public CollectionItemDto addItem(String userId, String stampId) {
-        CollectionItemDocument doc = new CollectionItemDocument();
-        doc.setUserId(userId);
-        doc.setStampId(stampId);
-        doc.setAddedAt(Instant.now());
-        try {
-            CollectionItemDocument saved = collectionRepository.save(doc);
-            return toDto(saved);
-        } catch (DuplicateKeyException e) {
-            throw new ConflictException("Stamp '" + stampId + "' is already in your collection.");
+    /**
+     * Returns one page of the user's collection joined with the in-memory stamp catalog.
+     *
+     * <p>Sorted by {@code addedAt}, the page is cut by MongoDB from the covering index and only
+     * its items are read; the total is a count on the same index, skipped when the page itself
+     * shows where the list ends. Sorting by {@code year} or {@code denomination} needs catalog
+     * fields, so those read every {@code {stampId, addedAt}} pair and sort in memory. Either way a
+     * page view never touches the {@code stamp} collection and the client never has to fetch the
+     * catalog or each stamp separately.</p>
+     *
+     * @param sort   {@code addedAt} (default), {@code year} or {@code denomination}
+     * @param order  {@code asc} or {@code desc}; defaults to newest first for {@code addedAt}, ascending otherwise
+     * @param offset items to skip; defaults to 0
+     * @param limit  page size; defaults to {@link #DEFAULT_LIMIT} and is capped at {@link #MAX_LIMIT}
+     * @throws BadRequestException for an unknown sort or order, a negative offset or a non-positive limit
+     */
+    public CollectionPageDto getCollectionPage(String userId, String sort, String order, Integer offset, Integer limit) {
+        Sort by = Sort.parse(sort);
+        boolean descending = parseDescending(order, by);
+        int from = offset != null ? offset : 0;
+        if (from < 0) {
+            throw new BadRequestException("offset must not be negative");
+        }
+        int pageSize = resolveLimit(limit);
+
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        List<CollectionItemDto> page;
+        long total;
+        if (by == Sort.ADDED_AT) {
+            page = findPage(userId, descending, from, pageSize);
+            total = page.size() < pageSize && (from == 0 || !page.isEmpty())
+                    ? from + page.size()
+                    : count(userId);
+        } else {
+            List<CollectionItemDto> rows = findAll(userId).stream()
+                    .map(item -> new Row(item, catalog.findDocumentById(item.getStampId()).orElse(null)))
+                    .sorted(by.comparator(descending).thenComparing(row -> row.item().getStampId()))
+                    .map(Row::item)
+                    .toList();
+            page = rows.subList(Math.min(from, rows.size()), Math.min(from + pageSize, rows.size()));
+            total = rows.size();
         }
+
+        List<CollectionStampDto> items = page.stream()
+                .map(item -> CollectionStampDto.builder()
+                        .stampId(item.getStampId())
+                        .addedAt(item.getAddedAt())
+                        .stamp(catalog.findById(item.getStampId()).orElse(null))
+                        .build())
+                .toList();
+        return CollectionPageDto.builder().total(total).items(items).build();
+    }
+
+    @Override
+    protected void beforeWrite(String userId) {
+        collectionStatsService.beginWrite(userId);
     }
 
-    public void removeItem(String userId, String stampId) {
-        CollectionItemDocument doc = collectionRepository.findByUserIdAndStampId(userId, stampId)
-                .orElseThrow(() -> new NotFoundException(
-                        "Stamp '" + stampId + "' is not in your collection."));
-        collectionRepository.delete(doc);
+    @Override
+    protected void onAdded(String userId, List<String> stampIds) {
+        collectionStatsService.apply(userId, stampIds, 1);
+        stampPopularityService.record(PopularityList.COLLECTED, stampIds, 1);
     }
 
-    private CollectionItemDto toDto(CollectionItemDocument doc) {
+    @Override
+    protected void onRemoved(String userId, List<String> stampIds) {
+        collectionStatsService.apply(userId, stampIds, -1);
+        stampPopularityService.record(PopularityList.COLLECTED, stampIds, -1);
+    }
+
+    @Override
+    protected CollectionItemDto toDto(String stampId, Instant addedAt) {
         return CollectionItemDto.builder()
-                .stampId(doc.getStampId())
-                .addedAt(doc.getAddedAt())
+                .stampId(stampId)
+                .addedAt(addedAt)
                 .build();
     }
-}
 
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static boolean parseDescending(String order, Sort by) {
+        if (order == null || order.isBlank()) {
+            return by == Sort.ADDED_AT;
+        }
+        return switch (order.toLowerCase(Locale.ROOT)) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new BadRequestException("Unsupported order '" + order + "'; expected 'asc' or 'desc'");
+        };
+    }
+
+    /**
+     * Collected item with its catalog document ({@code null} if the stamp left the catalog).
+     */
+    private record Row(CollectionItemDto item, StampDocument document) {
+
+        Integer year() {
+            return document != null && document.getRelease() != null ? document.getRelease().getYear() : null;
+        }
+
+        String currency() {
+            StampDocument.Denomination denomination = denomination();
+            return denomination != null ? denomination.getCurrency() : null;
+        }
+
+        BigDecimal faceValue() {
+            StampDocument.Denomination denomination = denomination();
+            if (denomination == null || denomination.getCode() == null) {
+                return null;
+            }
+            try {
+                return new BigDecimal(denomination.getCode());
+            } catch (NumberFormatException e) {
+                return null; // letter-coded (non-denominated) stamps sort after priced ones
+            }
+        }
+
+        private StampDocument.Denomination denomination() {
+            return document != null && document.getMeta() != null ? document.getMeta().getDenomination() : null;
+        }
+    }
+
+    private enum Sort {
+        ADDED_AT {
+            @Override
+            Comparator<Row> comparator(boolean descending) {
+                return by(row -> row.item().getAddedAt(), descending);
+            }
+        },
+        YEAR {
+            @Override
+            Comparator<Row> comparator(boolean descending) {
+                return by(Row::year, descending);
+            }
+        },
+        DENOMINATION {
+            @Override
+            Comparator<Row> comparator(boolean descending) {
+                return by(Row::currency, descending).thenComparing(by(Row::faceValue, descending));
+            }
+        };
+
+        /**
+         * @return the order for this key; rows without a value (e.g. stamps gone from the catalog) always go last.
+         */
+        abstract Comparator<Row> comparator(boolean descending);
+
+        static Sort parse(String sort) {
+            if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("addedAt")) {
+                return ADDED_AT;
+            }
+            if (sort.equalsIgnoreCase("year")) {
+                return YEAR;
+            }
+            if (sort.equalsIgnoreCase("denomination")) {
+                return DENOMINATION;
+            }
+            throw new BadRequestException("Unsupported sort '" + sort + "'; expected 'addedAt', 'year' or 'denomination'");
+        }
+
+        private static <K extends Comparable<? super K>> Comparator<Row> by(Function<Row, K> key, boolean descending) {
+            return Comparator.comparing(key, Comparator.nullsLast(
+                    descending ? Comparator.<K>reverseOrder() : Comparator.<K>naturalOrder()));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A stamp in the user's collection, joined with its catalog entry.")
+public class CollectionStampDto {
+
+    @Schema(description = "Stamp ID (references stamps._id).", example = "s11", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String stampId;
+
+    @Schema(description = "Timestamp when the stamp was added to the collection.")
+    private Instant addedAt;
+
+    @Schema(description = "Catalog entry; null if the stamp is no longer in the catalog.", nullable = true)
+    private StampDto stamp;
+}
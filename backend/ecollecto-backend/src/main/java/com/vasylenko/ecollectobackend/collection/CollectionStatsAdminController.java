@@ -0,0 +1,47 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.vasylenko.ecollectobackend.common.exception.ConflictException;
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin/collection-stats")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Administrative endpoints (protected - requires ADMIN role).")
+public class CollectionStatsAdminController {
+
+    private final CollectionStatsService collectionStatsService;
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild collection statistics",
+            description = "Recomputes every user's collection statistics from their collections and the current catalog.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Statistics rebuilt."),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Another rebuild is running.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> rebuild() {
+        if (collectionStatsService.rebuildAll().isEmpty()) {
+            throw new ConflictException("A collection statistics rebuild is already running.");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
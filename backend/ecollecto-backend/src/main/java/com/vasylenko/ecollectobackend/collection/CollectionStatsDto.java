@@ -0,0 +1,41 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Collection statistics of the authenticated user.")
+public class CollectionStatsDto {
+
+    @Schema(description = "Stamps in the collection.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long owned;
+
+    @Schema(description = "Stamps in the catalog.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long catalogSize;
+
+    @Schema(description = "Owned of total per release year, oldest first.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CollectionStatsGroupDto> years;
+
+    @Schema(description = "Owned of total per series, most owned first.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CollectionStatsGroupDto> series;
+
+    @Schema(description = "Owned of total per designer, most owned first.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<CollectionStatsGroupDto> designers;
+
+    @Schema(description = "Total face value per currency. Letter-coded stamps are priced at the current UAH tariff.",
+            example = "{\"UAH\": 1234.50, \"UAK\": 12.00}", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Map<String, BigDecimal> faceValue;
+
+    @Schema(description = "Owned stamps whose denomination could not be priced.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long unvalued;
+}
@@ -0,0 +1,27 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Owned versus catalog stamp count for one year, series or designer.")
+public class CollectionStatsGroupDto {
+
+    @Schema(description = "Year, designer ID, or a stable hash of the series name.", example = "1992", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String key;
+
+    @Schema(description = "Display name (same as key for years).", example = "1992")
+    private String label;
+
+    @Schema(description = "Stamps of this group in the user's collection.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long owned;
+
+    @Schema(description = "Stamps of this group in the catalog.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long total;
+}
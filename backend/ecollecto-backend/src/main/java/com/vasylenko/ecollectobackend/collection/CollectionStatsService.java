@@ -0,0 +1,664 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffCatalog;
+import com.vasylenko.ecollectobackend.tariff.TariffTable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Materialized per-user collection statistics in {@value #STATS_COLLECTION}.
+ *
+ * <p>Each user has one document with owned-stamp counts per release year, series and designer,
+ * and the total face value per currency. It is kept current incrementally: every add or remove
+ * in {@link CollectionService} applies the affected stamps' contributions as a single upserted
+ * {@code $inc}. Reading the statistics is therefore one {@code _id} lookup, joined with catalog
+ * totals that are computed once per {@link StampCatalogSnapshot} version.</p>
+ *
+ * <p>Each list write is announced by {@link #beginWrite} before it reaches
+ * {@code user_collections}. This raises the document's {@value #PENDING} count and bumps its
+ * {@value #VERSION}. {@link #apply} then lowers the count again. While a write is pending, a
+ * rebuild leaves the user's document alone: the rebuild could see the new item and then have
+ * the late {@code $inc} count it again. A write still pending after
+ * {@code app.collection.stats.write-timeout} is taken to have died with its node.</p>
+ *
+ * <p>Series names contain dots and arbitrary text, so series are stored under a short hash of
+ * the name and translated back from the catalog on read. Designer ids that are not safe field
+ * names are hashed the same way.</p>
+ *
+ * <p>Contributions are computed against the catalog and tariffs at the time of the write, so
+ * when either changes the documents are rebuilt from {@code user_collections}
+ * ({@code app.collection.stats.rebuild-on-catalog-change}, or
+ * {@code POST /api/admin/collection-stats/rebuild}). Ordered after the stamp and tariff catalogs
+ * so a rebuild sees the new snapshot and tariff table; it runs on its own thread, so the catalog
+ * change stream is not held up while every user is recomputed. A rebuild holds a lease in
+ * {@value #LEASE_COLLECTION} so one node runs it at a time, and replaces each user's document
+ * only if its {@value #VERSION} is unchanged since the user's items were read.</p>
+ */
+@Slf4j
+@Service
+public class CollectionStatsService {
+
+    static final String STATS_COLLECTION = "user_collection_stats";
+
+    static final String TOTAL = "total";
+    static final String UNVALUED = "unvalued";
+    static final String YEARS = "years";
+    static final String SERIES = "series";
+    static final String DESIGNERS = "designers";
+    static final String FACE_VALUE = "faceValue";
+
+    static final String VERSION = "version";
+    static final String PENDING = "pendingWrites";
+    static final String PENDING_AT = "pendingAt";
+    static final String REBUILT_BY = "rebuiltBy";
+    static final String LEASE_COLLECTION = "user_collection_stats_rebuild";
+
+    private static final String LEASE_ID = "rebuild";
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final int MAX_REBUILD_ATTEMPTS = 5;
+    private static final long RETRY_PAUSE_MILLIS = 100;
+    private static final int KEY_HASH_LENGTH = 16;
+
+    private final MongoTemplate mongoTemplate;
+    private final StampCatalog stampCatalog;
+    private final DesignerNameResolver designerNameResolver;
+    private final TariffCatalog tariffCatalog;
+    private final boolean rebuildOnCatalogChange;
+    private final Duration rebuildLease;
+    private final Duration writeTimeout;
+    private final ExecutorService rebuildExecutor =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("collection-stats-rebuild").factory());
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile CatalogTotals catalogTotals;
+
+    public CollectionStatsService(MongoTemplate mongoTemplate,
+                                  StampCatalog stampCatalog,
+                                  DesignerNameResolver designerNameResolver,
+                                  TariffCatalog tariffCatalog,
+                                  @Value("${app.collection.stats.rebuild-on-catalog-change:true}") boolean rebuildOnCatalogChange,
+                                  @Value("${app.collection.stats.rebuild-lease:PT10M}") Duration rebuildLease,
+                                  @Value("${app.collection.stats.write-timeout:PT1M}") Duration writeTimeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.stampCatalog = stampCatalog;
+        this.designerNameResolver = designerNameResolver;
+        this.tariffCatalog = tariffCatalog;
+        this.rebuildOnCatalogChange = rebuildOnCatalogChange;
+        this.rebuildLease = rebuildLease;
+        this.writeTimeout = writeTimeout;
+    }
+
+    @PreDestroy
+    void stopRebuilds() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * Marks a write to the user's collection as pending; see the class comment. Must be followed
+     * by exactly one {@link #apply}, also when the write changed nothing or failed. Throws rather
+     * than logs: the list write has not happened yet and is aborted instead of racing a rebuild.
+     */
+    public void beginWrite(String userId) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc(PENDING, 1).set(PENDING_AT, new Date()).inc(VERSION, 1), STATS_COLLECTION);
+    }
+
+    /**
+     * Applies the contributions of {@code stampIds} to the user's statistics in one upsert that
+     * also bumps the document's {@value #VERSION}, so a concurrent rebuild does not overwrite it,
+     * and ends the write {@link #beginWrite} announced. A failure is logged rather than thrown:
+     * the list write it follows has already succeeded, and the next rebuild repairs the document.
+     *
+     * @param sign {@code 1} for added stamps, {@code -1} for removed ones
+     */
+    public void apply(String userId, List<String> stampIds, int sign) {
+        try {
+            StampCatalogSnapshot catalog = stampCatalog.snapshot();
+            TariffTable tariffs = tariffCatalog.table();
+            Map<String, Long> increments = new HashMap<>();
+            for (String stampId : stampIds) {
+                contribute(increments, catalog.findDocumentById(stampId).orElse(null), tariffs, sign);
+            }
+            Update update = new Update().set("updatedAt", new Date()).inc(VERSION, 1).inc(PENDING, -1);
+            increments.forEach(update::inc);
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), update, STATS_COLLECTION);
+        } catch (RuntimeException e) {
+            log.warn("CollectionStatsService: could not update statistics of user {}; a rebuild will repair them: {}",
+                    userId, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the user's statistics joined with catalog totals; all zero if the user owns nothing
+     */
+    public CollectionStatsDto getStats(String userId) {
+        Document stats = mongoTemplate.findById(userId, Document.class, STATS_COLLECTION);
+        if (stats == null) {
+            stats = new Document();
+        }
+        CatalogTotals totals = catalogTotals();
+
+        Map<String, BigDecimal> faceValue = new LinkedHashMap<>();
+        subDocument(stats, FACE_VALUE).forEach((currency, minorUnits) ->
+                faceValue.put(currency, FaceValue.toAmount(((Number) minorUnits).longValue())));
+
+        return CollectionStatsDto.builder()
+                .owned(longValue(stats.get(TOTAL)))
+                .catalogSize((long) totals.size())
+                .years(groups(stats, YEARS, totals, UnaryOperator.identity(),
+                        Comparator.comparing(group -> Integer.valueOf(group.getKey()))))
+                .series(groups(stats, SERIES, totals, key -> totals.seriesNames().getOrDefault(key, key), byOwned()))
+                .designers(groups(stats, DESIGNERS, totals,
+                        key -> Objects.requireNonNullElse(designerNameResolver.nameOf(key), key), byOwned()))
+                .faceValue(faceValue)
+                .unvalued(longValue(stats.get(UNVALUED)))
+                .build();
+    }
+
+    /**
+     * Recomputes every user's statistics from {@code user_collections} and drops documents of
+     * users who no longer own anything. Runs under a cluster-wide lease; returns empty without
+     * doing anything while another rebuild holds it.
+     *
+     * @return number of users rebuilt, or empty if another rebuild is running
+     */
+    public OptionalInt rebuildAll() {
+        return rebuildAll(false);
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onStampsChanged(CatalogChangeEvent.StampsChanged event) {
+        rebuildAfter(event);
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onTariffsChanged(CatalogChangeEvent.TariffsChanged event) {
+        if (!event.batch().contains(CatalogChangeEvent.STAMP_COLLECTION)) { // otherwise StampsChanged follows
+            rebuildAfter(event);
+        }
+    }
+
+    /**
+     * Queues a rebuild on {@code collection-stats-rebuild} and returns. Changes that arrive while
+     * one is queued share it; a change during a running rebuild queues one more. Every node
+     * receives the change, but only the first to take the lease rebuilds; the others skip while it
+     * runs, and afterwards as long as their catalog fingerprint matches the one the last completed
+     * rebuild used.
+     */
+    private void rebuildAfter(CatalogChangeEvent event) {
+        if (!rebuildOnCatalogChange || !rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildQueued.set(false);
+            try {
+                rebuildAll(true);
+            } catch (RuntimeException e) {
+                log.error("CollectionStatsService: rebuild after {} change failed", event.batch(), e);
+            }
+        });
+    }
+
+    private OptionalInt rebuildAll(boolean skipIfCurrent) {
+        long startedNanos = System.nanoTime();
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        TariffTable tariffs = tariffCatalog.table();
+        String fingerprint = fingerprint(catalog, tariffs);
+        String token = UUID.randomUUID().toString();
+        if (!acquireLease(token, skipIfCurrent ? fingerprint : null)) {
+            log.info("CollectionStatsService: statistics rebuild skipped, another rebuild is running or already covered this catalog");
+            return OptionalInt.empty();
+        }
+
+        boolean completed = false;
+        try {
+            Query query = new Query().with(Sort.by("userId"));
+            query.fields().include("userId").exclude("_id");
+            List<String> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            int users = 0;
+            String currentUser = null;
+            try (Stream<Document> items = mongoTemplate.stream(query, Document.class, itemsCollection())) {
+                Iterator<Document> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    String userId = iterator.next().getString("userId");
+                    if (userId.equals(currentUser)) {
+                        continue;
+                    }
+                    currentUser = userId;
+                    batch.add(userId);
+                    if (batch.size() == REBUILD_BATCH_SIZE) {
+                        users += rebuildUsers(batch, catalog, tariffs, token);
+                        batch.clear();
+                        renewLease(token);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                users += rebuildUsers(batch, catalog, tariffs, token);
+            }
+            int removed = removeOrphans(token);
+            completed = true;
+
+            log.info("CollectionStatsService: rebuilt statistics of {} users and removed {} in {} ms",
+                    users, removed, (System.nanoTime() - startedNanos) / 1_000_000);
+            return OptionalInt.of(users);
+        } finally {
+            releaseLease(token, completed ? fingerprint : null);
+        }
+    }
+
+    /**
+     * Replaces the statistics of {@code userIds}, each conditionally on the document's
+     * {@value #VERSION} being the one read before the user's items were. {@link #beginWrite} and
+     * {@link #apply} bump that version, so a user whose list changed in between fails the
+     * condition (the upsert then collides on {@code _id}) and is recomputed, instead of having
+     * the concurrent {@code $inc} overwritten. Users with a write pending are not replaced at all
+     * until it is applied; they are retried after a short pause.
+     *
+     * @return number of users replaced
+     */
+    private int rebuildUsers(List<String> userIds, StampCatalogSnapshot catalog, TariffTable tariffs, String token) {
+        List<String> pending = userIds;
+        int rebuilt = 0;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > MAX_REBUILD_ATTEMPTS || (attempt > 1 && !pause(attempt))) {
+                log.warn("CollectionStatsService: statistics of {} users kept changing during the rebuild; left as maintained by apply",
+                        pending.size());
+                break;
+            }
+            Map<String, Document> headers = headers(pending);
+            Date now = new Date();
+            List<String> ready = new ArrayList<>(pending.size());
+            List<String> retry = new ArrayList<>();
+            for (String userId : pending) {
+                (writing(headers.get(userId), now) ? retry : ready).add(userId);
+            }
+            if (!ready.isEmpty()) {
+                List<String> conflicts = replace(ready, headers, counts(ready, catalog, tariffs), now, token);
+                rebuilt += ready.size() - conflicts.size();
+                retry.addAll(conflicts);
+            }
+            pending = retry;
+        }
+        return rebuilt;
+    }
+
+    /**
+     * @return the users whose replacement lost to a concurrent write
+     */
+    private List<String> replace(List<String> userIds, Map<String, Document> headers,
+                                 Map<String, Map<String, Long>> counts, Date updatedAt, String token) {
+        List<WriteModel<Document>> writes = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            Document header = headers.getOrDefault(userId, new Document());
+            Long version = header.get(VERSION) instanceof Number number ? number.longValue() : null;
+            Document replacement = statsDocument(userId, counts.getOrDefault(userId, Map.of()), updatedAt)
+                    .append(VERSION, version != null ? version + 1 : 1L)
+                    .append(REBUILT_BY, token);
+            // Not pending, but kept: an apply that outlived the write timeout still decrements it.
+            if (header.containsKey(PENDING)) {
+                replacement.append(PENDING, header.get(PENDING)).append(PENDING_AT, header.get(PENDING_AT));
+            }
+            writes.add(new ReplaceOneModel<>(Filters.and(Filters.eq("_id", userId), Filters.eq(VERSION, version)),
+                    replacement, new ReplaceOptions().upsert(true)));
+        }
+        List<String> conflicts = new ArrayList<>();
+        try {
+            mongoTemplate.getCollection(STATS_COLLECTION).bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteConcernError() != null) {
+                throw e;
+            }
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+                conflicts.add(userIds.get(error.getIndex()));
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * @return {@value #VERSION} and pending-write fields per user; absent for users without a
+     *         document
+     */
+    private Map<String, Document> headers(List<String> userIds) {
+        Query query = Query.query(Criteria.where("_id").in(userIds));
+        query.fields().include(VERSION, PENDING, PENDING_AT);
+        Map<String, Document> headers = new HashMap<>();
+        for (Document stats : mongoTemplate.find(query, Document.class, STATS_COLLECTION)) {
+            headers.put(stats.getString("_id"), stats);
+        }
+        return headers;
+    }
+
+    /**
+     * @return {@code true} while a list write announced by {@link #beginWrite} has not been
+     *         applied and is younger than the write timeout
+     */
+    private boolean writing(Document header, Date now) {
+        return header != null
+                && header.get(PENDING) instanceof Number pending && pending.longValue() > 0
+                && header.get(PENDING_AT) instanceof Date pendingAt
+                && pendingAt.getTime() > now.getTime() - writeTimeout.toMillis();
+    }
+
+    /**
+     * Waits a little longer on every attempt for pending writes to be applied.
+     *
+     * @return {@code false} if interrupted
+     */
+    private static boolean pause(int attempt) {
+        try {
+            Thread.sleep(RETRY_PAUSE_MILLIS * (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Map<String, Map<String, Long>> counts(List<String> userIds, StampCatalogSnapshot catalog, TariffTable tariffs) {
+        Query query = Query.query(Criteria.where("userId").in(userIds));
+        query.fields().include("userId", "stampId").exclude("_id");
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (Document item : mongoTemplate.find(query, Document.class, itemsCollection())) {
+            contribute(counts.computeIfAbsent(item.getString("userId"), userId -> new HashMap<>()),
+                    catalog.findDocumentById(item.getString("stampId")).orElse(null), tariffs, 1);
+        }
+        return counts;
+    }
+
+    /**
+     * Deletes the documents this rebuild did not write whose user owns nothing and has no write
+     * pending, each conditionally on the {@value #VERSION} read before checking, so a user who
+     * adds a stamp meanwhile keeps the document {@link #apply} incremented.
+     *
+     * @return number of documents deleted
+     */
+    private int removeOrphans(String token) {
+        Query query = Query.query(Criteria.where(REBUILT_BY).ne(token));
+        query.fields().include(VERSION, PENDING, PENDING_AT);
+        Map<String, Object> batch = new LinkedHashMap<>();
+        int removed = 0;
+        Date now = new Date();
+        try (Stream<Document> stats = mongoTemplate.stream(query, Document.class, STATS_COLLECTION)) {
+            Iterator<Document> iterator = stats.iterator();
+            while (iterator.hasNext()) {
+                Document document = iterator.next();
+                if (writing(document, now)) {
+                    continue; // the pending write may be adding the user's first stamp
+                }
+                batch.put(document.getString("_id"), document.get(VERSION));
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    removed += removeOrphans(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += removeOrphans(batch);
+        }
+        return removed;
+    }
+
+    private int removeOrphans(Map<String, Object> versions) {
+        Set<String> owners = new HashSet<>(mongoTemplate.findDistinct(
+                Query.query(Criteria.where("userId").in(versions.keySet())), "userId", itemsCollection(), String.class));
+        List<WriteModel<Document>> deletes = new ArrayList<>();
+        versions.forEach((userId, version) -> {
+            if (!owners.contains(userId)) {
+                deletes.add(new DeleteOneModel<>(Filters.and(Filters.eq("_id", userId), Filters.eq(VERSION, version))));
+            }
+        });
+        if (deletes.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.getCollection(STATS_COLLECTION)
+                .bulkWrite(deletes, new BulkWriteOptions().ordered(false)).getDeletedCount();
+    }
+
+    /**
+     * Takes the rebuild lease in {@value #LEASE_COLLECTION} with one upsert: the filter matches
+     * only an expired lease (and, with {@code skipFingerprint}, one whose last completed rebuild
+     * used a different catalog), so while the lease is held or current the upsert collides on
+     * {@code _id} instead.
+     */
+    private boolean acquireLease(String token, String skipFingerprint) {
+        Date now = new Date();
+        Criteria free = Criteria.where("_id").is(LEASE_ID).and("expiresAt").lt(now);
+        if (skipFingerprint != null) {
+            free = free.and("fingerprint").ne(skipFingerprint);
+        }
+        try {
+            mongoTemplate.upsert(Query.query(free), new Update()
+                    .set("holder", token)
+                    .set("expiresAt", new Date(now.getTime() + rebuildLease.toMillis())), LEASE_COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void renewLease(String token) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(LEASE_ID).and("holder").is(token)),
+                Update.update("expiresAt", new Date(System.currentTimeMillis() + rebuildLease.toMillis())),
+                LEASE_COLLECTION);
+    }
+
+    /**
+     * Expires the lease now; a completed rebuild also records the catalog fingerprint it used.
+     */
+    private void releaseLease(String token, String fingerprint) {
+        Update update = Update.update("expiresAt", new Date(0));
+        if (fingerprint != null) {
+            update.set("fingerprint", fingerprint);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(LEASE_ID).and("holder").is(token)),
+                update, LEASE_COLLECTION);
+    }
+
+    /**
+     * @return a digest of every stamp's contribution under {@code tariffs}, in id order, so nodes
+     *         that loaded the same catalog agree on it regardless of load order or snapshot version
+     */
+    String fingerprint(StampCatalogSnapshot catalog, TariffTable tariffs) {
+        MessageDigest digest = sha256();
+        catalog.documents().stream()
+                .sorted(Comparator.comparing(StampDocument::getId))
+                .forEach(document -> {
+                    Map<String, Long> contribution = new TreeMap<>();
+                    contribute(contribution, document, tariffs, 1);
+                    digest.update((document.getId() + contribution + "\n").getBytes(StandardCharsets.UTF_8));
+                });
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds the contribution of one stamp to {@code increments}, keyed by dotted field path.
+     */
+    void contribute(Map<String, Long> increments, StampDocument document, TariffTable tariffs, int sign) {
+        increments.merge(TOTAL, (long) sign, Long::sum);
+        if (document == null) {
+            increments.merge(UNVALUED, (long) sign, Long::sum);
+            return;
+        }
+        if (document.getRelease() != null && document.getRelease().getYear() != null) {
+            increments.merge(YEARS + "." + document.getRelease().getYear(), (long) sign, Long::sum);
+        }
+        StampDocument.Meta meta = document.getMeta();
+        if (meta != null && meta.getSeries() != null && !meta.getSeries().isBlank()) {
+            increments.merge(SERIES + "." + hashKey(meta.getSeries()), (long) sign, Long::sum);
+        }
+        if (meta != null && meta.getDesignerIds() != null) {
+            for (String designerId : meta.getDesignerIds()) {
+                increments.merge(DESIGNERS + "." + fieldKey(designerId), (long) sign, Long::sum);
+            }
+        }
+        FaceValue value = FaceValue.of(meta != null ? meta.getDenomination() : null, tariffs);
+        if (value != null) {
+            increments.merge(FACE_VALUE + "." + value.currency(), sign * value.minorUnits(), Long::sum);
+        } else {
+            increments.merge(UNVALUED, (long) sign, Long::sum);
+        }
+    }
+
+    /**
+     * @return a field-name-safe key for free text: a hex prefix of its SHA-256
+     */
+    static String hashKey(String text) {
+        byte[] hash = sha256().digest(text.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash).substring(0, KEY_HASH_LENGTH);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String fieldKey(String id) {
+        return id.isEmpty() || id.indexOf('.') >= 0 || id.startsWith("$") ? hashKey(id) : id;
+    }
+
+    private CatalogTotals catalogTotals() {
+        StampCatalogSnapshot snapshot = stampCatalog.snapshot();
+        CatalogTotals totals = catalogTotals;
+        if (totals != null && totals.version() == snapshot.version()) {
+            return totals;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, String> seriesNames = new HashMap<>();
+        for (StampDocument document : snapshot.documents()) {
+            contribute(counts, document, TariffTable.EMPTY, 1);
+            if (document.getMeta() != null && document.getMeta().getSeries() != null
+                    && !document.getMeta().getSeries().isBlank()) {
+                seriesNames.putIfAbsent(hashKey(document.getMeta().getSeries()), document.getMeta().getSeries());
+            }
+        }
+        totals = new CatalogTotals(snapshot.version(), snapshot.size(), Map.copyOf(counts), Map.copyOf(seriesNames));
+        catalogTotals = totals;
+        return totals;
+    }
+
+    private static List<CollectionStatsGroupDto> groups(Document stats, String group, CatalogTotals totals,
+                                                        UnaryOperator<String> label,
+                                                        Comparator<CollectionStatsGroupDto> order) {
+        List<CollectionStatsGroupDto> groups = new ArrayList<>();
+        subDocument(stats, group).forEach((key, owned) -> {
+            long count = ((Number) owned).longValue();
+            if (count > 0) {
+                groups.add(CollectionStatsGroupDto.builder()
+                        .key(key)
+                        .label(label.apply(key))
+                        .owned(count)
+                        .total(totals.counts().getOrDefault(group + "." + key, 0L))
+                        .build());
+            }
+        });
+        groups.sort(order);
+        return groups;
+    }
+
+    private static Comparator<CollectionStatsGroupDto> byOwned() {
+        return Comparator.comparing(CollectionStatsGroupDto::getOwned).reversed()
+                .thenComparing(CollectionStatsGroupDto::getLabel);
+    }
+
+    private static Document subDocument(Document stats, String field) {
+        Document sub = stats.get(field, Document.class);
+        return sub != null ? sub : new Document();
+    }
+
+    private static long longValue(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    /**
+     * Expands dotted counter paths into the nested document {@code $inc} would have produced.
+     */
+    private static Document statsDocument(String userId, Map<String, Long> counts, Date updatedAt) {
+        Document document = new Document("_id", userId);
+        counts.forEach((path, count) -> {
+            int dot = path.indexOf('.');
+            if (dot < 0) {
+                document.put(path, count);
+            } else {
+                Document sub = document.get(path.substring(0, dot), Document.class);
+                if (sub == null) {
+                    sub = new Document();
+                    document.put(path.substring(0, dot), sub);
+                }
+                sub.put(path.substring(dot + 1), count);
+            }
+        });
+        return document.append("updatedAt", updatedAt);
+    }
+
+    private String itemsCollection() {
+        return mongoTemplate.getCollectionName(CollectionItemDocument.class);
+    }
+
+    /**
+     * Catalog-wide counts for one snapshot version, keyed like the statistics documents.
+     */
+    private record CatalogTotals(long version, int size, Map<String, Long> counts, Map<String, String> seriesNames) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.vasylenko.ecollectobackend.common.model.Currency;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.DenominationCode;
+import com.vasylenko.ecollectobackend.tariff.TariffTable;
+
+import java.math.BigDecimal;
+
+/**
+ * Face value of one stamp in minor units (kopiyky) of its currency.
+ *
+ * <p>Numeric denominations ({@code "0.15"}, {@code "1,50"}) are taken as printed, in the stamp's
+ * currency. Letter-coded denominations ({@code "U"}, {@code "F+8.00"}) are priced at the UAH
+ * tariff in force for that letter, plus any printed surcharge, the same year
+ * {@code POST /api/tariffs/valuate} takes as current.</p>
+ *
+ * @param currency   ISO-like currency code, e.g. {@code UAH} or {@code UAK}
+ * @param minorUnits value in hundredths of {@code currency}
+ */
+record FaceValue(String currency, long minorUnits) {
+
+    static final Currency LETTER_CURRENCY = Currency.UAH;
+
+    /**
+     * @param tariffs tariffs whose {@link TariffTable#currentYear current} UAH year prices letter codes
+     * @return the face value, or {@code null} if the denomination cannot be priced
+     */
+    static FaceValue of(StampDocument.Denomination denomination, TariffTable tariffs) {
+        DenominationCode code = denomination != null
+                ? DenominationCode.parse(denomination.getCurrency(), denomination.getCode())
+                : null;
+        if (code == null) {
+            return null;
+        }
+        if (!code.isLetter()) {
+            return new FaceValue(code.currency(), code.minorUnits());
+        }
+        long tariff = tariffs.minorUnits(tariffs.currentYear(LETTER_CURRENCY), LETTER_CURRENCY, code.letter());
+        if (tariff == TariffTable.MISSING) {
+            return null;
+        }
+        return new FaceValue(LETTER_CURRENCY.name(), tariff + code.minorUnits());
+    }
+
+    static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+}
@@ -0,0 +1,67 @@
+package com.vasylenko.ecollectobackend.common.catalog;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Typed notification that documents of one catalog collection changed, published as a Spring
+ * application event by {@link CatalogChangeWatcher}. Subscribe with {@code @EventListener} on the
+ * subtype of interest, and {@code @Order} the method when it reads another subscriber's cache.
+ *
+ * <p>{@link #ids()} holds the {@code _id}s of the changed documents. It is empty when they are
+ * not known: after a polling run, after a resync, or when one batch touched more than
+ * {@link CatalogChangeWatcher#MAX_EVENT_IDS} documents. Subscribers must then assume that any
+ * document of the type may have changed.</p>
+ *
+ * <p>The events of one batch are published in {@link #COLLECTIONS} order, and each carries the
+ * whole batch in {@link #batch()}. A subscriber to several types that rebuilds from all of them
+ * can therefore skip an event when a later type of its interest is also in the batch.</p>
+ */
+public sealed interface CatalogChangeEvent {
+
+    String STAMP_COLLECTION = "stamp";
+    String DESIGNER_COLLECTION = "designers";
+    String TARIFF_COLLECTION = "tariffs";
+    String FIRST_DAY_COVER_COLLECTION = "first_day_covers";
+
+    /**
+     * Every collection that has an event type, in publication order: designer names and tariffs
+     * come before the stamps that embed or are priced by them.
+     */
+    List<String> COLLECTIONS = List.of(
+            DESIGNER_COLLECTION, TARIFF_COLLECTION, STAMP_COLLECTION, FIRST_DAY_COVER_COLLECTION);
+
+    Set<String> ids();
+
+    /**
+     * @return every collection changed in the same batch, including this event's own
+     */
+    Set<String> batch();
+
+    record StampsChanged(Set<String> ids, Set<String> batch) implements CatalogChangeEvent {
+    }
+
+    record DesignersChanged(Set<String> ids, Set<String> batch) implements CatalogChangeEvent {
+    }
+
+    record TariffsChanged(Set<String> ids, Set<String> batch) implements CatalogChangeEvent {
+    }
+
+    record FirstDayCoversChanged(Set<String> ids, Set<String> batch) implements CatalogChangeEvent {
+    }
+
+    /**
+     * @return the event for a change to {@code collection}, or {@code null} if it has no event type
+     */
+    static CatalogChangeEvent of(String collection, Set<String> ids, Set<String> batch) {
+        Set<String> changed = Set.copyOf(ids);
+        Set<String> collections = Set.copyOf(batch);
+        return switch (collection) {
+            case STAMP_COLLECTION -> new StampsChanged(changed, collections);
+            case DESIGNER_COLLECTION -> new DesignersChanged(changed, collections);
+            case TARIFF_COLLECTION -> new TariffsChanged(changed, collections);
+            case FIRST_DAY_COVER_COLLECTION -> new FirstDayCoversChanged(changed, collections);
+            default -> null;
+        };
+    }
+}
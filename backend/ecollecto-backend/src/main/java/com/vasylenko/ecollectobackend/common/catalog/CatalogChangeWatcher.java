@@ -0,0 +1,302 @@
+package com.vasylenko.ecollectobackend.common.catalog;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the catalog collections for writes and publishes a {@link CatalogChangeEvent} per
+ * changed collection, which the in-memory catalogs and other caches subscribe to.
+ *
+ * <p>In {@code auto} mode a MongoDB change stream is opened on the database. Standalone
+ * servers (such as the local Docker Compose instance) do not support change streams, so the
+ * watcher then falls back to polling {@code dbHash} every {@code app.catalog.watch.poll-interval}.
+ * In {@code poll} mode the change stream is never attempted. Every node runs its own watcher,
+ * so a write made through any node (or directly in MongoDB) reaches the caches of all of them.</p>
+ *
+ * <p>The change stream resumes after the last dispatched batch, both when it is reopened after
+ * an error and, through {@link CatalogResumeTokenStore}, when the node restarts, so changes made
+ * in between are replayed rather than lost. If the token has fallen off the oplog, an event for
+ * every collection is published once and the stream starts afresh.</p>
+ *
+ * <p>Changes are coalesced: events are published once the stream has been quiet for a
+ * second (or at most every {@link #MAX_DISPATCH_DELAY}), so a full re-seed triggers one
+ * rebuild rather than one per document.</p>
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "app.catalog.watch.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogChangeWatcher implements SmartLifecycle {
+
+    /** "The $changeStream stage is only supported on replica sets". */
+    private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+    /** The resume token is older than the oplog ({@code ChangeStreamHistoryLost}). */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    /** The resume token cannot be used, e.g. its collection was dropped ({@code ChangeStreamFatalError}). */
+    private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+    /** Above this many changed documents per collection and batch, events carry no ids. */
+    static final int MAX_EVENT_IDS = 1000;
+    private static final Duration TOKEN_SAVE_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration MAX_DISPATCH_DELAY = Duration.ofSeconds(5);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    public enum Mode { AUTO, POLL }
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogResumeTokenStore resumeTokenStore;
+    private final Mode mode;
+    private final Set<String> watchedCollections;
+    private final Map<String, String> lastHashes = new HashMap<>();
+
+    private volatile boolean running;
+    private volatile boolean polling;
+    private boolean baselined;
+    private Thread streamThread;
+
+    public CatalogChangeWatcher(MongoTemplate mongoTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                CatalogResumeTokenStore resumeTokenStore,
+                                @Value("${app.catalog.watch.mode:auto}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.resumeTokenStore = resumeTokenStore;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        this.watchedCollections = Set.copyOf(CatalogChangeEvent.COLLECTIONS);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (mode == Mode.POLL) {
+            polling = true;
+            log.info("CatalogChangeWatcher: polling {} (change streams disabled)", watchedCollections);
+            return;
+        }
+        streamThread = Thread.ofPlatform()
+                .name("catalog-change-stream")
+                .daemon(true)
+                .start(this::streamChanges);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (streamThread != null) {
+            streamThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Polling fallback: compares per-collection {@code dbHash} values with the previous run.
+     * Public so that tests and local tooling can drive a poll without waiting for the schedule.
+     */
+    @Scheduled(fixedDelayString = "${app.catalog.watch.poll-interval:PT30S}")
+    public synchronized void poll() {
+        if (!running || !polling) {
+            return;
+        }
+        Document result;
+        try {
+            result = mongoTemplate.getDb().runCommand(new Document("dbHash", 1)
+                    .append("collections", List.copyOf(watchedCollections)));
+        } catch (MongoException e) {
+            log.warn("CatalogChangeWatcher: dbHash poll failed: {}", e.getMessage());
+            return;
+        }
+        Document hashes = result.get("collections", Document.class);
+        Map<String, Set<String>> changed = new HashMap<>();
+        for (String collection : watchedCollections) {
+            String hash = hashes != null ? hashes.getString(collection) : null;
+            String previous = lastHashes.put(collection, hash);
+            if (baselined && !Objects.equals(previous, hash)) {
+                changed.put(collection, null);
+            }
+        }
+        baselined = true;
+        if (!changed.isEmpty()) {
+            dispatch(changed);
+        }
+    }
+
+    private void streamChanges() {
+        List<Bson> pipeline = List.of(Aggregates.match(Filters.in("ns.coll", watchedCollections)));
+        BsonDocument resumeToken = resumeTokenStore.load();
+        while (running) {
+            ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                    .watch(pipeline)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                if (resumeToken == null) {
+                    // Start of history for this node: a restart from here on catches up instead of missing writes.
+                    resumeToken = cursor.getResumeToken();
+                    resumeTokenStore.save(resumeToken);
+                    log.info("CatalogChangeWatcher: listening to change stream on {}", watchedCollections);
+                } else {
+                    log.info("CatalogChangeWatcher: resuming change stream on {}", watchedCollections);
+                }
+                Map<String, Set<String>> pending = new HashMap<>();
+                long firstPendingAt = 0;
+                long savedAt = System.nanoTime();
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        if (pending.isEmpty()) {
+                            firstPendingAt = System.nanoTime();
+                        }
+                        addChange(pending, change);
+                    }
+                    boolean quiet = change == null;
+                    boolean overdue = !pending.isEmpty()
+                            && System.nanoTime() - firstPendingAt > MAX_DISPATCH_DELAY.toNanos();
+                    if (!pending.isEmpty() && (quiet || overdue)) {
+                        dispatch(pending);
+                        pending = new HashMap<>();
+                    } else if (!pending.isEmpty() || System.nanoTime() - savedAt < TOKEN_SAVE_INTERVAL.toNanos()) {
+                        continue;
+                    }
+                    // Everything read so far has been dispatched; idle saves keep the token inside the oplog window.
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                        resumeTokenStore.save(token);
+                        savedAt = System.nanoTime();
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED) {
+                    log.info("CatalogChangeWatcher: change streams not supported by this deployment, polling instead");
+                    polling = true;
+                    return;
+                }
+                if (resumeToken != null && (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST
+                        || e.getErrorCode() == CHANGE_STREAM_FATAL_ERROR)) {
+                    log.warn("CatalogChangeWatcher: cannot resume change stream ({}), resyncing every collection",
+                            e.getMessage());
+                    resumeToken = null;
+                    resumeTokenStore.clear();
+                    dispatch(everything());
+                    continue;
+                }
+                log.warn("CatalogChangeWatcher: change stream failed: {}", e.getMessage());
+                pause();
+            } catch (MongoException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("CatalogChangeWatcher: change stream failed: {}", e.getMessage());
+                pause();
+            }
+        }
+    }
+
+    /**
+     * Adds {@code change} to {@code pending}: collection name to changed ids, where a {@code null}
+     * key stands for every collection and a {@code null} id set for unknown ids.
+     */
+    private static void addChange(Map<String, Set<String>> pending, ChangeStreamDocument<Document> change) {
+        MongoNamespace namespace = change.getNamespace();
+        String collection = namespace != null ? namespace.getCollectionName() : null;
+        boolean known = pending.containsKey(collection);
+        Set<String> ids = pending.get(collection);
+        if (known && ids == null) {
+            return;
+        }
+        String id = idOf(change.getDocumentKey());
+        if (collection == null || id == null || (ids != null && ids.size() >= MAX_EVENT_IDS)) {
+            pending.put(collection, null);
+            return;
+        }
+        if (ids == null) {
+            ids = new HashSet<>();
+            pending.put(collection, ids);
+        }
+        ids.add(id);
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        BsonValue id = documentKey != null ? documentKey.get("_id") : null;
+        if (id == null) {
+            return null;
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.toString();
+    }
+
+    private static Map<String, Set<String>> everything() {
+        Map<String, Set<String>> everything = new HashMap<>();
+        everything.put(null, null);
+        return everything;
+    }
+
+    /**
+     * Publishes one {@link CatalogChangeEvent} per changed collection, in
+     * {@link CatalogChangeEvent#COLLECTIONS} order.
+     */
+    private void dispatch(Map<String, Set<String>> changed) {
+        boolean all = changed.containsKey(null);
+        Set<String> batch = all ? watchedCollections : changed.keySet();
+        for (String collection : CatalogChangeEvent.COLLECTIONS) {
+            if (!batch.contains(collection)) {
+                continue;
+            }
+            Set<String> ids = all ? null : changed.get(collection);
+            CatalogChangeEvent event = CatalogChangeEvent.of(collection, ids != null ? ids : Set.of(), batch);
+            if (event == null) {
+                continue;
+            }
+            try {
+                eventPublisher.publishEvent(event);
+            } catch (RuntimeException e) {
+                log.error("CatalogChangeWatcher: publishing {} failed", event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_DELAY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.vasylenko.ecollectobackend.common.catalog;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers, per node, how far {@link CatalogChangeWatcher} has read the change stream.
+ *
+ * <p>One document per node id in {@code catalog_watch_state} holds the resume token of the last
+ * dispatched batch. A restarted node resumes after it and only replays what changed while it was
+ * down, instead of treating every catalog collection as changed. The id is
+ * {@code app.catalog.watch.node-id}, which defaults to {@code spring.application.name} rather than
+ * the host name, so it survives restarts and redeployments. Nodes that share an id share a resume
+ * point; that is enough, because every node reads the same stream and loads its caches afresh at
+ * startup, so a restarted node only needs the changes none of them has dispatched. Give nodes
+ * distinct stable ids to keep separate progress. Tokens are progress, not state: if one cannot
+ * be read or written, the watcher carries on without it.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.catalog.watch.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogResumeTokenStore {
+
+    static final String STATE_COLLECTION = "catalog_watch_state";
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+
+    public CatalogResumeTokenStore(MongoTemplate mongoTemplate,
+                                   @Value("${app.catalog.watch.node-id:${spring.application.name:ecollecto}}") String nodeId) {
+        if (nodeId.isBlank()) {
+            throw new IllegalArgumentException("app.catalog.watch.node-id must not be blank");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = nodeId.trim();
+    }
+
+    /**
+     * @return the token saved by this node, or {@code null} if there is none
+     */
+    public BsonDocument load() {
+        try {
+            BsonDocument state = states().find(Filters.eq("_id", nodeId)).first();
+            return state != null && state.isDocument("resumeToken") ? state.getDocument("resumeToken") : null;
+        } catch (MongoException e) {
+            log.warn("CatalogResumeTokenStore: could not load resume token of '{}': {}", nodeId, e.getMessage());
+            return null;
+        }
+    }
+
+    public void save(BsonDocument resumeToken) {
+        if (resumeToken == null) {
+            return;
+        }
+        BsonDocument state = new BsonDocument("_id", new BsonString(nodeId))
+                .append("resumeToken", resumeToken)
+                .append("updatedAt", new BsonDateTime(System.currentTimeMillis()));
+        try {
+            states().replaceOne(Filters.eq("_id", nodeId), state, new ReplaceOptions().upsert(true));
+        } catch (MongoException e) {
+            log.warn("CatalogResumeTokenStore: could not save resume token of '{}': {}", nodeId, e.getMessage());
+        }
+    }
+
+    public void clear() {
+        try {
+            states().deleteOne(Filters.eq("_id", nodeId));
+        } catch (MongoException e) {
+            log.warn("CatalogResumeTokenStore: could not clear resume token of '{}': {}", nodeId, e.getMessage());
+        }
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private MongoCollection<BsonDocument> states() {
+        return mongoTemplate.getCollection(STATE_COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+}
@@ -0,0 +1,45 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} that verifies each distinct bearer token once.
+ *
+ * <p>A token seen before and not yet expired is answered from {@link JwtTokenCache} without
+ * parsing or checking its signature; any other token is verified by {@code delegate} and cached
+ * if it passes. Tokens that fail verification are never cached, so a rejected token is
+ * re-checked (and rejected) on every request. Time spent in {@code delegate} is recorded as
+ * {@code ecollecto.security.jwt.verify}.</p>
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final JwtTokenCache tokenCache;
+    private final Timer verify;
+
+    public CachingJwtDecoder(JwtDecoder delegate, JwtTokenCache tokenCache, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.tokenCache = tokenCache;
+        this.verify = meterRegistry.timer("ecollecto.security.jwt.verify");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            Jwt jwt = delegate.decode(token);
+            tokenCache.put(token, jwt);
+            return jwt;
+        } finally {
+            sample.stop(verify);
+        }
+    }
+}
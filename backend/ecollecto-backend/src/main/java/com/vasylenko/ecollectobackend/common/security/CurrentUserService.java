@@ -1,9 +1,12 @@
 package com.vasylenko.ecollectobackend.common.security;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 public class CurrentUserService {
 
@@ -13,10 +16,28 @@ public class CurrentUserService {
         return jwt.getSubject(); // Keycloak sub = user UUID
     }
 
+    /**
+     * @return the caller's user id, or empty on a public route called without a JWT
+     */
+    public Optional<String> findCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof Jwt jwt
+                ? Optional.of(jwt.getSubject())
+                : Optional.empty();
+    }
+
     public String getCurrentUserEmail() {
         Jwt jwt = (Jwt) SecurityContextHolder.getContext()
                 .getAuthentication().getPrincipal();
         return jwt.getClaim("email");
     }
-}
 
+    /**
+     * @return the caller's display name ({@code name} claim), or {@code null} if the token has none
+     */
+    public String getCurrentUserName() {
+        Jwt jwt = (Jwt) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        return jwt.getClaim("name");
+    }
+}
@@ -0,0 +1,122 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Local copy of the identity provider's JWK set, so signatures are verified without a network call.
+ *
+ * <p>The set is fetched on first use and re-fetched in the background every
+ * {@code app.security.jwt.jwks.refresh-interval}. A failed fetch keeps the last good set: tokens
+ * signed with known keys keep verifying while the provider is unreachable, and
+ * {@code ecollecto.security.jwks.age} shows how stale the keys are. A token whose {@code kid} is
+ * not in the set triggers an immediate re-fetch for key rotation, at most once per
+ * {@code app.security.jwt.jwks.min-refresh-interval} so unknown keys cannot flood the provider.</p>
+ */
+@Slf4j
+public class JwkSetCache implements JWKSource<SecurityContext> {
+
+    private final Callable<JWKSet> loader;
+    private final long minRefreshMillis;
+    private final Clock clock;
+    private final Counter refreshed;
+    private final Counter failed;
+
+    private volatile JWKSet current;
+    private volatile long loadedAtMillis;
+    private volatile long attemptedAtMillis = Long.MIN_VALUE;
+
+    public JwkSetCache(Callable<JWKSet> loader, Duration minRefreshInterval, MeterRegistry meterRegistry) {
+        this(loader, minRefreshInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    JwkSetCache(Callable<JWKSet> loader, Duration minRefreshInterval, MeterRegistry meterRegistry, Clock clock) {
+        this.loader = loader;
+        this.minRefreshMillis = minRefreshInterval.toMillis();
+        this.clock = clock;
+        this.refreshed = meterRegistry.counter("ecollecto.security.jwks.refresh", "result", "success");
+        this.failed = meterRegistry.counter("ecollecto.security.jwks.refresh", "result", "failure");
+        Gauge.builder("ecollecto.security.jwks.age", this, JwkSetCache::ageSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("ecollecto.security.jwks.keys", this, cache -> cache.current != null ? cache.current.size() : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        JWKSet keys = current;
+        if (keys == null) {
+            keys = refreshIfAllowed();
+            if (keys == null) {
+                throw new KeySourceException("JWK set is not available");
+            }
+        }
+        List<JWK> matches = selector.select(keys);
+        if (matches.isEmpty() && selector.getMatcher().getKeyIDs() != null) {
+            JWKSet refreshed = refreshIfAllowed();
+            if (refreshed != null && refreshed != keys) {
+                matches = selector.select(refreshed);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Re-fetches the JWK set; on failure keeps the previous one.
+     *
+     * @return {@code true} if a fresh set was loaded
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.jwks.refresh-interval:PT5M}")
+    public boolean refresh() {
+        synchronized (this) {
+            attemptedAtMillis = clock.millis();
+            try {
+                JWKSet keys = loader.call();
+                current = keys;
+                loadedAtMillis = attemptedAtMillis;
+                refreshed.increment();
+                return true;
+            } catch (Exception e) {
+                failed.increment();
+                if (current != null) {
+                    log.warn("JwkSetCache: refresh failed, verifying with keys from {}s ago: {}",
+                            (long) ageSeconds(), e.getMessage());
+                } else {
+                    log.warn("JwkSetCache: could not load JWK set: {}", e.getMessage());
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the current set after a refresh, or without one if the last attempt was too recent
+     */
+    private JWKSet refreshIfAllowed() {
+        synchronized (this) {
+            if (attemptedAtMillis == Long.MIN_VALUE || clock.millis() - attemptedAtMillis >= minRefreshMillis) {
+                refresh();
+            }
+            return current;
+        }
+    }
+
+    double ageSeconds() {
+        return current != null ? (clock.millis() - loadedAtMillis) / 1000.0 : Double.NaN;
+    }
+}
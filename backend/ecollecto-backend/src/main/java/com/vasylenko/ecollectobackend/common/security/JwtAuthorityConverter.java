@@ -14,12 +14,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Maps Keycloak realm roles to {@code ROLE_*} authorities. For tokens held in
+ * {@link JwtTokenCache} the mapping is done once and reused for the token's lifetime.
+ */
 @Component
 public class JwtAuthorityConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
+    private final JwtTokenCache tokenCache;
+
+    public JwtAuthorityConverter(JwtTokenCache tokenCache) {
+        this.tokenCache = tokenCache;
+    }
+
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
-        Collection<GrantedAuthority> authorities = extractRealmRoles(jwt);
+        Collection<GrantedAuthority> authorities = tokenCache.authorities(jwt, this::extractRealmRoles);
         return new JwtAuthenticationToken(jwt, authorities, jwt.getSubject());
     }
 
@@ -0,0 +1,81 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Replaces Spring Boot's issuer-discovered {@link JwtDecoder} with one that verifies against
+ * {@link JwkSetCache} and skips verification for tokens already in {@link JwtTokenCache}.
+ *
+ * <p>The JWK set is read from {@code app.security.jwt.jwk-set-uri}, which defaults to Keycloak's
+ * certificate endpoint under the issuer, so startup does not depend on the provider's discovery
+ * document; a {@code file:} URI is read from disk instead, as the load-test harness does. Tokens
+ * must be RS256 and, when an issuer is configured, carry it as {@code iss}.</p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.security.jwt.caching-decoder.enabled", havingValue = "true", matchIfMissing = true)
+public class JwtDecoderConfig {
+
+    @Bean
+    public JwkSetCache jwkSetCache(
+            @Value("${app.security.jwt.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.issuer-uri}/protocol/openid-connect/certs}") String jwkSetUri,
+            @Value("${app.security.jwt.jwks.min-refresh-interval:PT30S}") Duration minRefreshInterval,
+            @Value("${app.security.jwt.jwks.fetch-timeout:PT5S}") Duration fetchTimeout,
+            MeterRegistry meterRegistry) {
+        URI uri = URI.create(jwkSetUri);
+        if ("file".equals(uri.getScheme())) {
+            return new JwkSetCache(() -> JWKSet.load(Path.of(uri).toFile()), minRefreshInterval, meterRegistry);
+        }
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(fetchTimeout);
+        requestFactory.setReadTimeout(fetchTimeout);
+        RestClient restClient = RestClient.builder().requestFactory(requestFactory).build();
+        return new JwkSetCache(
+                () -> JWKSet.parse(restClient.get().uri(uri).retrieve().body(String.class)),
+                minRefreshInterval, meterRegistry);
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetCache jwkSetCache,
+                                 JwtTokenCache jwtTokenCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri:}") String issuer) {
+        return new CachingJwtDecoder(verifyingDecoder(jwkSetCache, issuer), jwtTokenCache, meterRegistry);
+    }
+
+    /**
+     * Signature check by Nimbus against {@code jwkSource}; claim checks ({@code exp}, {@code nbf},
+     * {@code iss}) by Spring's validators, as in the decoder Spring Boot would build.
+     */
+    static NimbusJwtDecoder verifyingDecoder(JWKSource<SecurityContext> jwkSource, String issuer) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(issuer == null || issuer.isBlank()
+                ? JwtValidators.createDefault()
+                : JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
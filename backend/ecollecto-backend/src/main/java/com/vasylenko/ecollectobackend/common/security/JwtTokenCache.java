@@ -0,0 +1,145 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded map from the SHA-256 of a bearer token to the {@link Jwt} it verified to and the
+ * authorities {@link JwtAuthorityConverter} derived from it.
+ *
+ * <p>{@link CachingJwtDecoder} consults it before verifying a signature and fills it after; an
+ * entry is dropped once the token's {@code exp} has passed, so a cached token is never accepted
+ * for longer than the decoder would accept it. Tokens without {@code exp} are not cached. When
+ * the map reaches {@code app.security.jwt.cache.max-entries}, expired entries are purged and, if
+ * that is not enough, an arbitrary eighth of the remaining entries is dropped. Keys are digests
+ * so the map does not double as an index of raw bearer tokens.</p>
+ */
+@Component
+public class JwtTokenCache {
+
+    /** A verified token and, once converted, its authorities. */
+    record Entry(Jwt jwt, Collection<GrantedAuthority> authorities, long expiresAtMillis) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Clock clock;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public JwtTokenCache(MeterRegistry meterRegistry,
+                         @Value("${app.security.jwt.cache.max-entries:10000}") int maxEntries) {
+        this(meterRegistry, maxEntries, Clock.systemUTC());
+    }
+
+    JwtTokenCache(MeterRegistry meterRegistry, int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("ecollecto.security.jwt.cache", "result", "hit");
+        this.misses = meterRegistry.counter("ecollecto.security.jwt.cache", "result", "miss");
+        this.evictions = meterRegistry.counter("ecollecto.security.jwt.cache.evictions");
+        Gauge.builder("ecollecto.security.jwt.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the cached, unexpired token for {@code token}, or {@code null}
+     */
+    public Jwt get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = key(token);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAtMillis() > clock.millis()) {
+            hits.increment();
+            return entry.jwt();
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches {@code jwt}, which must have been verified from {@code token}, until its {@code exp}.
+     */
+    public void put(String token, Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (maxEntries <= 0 || expiresAt == null || !expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(key(token), new Entry(jwt, null, expiresAt.toEpochMilli()));
+    }
+
+    /**
+     * Returns the authorities already derived for this exact {@code jwt} instance, deriving and
+     * remembering them with {@code converter} on first use. Tokens that are not cached are
+     * converted every time. Costs a second digest of the token, which is far cheaper than the
+     * claim walk it saves.
+     */
+    Collection<GrantedAuthority> authorities(Jwt jwt, Function<Jwt, Collection<GrantedAuthority>> converter) {
+        if (maxEntries <= 0) {
+            return converter.apply(jwt);
+        }
+        String key = key(jwt.getTokenValue());
+        Entry entry = entries.get(key);
+        if (entry == null || entry.jwt() != jwt) {
+            return converter.apply(jwt);
+        }
+        if (entry.authorities() != null) {
+            return entry.authorities();
+        }
+        Collection<GrantedAuthority> authorities = List.copyOf(converter.apply(jwt));
+        entries.replace(key, entry, new Entry(jwt, authorities, entry.expiresAtMillis()));
+        return authorities;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = clock.millis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+        int excess = entries.size() - (maxEntries - 1 - maxEntries / 8);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+            excess--;
+        }
+    }
+
+    private static String key(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
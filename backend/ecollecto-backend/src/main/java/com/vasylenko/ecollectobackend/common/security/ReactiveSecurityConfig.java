@@ -0,0 +1,98 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import tools.jackson.databind.ObjectMapper;
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Security for the {@code reactive} profile, which serves only the public catalog.
+ *
+ * <p>The catalog routes are open exactly as in {@link SecurityConfig}; everything else is
+ * rejected. User and admin endpoints rely on the servlet security context and stay on the
+ * MVC stack.</p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveSecurityConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+            .cors(cors -> cors.configurationSource(reactiveCorsConfigurationSource()))
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .authorizeExchange(auth -> auth
+                // ─── Public catalog (readable by everyone) ───
+                .pathMatchers(HttpMethod.GET, "/api/stamps").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/stamps/**").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/stamp/**").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/first-day-covers").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/first-day-covers/**").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/designers").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/designer/**").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/tariffs").permitAll()
+                .pathMatchers(HttpMethod.GET, "/api/tariffs/**").permitAll()
+                // ─── Actuator ───
+                .pathMatchers("/actuator/health").permitAll()
+                // ─── Not served by the reactive stack ───
+                .anyExchange().denyAll()
+            )
+            // Same { message, code, status } shape as the servlet stack.
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint((exchange, ex) -> writeError(exchange,
+                        new ErrorResponse("Unauthorized", "UNAUTHORIZED", 401)))
+                .accessDeniedHandler((exchange, ex) -> writeError(exchange,
+                        new ErrorResponse("Access denied", "FORBIDDEN", 403)))
+            )
+            .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource reactiveCorsConfigurationSource() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of(
+            "http://localhost:5173",
+            "http://localhost:4173"
+        ));
+        config.setAllowedMethods(List.of("GET", "OPTIONS"));
+        config.setAllowedHeaders(List.of("*"));
+        config.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/api/**", config);
+        return source;
+    }
+
+    private Mono<Void> writeError(ServerWebExchange exchange, ErrorResponse error) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.valueOf(error.getStatus()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -2,6 +2,7 @@ package com.vasylenko.ecollectobackend.common.security;
 
 import tools.jackson.databind.ObjectMapper;
 import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -19,6 +20,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import java.util.List;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -49,6 +51,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/designer/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/tariffs").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/tariffs/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/tariffs/valuate").permitAll()
                 // ─── Actuator / OpenAPI ───
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/v3/api-docs*", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
@@ -0,0 +1,23 @@
+package com.vasylenko.ecollectobackend.common.userlist;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Request body to add or remove several stamps in one call.")
+public class StampIdsBatchRequest {
+
+    public static final int MAX_ITEMS = 500;
+
+    @NotEmpty(message = "stampIds must not be empty")
+    @Size(max = MAX_ITEMS, message = "stampIds must contain at most " + MAX_ITEMS + " entries")
+    @ArraySchema(arraySchema = @Schema(description = "Stamp IDs to add or remove.", example = "[\"s11\", \"s12\"]",
+            requiredMode = Schema.RequiredMode.REQUIRED), maxItems = MAX_ITEMS)
+    private List<@NotBlank(message = "stampIds must not contain blank entries") String> stampIds;
+}
@@ -0,0 +1,373 @@
+package com.vasylenko.ecollectobackend.common.userlist;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.vasylenko.ecollectobackend.common.exception.ConflictException;
+import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
+import com.vasylenko.ecollectobackend.dto.BatchItemResultDto;
+import com.vasylenko.ecollectobackend.dto.BatchItemResultDto.Outcome;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Shared engine behind the per-user stamp lists (collection, wishlist, favorites).
+ *
+ * <p>Every list is a collection of {@code {userId, stampId, addedAt}} documents guarded by the
+ * {@code userId_stampId_unique} index. Single-item writes are one round trip each and decide
+ * their outcome from the write itself: an add is an {@code insertOne} whose duplicate-key error
+ * becomes 409, a remove is a {@code deleteOne} whose zero deleted count becomes 404. There is no
+ * read-then-write, so concurrent adds and removes of the same stamp cannot race.</p>
+ *
+ * <p>Batch adds are one unordered {@code bulkWrite} of inserts, with duplicate-key write errors
+ * reported per item; unknown stamp ids are rejected up front against the in-memory
+ * {@link StampCatalog}. Batch removes read which requested stamps are on the list (one indexed
+ * query) and delete those with one unordered {@code bulkWrite}; stamps not on the list cost no
+ * write. A bulk result only carries a total deleted count, which is all that is needed while it
+ * equals the number of stamps read. When it is lower, a concurrent remove took some of them in
+ * between; the batch then cannot tell which, so it reports every stamp it read as deleted (each
+ * is gone either way) and a hook may count the contested stamps a second time, which the
+ * popularity and statistics rebuilds repair. A zero count is exact too: nothing was removed by
+ * this request.</p>
+ *
+ * <p>Every write is bracketed by hooks: {@link #beforeWrite} runs first, and exactly one
+ * {@link #onAdded} / {@link #onRemoved} call follows with the documents this request inserted or
+ * deleted, also when that is none or the write fails and its exception is rethrown.</p>
+ *
+ * <p>Reads are served by the {@code userId_addedAt_stampId} index alone: they filter on
+ * {@code userId}, sort on {@code addedAt} (ties by {@code stampId}) and project only
+ * {@code stampId} and {@code addedAt}, so MongoDB answers from index keys without fetching a
+ * document, and pages are cut with {@code skip} / {@code limit} on the server.</p>
+ *
+ * <p>Every successful write invalidates the user's cached {@link StampStatesService} bitsets.</p>
+ *
+ * @param <T> item DTO returned by the list's endpoints
+ */
+public abstract class UserListService<T> {
+
+    /** Collection behind the user's stamp collection. */
+    public static final String COLLECTIONS = "user_collections";
+    /** Collection behind the user's wishlist. */
+    public static final String WISHLISTS = "user_wishlists";
+    /** Collection behind the user's favorites. */
+    public static final String FAVORITES = "user_favorites";
+    /** Unique key that guards writes. */
+    public static final String STAMP_INDEX = "userId_stampId_unique";
+    /** Covers list reads sorted by when items were added. */
+    public static final String ADDED_AT_INDEX = "userId_addedAt_stampId";
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoTemplate mongoTemplate;
+    private final StampCatalog stampCatalog;
+    private final StampStatesService stampStatesService;
+    private final String collectionName;
+    private final String placement;
+
+    /**
+     * @param documentClass mapped document class of the list; only its collection name is used
+     * @param placement     how error messages place a stamp on this list, e.g. {@code "in your collection"}
+     */
+    protected UserListService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                              StampStatesService stampStatesService, Class<?> documentClass, String placement) {
+        this.mongoTemplate = mongoTemplate;
+        this.stampCatalog = stampCatalog;
+        this.stampStatesService = stampStatesService;
+        this.collectionName = mongoTemplate.getCollectionName(documentClass);
+        this.placement = placement;
+    }
+
+    protected abstract T toDto(String stampId, Instant addedAt);
+
+    /**
+     * Called before each write to the user's list; exactly one {@link #onAdded} or
+     * {@link #onRemoved} call follows. An exception aborts the write. No-op by default.
+     */
+    protected void beforeWrite(String userId) {
+    }
+
+    /**
+     * Called after each add with the stamps it added to the user's list, possibly none.
+     * No-op by default.
+     */
+    protected void onAdded(String userId, List<String> stampIds) {
+    }
+
+    /**
+     * Called after each remove with the stamps it removed from the user's list, possibly none.
+     * No-op by default.
+     */
+    protected void onRemoved(String userId, List<String> stampIds) {
+    }
+
+    /**
+     * Indexes every list collection needs; see the class comment.
+     */
+    public static List<Index> indexes() {
+        return List.of(
+                new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("stampId", Sort.Direction.ASC)
+                        .unique()
+                        .named(STAMP_INDEX),
+                new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("addedAt", Sort.Direction.ASC)
+                        .on("stampId", Sort.Direction.ASC)
+                        .named(ADDED_AT_INDEX));
+    }
+
+    /**
+     * @return the user's items, oldest first
+     */
+    public List<T> findAll(String userId) {
+        return find(listQuery(userId, false, 0, 0));
+    }
+
+    /**
+     * @param newestFirst {@code true} for descending {@code addedAt}
+     * @return at most {@code limit} of the user's items after skipping {@code offset}
+     */
+    protected List<T> findPage(String userId, boolean newestFirst, int offset, int limit) {
+        return find(listQuery(userId, newestFirst, offset, limit));
+    }
+
+    /**
+     * @return how many items the user has on the list
+     */
+    protected long count(String userId) {
+        return mongoTemplate.count(Query.query(Criteria.where("userId").is(userId)), collectionName);
+    }
+
+    /**
+     * Query answered from {@link #ADDED_AT_INDEX} keys alone; a {@code limit} of 0 means no limit.
+     */
+    static Query listQuery(String userId, boolean newestFirst, int offset, int limit) {
+        Sort.Direction direction = newestFirst ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(Criteria.where("userId").is(userId))
+                .with(Sort.by(direction, "addedAt", "stampId"))
+                .skip(offset)
+                .limit(limit)
+                .withHint(ADDED_AT_INDEX);
+        query.fields().include("stampId", "addedAt").exclude("_id");
+        return query;
+    }
+
+    private List<T> find(Query query) {
+        return mongoTemplate.find(query, Document.class, collectionName).stream()
+                .map(item -> toDto(item.getString("stampId"), toInstant(item.getDate("addedAt"))))
+                .toList();
+    }
+
+    /**
+     * @throws ConflictException if the stamp is already on the list
+     */
+    public T addItem(String userId, String stampId) {
+        // Stored as a BSON date, so keep only what MongoDB keeps.
+        Instant addedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        beforeWrite(userId);
+        boolean added = false;
+        try {
+            collection().insertOne(item(userId, stampId, addedAt));
+            added = true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                throw e;
+            }
+            throw new ConflictException("Stamp '" + stampId + "' is already " + placement + ".");
+        } finally {
+            notifyWritten(userId, added ? List.of(stampId) : List.of(), this::onAdded);
+        }
+        return toDto(stampId, addedAt);
+    }
+
+    /**
+     * @throws NotFoundException if the stamp is not on the list
+     */
+    public void removeItem(String userId, String stampId) {
+        beforeWrite(userId);
+        boolean removed = false;
+        try {
+            removed = collection().deleteOne(itemFilter(userId, stampId)).getDeletedCount() > 0;
+        } finally {
+            notifyWritten(userId, removed ? List.of(stampId) : List.of(), this::onRemoved);
+        }
+        if (!removed) {
+            throw new NotFoundException("Stamp '" + stampId + "' is not " + placement + ".");
+        }
+    }
+
+    /**
+     * Adds several stamps with one unordered bulk write.
+     *
+     * @return one result per requested id, in request order
+     */
+    public List<BatchItemResultDto> addItems(String userId, List<String> stampIds) {
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        Outcome[] outcomes = new Outcome[stampIds.size()];
+        List<WriteModel<Document>> inserts = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        Instant addedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        for (int i = 0; i < stampIds.size(); i++) {
+            String stampId = stampIds.get(i);
+            if (catalog.ordinalOf(stampId) < 0) {
+                outcomes[i] = Outcome.NOT_FOUND;
+                continue;
+            }
+            inserts.add(new InsertOneModel<>(item(userId, stampId, addedAt)));
+            positions.add(i);
+            outcomes[i] = Outcome.CREATED;
+        }
+
+        if (!inserts.isEmpty()) {
+            beforeWrite(userId);
+            boolean applied = false;
+            try {
+                collection().bulkWrite(inserts, UNORDERED);
+                applied = true;
+            } catch (MongoBulkWriteException e) {
+                // Unordered: every insert without a write error was applied, even when the bulk failed.
+                boolean failed = e.getWriteConcernError() != null;
+                for (BulkWriteError error : e.getWriteErrors()) {
+                    boolean duplicate = ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY;
+                    outcomes[positions.get(error.getIndex())] = duplicate ? Outcome.DUPLICATE : null;
+                    failed |= !duplicate;
+                }
+                applied = true;
+                if (failed) {
+                    throw e;
+                }
+            } finally {
+                notifyWritten(userId, applied ? written(stampIds, outcomes, Outcome.CREATED) : List.of(), this::onAdded);
+            }
+        }
+        return results(stampIds, outcomes);
+    }
+
+    /**
+     * Removes the stamps on the list with one unordered bulk write.
+     *
+     * @return one result per requested id, in request order
+     */
+    public List<BatchItemResultDto> removeItems(String userId, List<String> stampIds) {
+        Query present = Query.query(Criteria.where("userId").is(userId).and("stampId").in(stampIds));
+        present.fields().include("stampId").exclude("_id");
+        Set<String> onList = new LinkedHashSet<>();
+        for (Document item : mongoTemplate.find(present, Document.class, collectionName)) {
+            onList.add(item.getString("stampId"));
+        }
+
+        Outcome[] outcomes = new Outcome[stampIds.size()];
+        Arrays.fill(outcomes, Outcome.NOT_FOUND);
+        if (onList.isEmpty()) {
+            return results(stampIds, outcomes);
+        }
+        List<String> targets = new ArrayList<>(onList);
+        List<WriteModel<Document>> deletes = new ArrayList<>(targets.size());
+        for (String stampId : targets) {
+            deletes.add(new DeleteOneModel<>(itemFilter(userId, stampId)));
+        }
+        beforeWrite(userId);
+        try {
+            // A zero count means concurrent removes took every stamp after the read; they report them.
+            if (collection().bulkWrite(deletes, UNORDERED).getDeletedCount() > 0) {
+                markDeleted(stampIds, outcomes, onList);
+            }
+        } catch (MongoBulkWriteException e) {
+            // Unordered: every delete without a write error was applied, even when the bulk failed.
+            for (BulkWriteError error : e.getWriteErrors()) {
+                onList.remove(targets.get(error.getIndex()));
+            }
+            if (e.getWriteResult().wasAcknowledged() && e.getWriteResult().getDeletedCount() > 0) {
+                markDeleted(stampIds, outcomes, onList);
+            }
+            throw e;
+        } finally {
+            notifyWritten(userId, written(stampIds, outcomes, Outcome.DELETED), this::onRemoved);
+        }
+        return results(stampIds, outcomes);
+    }
+
+    /**
+     * Marks the first occurrence of each id in {@code deleted} as {@link Outcome#DELETED}; a repeated
+     * id in the same request stays NOT_FOUND, as a second DELETE would be.
+     */
+    private static void markDeleted(List<String> stampIds, Outcome[] outcomes, Set<String> deleted) {
+        Set<String> pending = new HashSet<>(deleted);
+        for (int i = 0; i < stampIds.size(); i++) {
+            if (pending.remove(stampIds.get(i))) {
+                outcomes[i] = Outcome.DELETED;
+            }
+        }
+    }
+
+    private void notifyWritten(String userId, List<String> changed, BiConsumer<String, List<String>> hook) {
+        if (!changed.isEmpty()) {
+            stampStatesService.invalidate(userId);
+        }
+        hook.accept(userId, changed);
+    }
+
+    private static List<String> written(List<String> stampIds, Outcome[] outcomes, Outcome written) {
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < stampIds.size(); i++) {
+            if (outcomes[i] == written) {
+                changed.add(stampIds.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(collectionName);
+    }
+
+    private static Document item(String userId, String stampId, Instant addedAt) {
+        return new Document("userId", userId)
+                .append("stampId", stampId)
+                .append("addedAt", Date.from(addedAt));
+    }
+
+    private static Bson itemFilter(String userId, String stampId) {
+        return Filters.and(Filters.eq("userId", userId), Filters.eq("stampId", stampId));
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static List<BatchItemResultDto> results(List<String> stampIds, Outcome[] outcomes) {
+        List<BatchItemResultDto> results = new ArrayList<>(stampIds.size());
+        for (int i = 0; i < stampIds.size(); i++) {
+            results.add(new BatchItemResultDto(stampIds.get(i), outcomes[i]));
+        }
+        return results;
+    }
+}
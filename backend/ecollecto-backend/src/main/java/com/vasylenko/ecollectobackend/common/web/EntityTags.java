@@ -0,0 +1,41 @@
+package com.vasylenko.ecollectobackend.common.web;
+
+/**
+ * {@code If-None-Match} evaluation shared by the conditional GET endpoints.
+ *
+ * <p>Uses the weak comparison RFC 9110 requires for {@code If-None-Match}: a leading {@code W/}
+ * is ignored on both sides, so a tag weakened by a proxy or by response compression still
+ * yields 304 Not Modified.</p>
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param ifNoneMatch the {@code If-None-Match} header value, a comma-separated list of tags or {@code *}
+     * @param etags       the current tags of the resource, quoted
+     * @return {@code true} if the header lists {@code *} or any of {@code etags}
+     */
+    public static boolean matches(String ifNoneMatch, String... etags) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*")) {
+                return true;
+            }
+            for (String etag : etags) {
+                if (tag.equals(opaque(etag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
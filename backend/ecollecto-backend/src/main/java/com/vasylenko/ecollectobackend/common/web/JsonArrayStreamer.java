@@ -0,0 +1,54 @@
+package com.vasylenko.ecollectobackend.common.web;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a {@link Stream} to the response as a JSON array, one element at a time.
+ *
+ * <p>Each element is serialized straight into the servlet output stream through a single
+ * {@link JsonGenerator}, so only the element being written and the generator's buffer are live
+ * at once, however long the stream is. Backed by a MongoDB cursor, memory per request stays at a
+ * few KB regardless of catalog size. The stream is closed (releasing the cursor) once the array
+ * has been written or writing fails.</p>
+ */
+@Component
+public class JsonArrayStreamer {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param elements an open stream, typically over a MongoDB cursor; the returned body takes
+     *                 ownership and closes it
+     * @return a response body that writes {@code elements} as a JSON array
+     */
+    public StreamingResponseBody body(Stream<?> elements) {
+        return outputStream -> write(elements, outputStream);
+    }
+
+    /**
+     * Writes {@code elements} to {@code outputStream} as a JSON array and closes {@code elements};
+     * {@code outputStream} is flushed but left open.
+     */
+    public void write(Stream<?> elements, OutputStream outputStream) {
+        try (Stream<?> source = elements;
+             JsonGenerator generator = objectMapper.createGenerator(StreamUtils.nonClosing(outputStream))) {
+            generator.writeStartArray();
+            for (Iterator<?> it = source.iterator(); it.hasNext(); ) {
+                generator.writePOJO(it.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.vasylenko.ecollectobackend.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a classpath JSON array into a MongoDB collection, writing only what changed.
+ *
+ * <p>Each import is checked against a per-collection manifest in {@value #STATE_COLLECTION}:
+ * the SHA-256 of the seed file and of every record in it. A file whose hash matches the manifest
+ * is skipped without being parsed. Otherwise records are read one at a time from Jackson's token
+ * stream, and only those whose content hash differs from the manifest are upserted by
+ * {@code _id}; ids recorded in the manifest but no longer in the file are deleted. Writes are
+ * flushed as unordered {@code bulkWrite} batches of {@code app.data.init.batch-size}, so memory
+ * use is bounded by one batch and an unchanged deploy costs one read per collection.</p>
+ *
+ * <p>Set {@code app.data.init.force=true} to ignore the manifests and rewrite every record,
+ * e.g. after documents were edited by hand in MongoDB.</p>
+ *
+ * <p>Progress is published as Micrometer meters tagged with the target collection:
+ * {@code ecollecto.seed.records} (records read), {@code ecollecto.seed.writes} (tagged
+ * {@code result=inserted|modified|deleted|unchanged}) and the {@code ecollecto.seed.duration}
+ * timer.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.data.init.enabled", havingValue = "true")
+public class CatalogImporter {
+
+    static final String STATE_COLLECTION = "_seed_state";
+
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final boolean force;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /** Serializes records with sorted keys so the content hash ignores key order in the file. */
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    public CatalogImporter(MongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.data.init.batch-size:500}") int batchSize,
+                           @Value("${app.data.init.force:false}") boolean force) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("app.data.init.batch-size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.force = force;
+    }
+
+    /**
+     * Imports one seed file.
+     *
+     * @param classpathResource classpath location of a JSON array of documents with {@code _id}
+     * @param collectionName    target collection
+     * @return counts for the import, or {@code null} if the resource does not exist
+     */
+    public ImportResult importResource(String classpathResource, String collectionName) throws IOException {
+        String fileHash = hashResource(classpathResource);
+        if (fileHash == null) {
+            log.warn("CatalogImporter: resource not found: {}", classpathResource);
+            return null;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+        SeedState previous = force ? SeedState.EMPTY : loadState(collectionName);
+        ImportResult result;
+        if (fileHash.equals(previous.fileHash())) {
+            result = new ImportResult(collectionName, previous.documents().size(), 0, 0, 0,
+                    Duration.ofNanos(System.nanoTime() - started));
+        } else {
+            result = importChanges(classpathResource, collectionName, fileHash, previous, started);
+        }
+
+        meterRegistry.counter("ecollecto.seed.writes", "collection", collectionName, "result", "unchanged")
+                .increment(result.unchanged());
+        sample.stop(meterRegistry.timer("ecollecto.seed.duration", "collection", collectionName));
+        log.info("CatalogImporter: '{}' — {} records ({} inserted, {} modified, {} deleted, {} unchanged) in {} ms",
+                collectionName, result.read(), result.inserted(), result.modified(), result.deleted(),
+                result.unchanged(), result.elapsed().toMillis());
+        return result;
+    }
+
+    private ImportResult importChanges(String classpathResource, String collectionName, String fileHash,
+                                       SeedState previous, long started) throws IOException {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        Counter records = meterRegistry.counter("ecollecto.seed.records", "collection", collectionName);
+        Map<Object, String> hashes = new LinkedHashMap<>();
+        Totals totals = new Totals();
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(classpathResource);
+             JsonParser parser = objectMapper.getFactory().createParser(is)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException(classpathResource + " must contain a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<String, Object> record = objectMapper.readValue(parser, RECORD_TYPE);
+                Object id = record.get("_id");
+                String hash = hashRecord(record);
+                hashes.put(id, hash);
+                records.increment();
+                totals.read++;
+                if (hash.equals(previous.documents().get(id))) {
+                    continue;
+                }
+                batch.add(new ReplaceOneModel<>(new Document("_id", id), new Document(record), UPSERT));
+                if (batch.size() == batchSize) {
+                    flush(collection, collectionName, batch, totals);
+                }
+            }
+        }
+        for (Object id : previous.documents().keySet()) {
+            if (!hashes.containsKey(id)) {
+                batch.add(new DeleteOneModel<>(new Document("_id", id)));
+                if (batch.size() == batchSize) {
+                    flush(collection, collectionName, batch, totals);
+                }
+            }
+        }
+        flush(collection, collectionName, batch, totals);
+
+        // Written last: if the import fails part-way, the next run compares against the old manifest.
+        saveState(collectionName, classpathResource, fileHash, hashes);
+        return new ImportResult(collectionName, totals.read, totals.inserted, totals.modified, totals.deleted,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private void flush(MongoCollection<Document> collection, String name,
+                       List<WriteModel<Document>> batch, Totals totals) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BulkWriteResult written = collection.bulkWrite(batch, UNORDERED);
+        int inserted = written.getUpserts().size();
+        int modified = written.getModifiedCount();
+        int deleted = written.getDeletedCount();
+
+        meterRegistry.counter("ecollecto.seed.writes", "collection", name, "result", "inserted").increment(inserted);
+        meterRegistry.counter("ecollecto.seed.writes", "collection", name, "result", "modified").increment(modified);
+        meterRegistry.counter("ecollecto.seed.writes", "collection", name, "result", "deleted").increment(deleted);
+        totals.inserted += inserted;
+        totals.modified += modified;
+        totals.deleted += deleted;
+        log.debug("CatalogImporter: '{}' — {} writes flushed", name, batch.size());
+        batch.clear();
+    }
+
+    private SeedState loadState(String collectionName) {
+        Document state = mongoTemplate.findById(collectionName, Document.class, STATE_COLLECTION);
+        if (state == null) {
+            return SeedState.EMPTY;
+        }
+        Map<Object, String> documents = new LinkedHashMap<>();
+        for (Document entry : state.getList("documents", Document.class, List.of())) {
+            documents.put(entry.get("_id"), entry.getString("sha256"));
+        }
+        return new SeedState(state.getString("fileHash"), documents);
+    }
+
+    private void saveState(String collectionName, String resource, String fileHash, Map<Object, String> hashes) {
+        // An array of pairs rather than an id-keyed sub-document: ids are not guaranteed to be valid field names.
+        List<Document> documents = new ArrayList<>(hashes.size());
+        hashes.forEach((id, hash) -> documents.add(new Document("_id", id).append("sha256", hash)));
+        mongoTemplate.save(new Document("_id", collectionName)
+                .append("resource", resource)
+                .append("fileHash", fileHash)
+                .append("documents", documents)
+                .append("updatedAt", Instant.now().toString()), STATE_COLLECTION);
+    }
+
+    private String hashResource(String classpathResource) throws IOException {
+        InputStream is = getClass().getClassLoader().getResourceAsStream(classpathResource);
+        if (is == null) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        try (DigestInputStream in = new DigestInputStream(is, digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String hashRecord(Map<String, Object> record) throws IOException {
+        return HexFormat.of().formatHex(sha256().digest(canonicalMapper.writeValueAsBytes(record)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Manifest of the last successful import of one collection.
+     *
+     * @param fileHash  SHA-256 of the seed file, or {@code null} if never imported
+     * @param documents {@code _id} → SHA-256 of the record's canonical JSON
+     */
+    private record SeedState(String fileHash, Map<Object, String> documents) {
+
+        static final SeedState EMPTY = new SeedState(null, Map.of());
+    }
+
+    private static final class Totals {
+        private long read;
+        private long inserted;
+        private long modified;
+        private long deleted;
+    }
+
+    /**
+     * @param collection target collection
+     * @param read       records in the seed file
+     * @param inserted   records that did not exist before
+     * @param modified   existing records whose content changed
+     * @param deleted    records removed because they are no longer in the seed file
+     * @param elapsed    wall-clock import time
+     */
+    public record ImportResult(String collection, long read, long inserted, long modified, long deleted,
+                               Duration elapsed) {
+
+        public long unchanged() {
+            return read - inserted - modified;
+        }
+    }
+}
@@ -1,85 +1,99 @@
 package com.vasylenko.ecollectobackend.config;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.mongodb.client.model.ReplaceOptions;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Component;
 
-import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.core.index.Index;
-
-import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Seeds MongoDB collections from classpath JSON on startup.
  * Activated only when app.data.init.enabled=true (application-seed.properties or env var).
- * All operations are idempotent: replaceOne with upsert=true by _id.
+ * All operations are idempotent: bulk replaceOne with upsert=true by _id, limited to the records
+ * that changed since the last seed (see {@link CatalogImporter} and the _seed_state manifests).
+ * The seed files are streamed by {@link CatalogImporter} in parallel, one thread per file and
+ * up to {@code app.data.init.parallelism} at a time; the threads are virtual when
+ * {@code spring.threads.virtual.enabled} is set, like the rest of the application's work.
+ * Indexes are not created here but by {@link MongoIndexInitializer}, which runs whether or not
+ * the seed does.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnProperty(name = "app.data.init.enabled", havingValue = "true")
 public class DataInitializer implements ApplicationRunner {
 
+    private static final List<SeedFile> SEED_FILES = List.of(
+            new SeedFile("migration-data/ua/designers.json", "designers"),
+            new SeedFile("migration-data/ua/first_day_covers.json", "first_day_covers"),
+            new SeedFile("migration-data/ua/stamp.json", "stamp"),
+            new SeedFile("migration-data/ua/tariffs.json", "tariffs"));
+
     private final MongoTemplate mongoTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CatalogImporter catalogImporter;
+    private final int parallelism;
+    private final boolean virtualThreads;
+
+    public DataInitializer(MongoTemplate mongoTemplate,
+                           CatalogImporter catalogImporter,
+                           @Value("${app.data.init.parallelism:4}") int parallelism,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogImporter = catalogImporter;
+        this.parallelism = Math.max(1, parallelism);
+        this.virtualThreads = virtualThreads;
+    }
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
         log.info("DataInitializer: starting seed...");
-        seedCollection("migration-data/ua/designers.json", "designers");
-        seedCollection("migration-data/ua/first_day_covers.json", "first_day_covers");
-        seedCollection("migration-data/ua/stamp.json", "stamp");
-        seedCollection("migration-data/ua/tariffs.json", "tariffs");
-        log.info("DataInitializer: seed complete.");
-
-        log.info("DataInitializer: creating compound indexes (V002)...");
-        createUserStampIndex("user_collections");
-        createUserStampIndex("user_wishlists");
-        createUserStampIndex("user_favorites");
-        log.info("DataInitializer: indexes ready.");
+        long started = System.nanoTime();
+        seedCollections();
+        log.info("DataInitializer: seed complete in {} ms.", (System.nanoTime() - started) / 1_000_000);
     }
 
     /**
-     * Idempotent: MongoDB createIndex is a no-op if an index with the same
-     * key pattern and options already exists.
+     * Imports every seed file, failing the run if any import fails.
      */
-    private void createUserStampIndex(String collectionName) {
-        mongoTemplate.indexOps(collectionName)
-                .createIndex(new Index()
-                        .on("userId", Sort.Direction.ASC)
-                        .on("stampId", Sort.Direction.ASC)
-                        .unique()
-                        .named("userId_stampId_unique"));
-        log.info("DataInitializer: index ready on '{}'", collectionName);
+    private void seedCollections() throws Exception {
+        ThreadFactory threads = virtualThreads
+                ? Thread.ofVirtual().name("seed-", 0).factory()
+                : Thread.ofPlatform().name("seed-", 0).factory();
+        // Threads are cheap; the semaphore is what bounds the concurrent load on MongoDB.
+        Semaphore permits = new Semaphore(parallelism);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(threads)) {
+            List<Future<CatalogImporter.ImportResult>> imports = new ArrayList<>();
+            for (SeedFile file : SEED_FILES) {
+                imports.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return catalogImporter.importResource(file.resource(), file.collection());
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<CatalogImporter.ImportResult> result : imports) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    imports.forEach(pending -> pending.cancel(true));
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+        }
     }
 
-    private void seedCollection(String classpathResource, String collectionName) throws Exception {
-        InputStream is = getClass().getClassLoader().getResourceAsStream(classpathResource);
-        if (is == null) {
-            log.warn("DataInitializer: resource not found: {}", classpathResource);
-            return;
-        }
-        List<Map<String, Object>> records = objectMapper.readValue(is, new TypeReference<>() {});
-        var collection = mongoTemplate.getCollection(collectionName);
-        var options = new ReplaceOptions().upsert(true);
-        int count = 0;
-        for (Map<String, Object> record : records) {
-            Document doc = new Document(record);
-            collection.replaceOne(new Document("_id", doc.get("_id")), doc, options);
-            count++;
-        }
-        log.info("DataInitializer: upserted {} records into '{}'", count, collectionName);
+    private record SeedFile(String resource, String collection) {
     }
 }
-
-
@@ -0,0 +1,121 @@
+package com.vasylenko.ecollectobackend.config;
+
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the number of requests that may be using MongoDB at once.
+ *
+ * <p>On virtual threads the servlet container no longer caps concurrency, so thousands of
+ * MongoDB-backed requests can reach the driver together. Each would then queue for a pooled
+ * connection for up to the driver's 2-minute wait. This filter admits at most
+ * {@code app.mongo.limiter.max-concurrent} of them, which should not exceed the connection pool
+ * size ({@code maxPoolSize}, default 100). Requests wait up to
+ * {@code app.mongo.limiter.acquire-timeout} for a permit and are then answered with 503 and
+ * {@code Retry-After}.</p>
+ *
+ * <p>Limited: {@code /api/me} and {@code /api/me/**}, {@code /api/admin/**}, keyset pages
+ * ({@code /api/stamps/page}), designers, {@code /api/tariffs/valuate}, and {@code /api/stamps}
+ * when {@code app.stamps.list.streaming} serves it from a cursor. The remaining catalog reads
+ * are served from in-memory snapshots and are not limited.</p>
+ *
+ * <p>Runs after the security filter chain, so unauthenticated requests never take a permit.</p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.mongo.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+    private final boolean streamingList;
+
+    public MongoConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.mongo.limiter.max-concurrent:100}") int maxConcurrent,
+                                       @Value("${app.mongo.limiter.acquire-timeout:PT2S}") Duration acquireTimeout,
+                                       @Value("${app.stamps.list.streaming:false}") boolean streamingList) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("app.mongo.limiter.max-concurrent must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+        this.rejected = meterRegistry.counter("ecollecto.mongo.limiter.rejected");
+        this.streamingList = streamingList;
+        Gauge.builder("ecollecto.mongo.limiter.in-use", this, MongoConcurrencyLimitFilter::inUse)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !usesMongo(path);
+    }
+
+    private boolean usesMongo(String path) {
+        return path.equals("/api/me") || path.startsWith("/api/me/")
+                || path.startsWith("/api/admin/")
+                || path.equals("/api/stamps/page")
+                || path.equals("/api/designers") || path.startsWith("/api/designer/")
+                || path.equals("/api/tariffs/valuate")
+                || streamingList && path.equals("/api/stamps");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getWriter(), new ErrorResponse(
+                    "Too many concurrent requests; retry shortly", "SERVICE_UNAVAILABLE",
+                    HttpStatus.SERVICE_UNAVAILABLE.value()));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    int inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,58 @@
+package com.vasylenko.ecollectobackend.config;
+
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.stamp.StampRepositoryCustomImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the indexes that queries rely on, on every startup.
+ * Auto-index creation is off, so {@code @CompoundIndex} annotations are never applied; the
+ * indexes that keyset pages and hinted reads depend on are listed here instead, independently of
+ * whether the seed profile runs. Idempotent: createIndex is a no-op when an index with the same
+ * key pattern and options already exists. A failure aborts startup rather than leaving hinted
+ * queries to fail on every request.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.mongo.indexes.enabled", havingValue = "true", matchIfMissing = true)
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        indexes().forEach((collectionName, indexes) -> {
+            IndexOperations indexOps = mongoTemplate.indexOps(collectionName);
+            indexes.forEach(indexOps::createIndex);
+            log.info("MongoIndexInitializer: {} index(es) ready on '{}'", indexes.size(), collectionName);
+        });
+    }
+
+    /**
+     * @return indexes to create, by collection name
+     */
+    static Map<String, List<Index>> indexes() {
+        Map<String, List<Index>> indexes = new LinkedHashMap<>();
+        indexes.put("stamp", StampRepositoryCustomImpl.indexes());
+        indexes.put(UserListService.COLLECTIONS, UserListService.indexes());
+        indexes.put(UserListService.WISHLISTS, UserListService.indexes());
+        indexes.put(UserListService.FAVORITES, UserListService.indexes());
+        return indexes;
+    }
+}
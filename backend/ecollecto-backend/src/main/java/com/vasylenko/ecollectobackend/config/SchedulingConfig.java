@@ -0,0 +1,12 @@
+package com.vasylenko.ecollectobackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background work such as the catalog polling fallback.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
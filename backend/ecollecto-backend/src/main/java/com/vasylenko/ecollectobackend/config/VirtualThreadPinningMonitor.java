@@ -0,0 +1,102 @@
+package com.vasylenko.ecollectobackend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier for longer than
+ * {@code app.virtual-threads.pinning.threshold}.
+ *
+ * <p>A pinned virtual thread blocks its carrier platform thread, so a few long pins can stall
+ * every request on the node. JDK 24+ no longer pins on {@code synchronized}, but native frames
+ * and class initialization still do. The monitor subscribes in-process to the JFR
+ * {@code jdk.VirtualThreadPinned} event. Each pin is recorded in the
+ * {@code ecollecto.virtual-threads.pinned} timer, and the first pin at each distinct call site is
+ * logged with its stack.</p>
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "app.virtual-threads.pinning.enabled"},
+        havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_SITES = 256;
+
+    private final Timer pinned;
+    private final Duration threshold;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning.threshold:PT20MS}") Duration threshold) {
+        this.pinned = Timer.builder("ecollecto.virtual-threads.pinned")
+                .description("Virtual thread pins longer than app.virtual-threads.pinning.threshold")
+                .register(meterRegistry);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("VirtualThreadPinningMonitor: reporting pins longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        List<String> frames = frames(event.getStackTrace());
+        String site = frames.isEmpty() ? "<unknown>" : frames.getFirst();
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            log.warn("VirtualThreadPinningMonitor: virtual thread pinned for {} ms at\n\t{}",
+                    event.getDuration().toMillis(), String.join("\n\t", frames));
+        }
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+package com.vasylenko.ecollectobackend.designer;
+
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory designer id → name map shared by the stamp and first-day-cover mappers.
+ *
+ * <p>All names are loaded with one projected query on first use (or at startup) and replaced
+ * wholesale when {@code designers} changes, so resolving names never does I/O. Every designer
+ * is kept: a name is a few dozen bytes, and a dropped entry would silently blank the designer
+ * of every stamp and cover that references it.</p>
+ *
+ * <p>Handles {@link CatalogChangeEvent.DesignersChanged} first, so caches that embed designer
+ * names (such as the stamp catalog) rebuild against fresh names.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DesignerNameResolver {
+
+    private final DesignerRepository designerRepository;
+
+    private final AtomicReference<Map<String, String>> current = new AtomicReference<>();
+    private final Object reloadLock = new Object();
+
+    /**
+     * @return an immutable id → name map of all designers, loading it on first access.
+     */
+    public Map<String, String> names() {
+        Map<String, String> names = current.get();
+        if (names != null) {
+            return names;
+        }
+        synchronized (reloadLock) {
+            names = current.get();
+            return names != null ? names : reload();
+        }
+    }
+
+    /**
+     * @return the designer's name, or {@code null} if the id is {@code null} or unknown.
+     */
+    public String nameOf(String designerId) {
+        return designerId != null ? names().get(designerId) : null;
+    }
+
+    /**
+     * Reloads all designer names from MongoDB and swaps them in.
+     */
+    public Map<String, String> reload() {
+        synchronized (reloadLock) {
+            List<DesignerDocument> designers = designerRepository.findAllNames();
+            Map<String, String> names = new HashMap<>(designers.size() * 4 / 3 + 1);
+            for (DesignerDocument designer : designers) {
+                if (designer != null && designer.getId() != null && designer.getName() != null) {
+                    names.putIfAbsent(designer.getId(), designer.getName());
+                }
+            }
+            Map<String, String> snapshot = Map.copyOf(names);
+            current.set(snapshot);
+            log.info("DesignerNameResolver: loaded {} designer names", snapshot.size());
+            return snapshot;
+        }
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDesignersChanged(CatalogChangeEvent.DesignersChanged event) {
+        if (current.get() == null) {
+            return; // never loaded — the next reader will load fresh data
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("DesignerNameResolver: reload failed, keeping previous names", e);
+        }
+    }
+
+    /**
+     * Loads names at startup so the first request does not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            names();
+        } catch (RuntimeException e) {
+            log.warn("DesignerNameResolver: warm-up failed, will load on first request: {}", e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.vasylenko.ecollectobackend.designer;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
 
 public interface DesignerRepository extends MongoRepository<DesignerDocument, String> {
+
+    @Query(value = "{}", fields = "{ 'name': 1 }")
+    List<DesignerDocument> findAllNames();
 }
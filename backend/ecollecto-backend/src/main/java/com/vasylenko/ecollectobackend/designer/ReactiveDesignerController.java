@@ -0,0 +1,50 @@
+package com.vasylenko.ecollectobackend.designer;
+
+import com.vasylenko.ecollectobackend.dto.DesignerDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux counterpart of {@link DesignerController}, active under the {@code reactive} profile.
+ * Designers are streamed from {@link ReactiveDesignerRepository} as NDJSON or a chunked JSON array.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDesignerController {
+
+    private final ReactiveDesignerRepository designerRepository;
+    private final DesignerMapper designerMapper;
+
+    /**
+     * GET /api/designers
+     * Streams all designers.
+     */
+    @GetMapping(value = "/designers", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DesignerDto> getAllDesigners() {
+        return designerRepository.findAll().map(designerMapper::toDto);
+    }
+
+    /**
+     * GET /api/designer/{id}
+     * Retrieves a specific designer by their unique identifier, or 404 Not Found.
+     */
+    @GetMapping("/designer/{id}")
+    public Mono<ResponseEntity<DesignerDto>> getDesignerById(@PathVariable String id) {
+        return designerRepository.findById(id)
+                .map(designerMapper::toDto)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Designer with id {} not found", id);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+}
@@ -0,0 +1,9 @@
+package com.vasylenko.ecollectobackend.designer;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking counterpart of {@link DesignerRepository}, used by {@link ReactiveDesignerController}.
+ */
+public interface ReactiveDesignerRepository extends ReactiveMongoRepository<DesignerDocument, String> {
+}
@@ -0,0 +1,44 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one stamp in a batch add or remove.")
+public class BatchItemResultDto {
+
+    @Schema(description = "Stamp ID as sent in the request.", example = "s11", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String stampId;
+
+    @Schema(description = "What happened to this stamp.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Outcome result;
+
+    @Schema(description = "HTTP status the equivalent single-item request would have returned.", example = "201",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer status;
+
+    public BatchItemResultDto(String stampId, Outcome result) {
+        this(stampId, result, result.getStatus());
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Outcome {
+        /** Added to the list. */
+        CREATED(201),
+        /** Already on the list; nothing written. */
+        DUPLICATE(409),
+        /** Removed from the list. */
+        DELETED(204),
+        /** Unknown stamp (add) or not on the list (remove). */
+        NOT_FOUND(404);
+
+        private final int status;
+    }
+}
@@ -0,0 +1,20 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-item results of a batch add or remove, returned with 207 Multi-Status.")
+public class BatchResultDto {
+
+    @ArraySchema(arraySchema = @Schema(description = "One result per requested stamp, in request order.",
+            requiredMode = Schema.RequiredMode.REQUIRED))
+    private List<BatchItemResultDto> results;
+}
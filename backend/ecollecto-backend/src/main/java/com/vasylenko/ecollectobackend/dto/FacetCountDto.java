@@ -0,0 +1,18 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Number of matching stamps for one facet value.")
+public class FacetCountDto {
+    @Schema(description = "Facet value.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String value;
+
+    @Schema(description = "Matching stamps with this value.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long count;
+}
@@ -0,0 +1,23 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A stamp ranked by how many users hold it in one list.")
+public class PopularStampDto {
+    @Schema(description = "Stamp ID (references stamps._id).", example = "s11", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String stampId;
+
+    @Schema(description = "Number of users holding the stamp in the requested list.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long count;
+
+    @Schema(description = "Catalog entry.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private StampDto stamp;
+}
@@ -0,0 +1,26 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One keyset page of stamps.")
+public class StampPageDto {
+    @Schema(description = "Stamps on this page. Fields outside the requested projection are null.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<StampDto> items;
+
+    @Schema(description = "Opaque cursor for the next page; null on the last page.",
+            requiredMode = Schema.RequiredMode.REQUIRED, nullable = true)
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Ranked stamp search hits with facet counts.")
+public class StampSearchResultDto {
+    @Schema(description = "Total number of matching stamps.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long total;
+
+    @Schema(description = "Requested page of matching stamps, best match first.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<StampDto> items;
+
+    @Schema(description = "Counts per facet value (themes, designers, currency, europa, perforation, years). "
+            + "Each facet is counted with every filter applied except its own.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Map<String, List<FacetCountDto>> facets;
+}
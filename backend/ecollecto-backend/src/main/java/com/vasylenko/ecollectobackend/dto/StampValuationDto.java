@@ -0,0 +1,36 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Face value of one stamp at the current tariff and at the tariff in force when it was issued.")
+public class StampValuationDto {
+
+    @Schema(description = "Stamp identifier.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String stampId;
+
+    @Schema(description = "Printed denomination code; null for unknown stamps.", example = "F+8.00")
+    private String denomination;
+
+    @Schema(description = "Currency of both values; null if the stamp cannot be priced.", example = "UAH")
+    private String currency;
+
+    @Schema(description = "Face value today. Letter codes are priced at the latest tariff.", example = "56.00")
+    private BigDecimal currentValue;
+
+    @Schema(description = "Face value when issued. Letter codes are priced at the tariff in force in the release year.",
+            example = "38.00")
+    private BigDecimal historicalValue;
+
+    @Schema(description = "Tariff year used for the historical value of a letter code.", example = "2024")
+    private Integer historicalTariffYear;
+}
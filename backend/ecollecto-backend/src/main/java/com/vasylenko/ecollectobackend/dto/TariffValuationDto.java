@@ -0,0 +1,37 @@
+package com.vasylenko.ecollectobackend.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Current and historical face value of a set of stamps.")
+public class TariffValuationDto {
+
+    @Schema(description = "Tariff year used for current values; null if no tariffs are stored.", example = "2026")
+    private Integer tariffYear;
+
+    @Schema(description = "One entry per requested stamp, in request order.", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<StampValuationDto> stamps;
+
+    @Schema(description = "Sum of current values per currency.", example = "{\"UAH\": 1234.50, \"UAK\": 12.00}",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Map<String, BigDecimal> currentTotal;
+
+    @Schema(description = "Sum of historical values per currency.", example = "{\"UAH\": 980.00, \"UAK\": 12.00}",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Map<String, BigDecimal> historicalTotal;
+
+    @Schema(description = "Stamps without a current value (unknown ids or unpriceable denominations).",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long unvalued;
+}
@@ -1,5 +1,6 @@
 package com.vasylenko.ecollectobackend.favorites;
 
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -10,8 +11,8 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
-@Document("user_favorites")
-@CompoundIndex(name = "userId_stampId_unique", def = "{'userId': 1, 'stampId': 1}", unique = true)
+@Document(UserListService.FAVORITES)
+@CompoundIndex(name = UserListService.STAMP_INDEX, def = "{'userId': 1, 'stampId': 1}", unique = true)
 @Getter
 @Setter
 @ToString
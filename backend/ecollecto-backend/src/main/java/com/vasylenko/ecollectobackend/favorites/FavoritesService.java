@@ -1,52 +1,50 @@
 package com.vasylenko.ecollectobackend.favorites;
 
-import com.vasylenko.ecollectobackend.common.exception.ConflictException;
-import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DuplicateKeyException;
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.popularity.PopularityList;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
 
+/**
+ * The authenticated user's favorites ({@code user_favorites}); see {@link UserListService}.
+ */
 @Service
-@RequiredArgsConstructor
-public class FavoritesService {
+public class FavoritesService extends UserListService<FavoriteItemDto> {
 
-    private final FavoritesRepository favoritesRepository;
+    private final StampPopularityService stampPopularityService;
+
+    public FavoritesService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                            StampStatesService stampStatesService,
+                            StampPopularityService stampPopularityService) {
+        super(mongoTemplate, stampCatalog, stampStatesService, FavoriteDocument.class, "in your favorites");
+        this.stampPopularityService = stampPopularityService;
+    }
 
     public List<FavoriteItemDto> getFavorites(String userId) {
-        return favoritesRepository.findByUserId(userId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return findAll(userId);
     }
 
-    public FavoriteItemDto addItem(String userId, String stampId) {
-        FavoriteDocument doc = new FavoriteDocument();
-        doc.setUserId(userId);
-        doc.setStampId(stampId);
-        doc.setAddedAt(Instant.now());
-        try {
-            FavoriteDocument saved = favoritesRepository.save(doc);
-            return toDto(saved);
-        } catch (DuplicateKeyException e) {
-            throw new ConflictException("Stamp '" + stampId + "' is already in your favorites.");
-        }
+    @Override
+    protected void onAdded(String userId, List<String> stampIds) {
+        stampPopularityService.record(PopularityList.FAVORITED, stampIds, 1);
     }
 
-    public void removeItem(String userId, String stampId) {
-        FavoriteDocument doc = favoritesRepository.findByUserIdAndStampId(userId, stampId)
-                .orElseThrow(() -> new NotFoundException(
-                        "Stamp '" + stampId + "' is not in your favorites."));
-        favoritesRepository.delete(doc);
+    @Override
+    protected void onRemoved(String userId, List<String> stampIds) {
+        stampPopularityService.record(PopularityList.FAVORITED, stampIds, -1);
     }
 
-    private FavoriteItemDto toDto(FavoriteDocument doc) {
+    @Override
+    protected FavoriteItemDto toDto(String stampId, Instant addedAt) {
         return FavoriteItemDto.builder()
-                .stampId(doc.getStampId())
-                .addedAt(doc.getAddedAt())
+                .stampId(stampId)
+                .addedAt(addedAt)
                 .build();
     }
 }
-
@@ -1,5 +1,6 @@
 package com.vasylenko.ecollectobackend.fdc;
 
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
 import com.vasylenko.ecollectobackend.dto.ErrorResponse;
 import com.vasylenko.ecollectobackend.dto.FirstDayCoverDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,17 +12,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing First Day Covers (FDCs).
  * Provides endpoints for retrieving FDC details within the ecollecto system.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/api/first-day-covers")
 @Slf4j
@@ -29,13 +33,15 @@ import java.util.List;
 public class FirstDayCoverController {
 
     private final FirstDayCoverService firstDayCoverService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * GET /api/first-day-covers
-     * Retrieves all registered First Day Covers (FDCs).
+     * Retrieves all registered First Day Covers (FDCs), streamed from a MongoDB cursor as a JSON array
+     * so the whole collection is never held in memory.
      *
-     * @return A {@link ResponseEntity} containing a {@link List} of {@link FirstDayCoverDto} objects.
-     * Defaults to an empty list with a 200 OK status if no records are currently stored.
+     * @return A {@link ResponseEntity} whose body writes the {@link FirstDayCoverDto} objects one at a time.
+     * Defaults to an empty array with a 200 OK status if no records are currently stored.
      */
     @GetMapping
     @Operation(summary = "List first day covers", description = "Retrieve all first day covers.")
@@ -45,9 +51,11 @@ public class FirstDayCoverController {
             @ApiResponse(responseCode = "500", description = "Server error.",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<List<FirstDayCoverDto>> getAllFirstDayCovers() {
-        List<FirstDayCoverDto> covers = firstDayCoverService.findAll();
-        return ResponseEntity.ok(covers);
+    public ResponseEntity<StreamingResponseBody> getAllFirstDayCovers() {
+        Stream<FirstDayCoverDto> covers = firstDayCoverService.stream();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArrayStreamer.body(covers));
     }
 
     /**
@@ -1,6 +1,15 @@
 package com.vasylenko.ecollectobackend.fdc;
 
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.stream.Stream;
 
 public interface FirstDayCoverRepository extends MongoRepository<FirstDayCoverDocument, String> {
+
+    /** Cursor over all covers in natural order, 100 documents per round trip; close the stream to release it. */
+    @Query("{}")
+    @Meta(cursorBatchSize = 100)
+    Stream<FirstDayCoverDocument> streamAll();
 }
@@ -0,0 +1,63 @@
+package com.vasylenko.ecollectobackend.fdc;
+
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.dto.FirstDayCoverDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link FirstDayCoverController}, active under the {@code reactive} profile.
+ * Covers are streamed from {@link ReactiveFirstDayCoverRepository} as NDJSON or a chunked JSON array.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/first-day-covers")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveFirstDayCoverController {
+
+    private final ReactiveFirstDayCoverRepository firstDayCoverRepository;
+    private final DesignerNameResolver designerNameResolver;
+    private final FirstDayCoverMapper firstDayCoverMapper;
+
+    /**
+     * GET /api/first-day-covers
+     * Streams all First Day Covers (FDCs).
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<FirstDayCoverDto> getAllFirstDayCovers() {
+        return designerNames().flatMapMany(names -> firstDayCoverRepository.findAll()
+                .map(document -> firstDayCoverMapper.toDto(document, names)));
+    }
+
+    /**
+     * GET /api/first-day-covers/{id}
+     * Retrieves a specific First Day Cover by its unique identifier, or 404 Not Found.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<FirstDayCoverDto>> getFirstDayCoverById(@PathVariable String id) {
+        return firstDayCoverRepository.findById(id)
+                .zipWith(designerNames(), firstDayCoverMapper::toDto)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("First day cover with id {} not found", id);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    /**
+     * Designer names are in memory once loaded, but the first call reads them from MongoDB.
+     */
+    private Mono<Map<String, String>> designerNames() {
+        return Mono.fromCallable(designerNameResolver::names).subscribeOn(Schedulers.boundedElastic());
+    }
+}
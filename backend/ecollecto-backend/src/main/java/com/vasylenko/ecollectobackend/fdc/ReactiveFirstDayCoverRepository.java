@@ -0,0 +1,9 @@
+package com.vasylenko.ecollectobackend.fdc;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+/**
+ * Non-blocking counterpart of {@link FirstDayCoverRepository}, used by {@link ReactiveFirstDayCoverController}.
+ */
+public interface ReactiveFirstDayCoverRepository extends ReactiveMongoRepository<FirstDayCoverDocument, String> {
+}
@@ -0,0 +1,148 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.dto.PopularStampDto;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampPageDto;
+import com.vasylenko.ecollectobackend.dto.StampSearchResultDto;
+import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchQuery;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * WebFlux counterpart of {@link StampController}, active when the application runs as a reactive
+ * web application (the {@code reactive} profile).
+ *
+ * <p>{@code GET /api/stamps} streams documents from {@link ReactiveStampRepository} as they are
+ * read, either as NDJSON ({@code Accept: application/x-ndjson}) or as a chunked JSON array, so
+ * the first stamps reach the client before the whole collection has been read. Endpoints served
+ * from the in-memory catalog (search, popularity) and keyset paging delegate to the same services
+ * as the MVC controller on the bounded-elastic scheduler, since those may block on MongoDB.</p>
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveStampController {
+
+    private final ReactiveStampRepository stampRepository;
+    private final DesignerNameResolver designerNameResolver;
+    private final StampMapper stampMapper;
+    private final StampPageService stampPageService;
+    private final StampSearchService stampSearchService;
+    private final StampPopularityService stampPopularityService;
+
+    /**
+     * GET /api/stamps
+     * Streams all stamps, optionally filtered by year, in catalog order.
+     *
+     * @param year Optional release year filter.
+     * @return A {@link Flux} of {@link StampDto} objects.
+     */
+    @GetMapping(value = "/stamps", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<StampDto> getAllStamps(@RequestParam(required = false) Integer year) {
+        Flux<StampDocument> documents = year != null
+                ? stampRepository.findByReleaseYear(year)
+                : stampRepository.findAll();
+        return designerNames().flatMapMany(names -> documents.map(document -> stampMapper.toDto(document, names)));
+    }
+
+    /**
+     * GET /api/stamps/page
+     * Retrieves one keyset page of stamps with only the requested fields loaded.
+     */
+    @GetMapping("/stamps/page")
+    public Mono<StampPageDto> getStampPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) List<String> fields) {
+        return offload(() -> stampPageService.findPage(cursor, limit, sort, year, fields));
+    }
+
+    /**
+     * GET /api/stamps/search
+     * Full-text and faceted search over the in-memory catalog.
+     */
+    @GetMapping("/stamps/search")
+    public Mono<StampSearchResultDto> searchStamps(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Set<String> theme,
+            @RequestParam(required = false) Set<String> designer,
+            @RequestParam(required = false) Set<String> currency,
+            @RequestParam(required = false) Boolean europa,
+            @RequestParam(required = false) Boolean perforation,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        StampSearchQuery query = new StampSearchQuery(
+                q, theme, designer, currency, europa, perforation, yearFrom, yearTo, offset, limit);
+        return offload(() -> stampSearchService.search(query));
+    }
+
+    /**
+     * GET /api/stamps/years
+     * Streams distinct release years with stamp counts, sorted descending.
+     */
+    @GetMapping("/stamps/years")
+    public Flux<YearSummaryDto> getStampYears() {
+        return stampRepository.findDistinctReleaseYears()
+                .map(yearCount -> new YearSummaryDto(yearCount.getYear(), yearCount.getCount()));
+    }
+
+    /**
+     * GET /api/stamps/popular
+     * Retrieves the stamps held by the most users in one list.
+     */
+    @GetMapping("/stamps/popular")
+    public Mono<List<PopularStampDto>> getPopularStamps(
+            @RequestParam(required = false) String list,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer limit) {
+        return offload(() -> stampPopularityService.getPopular(list, year, limit));
+    }
+
+    /**
+     * GET /api/stamp/{id}
+     * Retrieves a specific stamp by its unique identifier, or 404 Not Found.
+     */
+    @GetMapping("/stamp/{id}")
+    public Mono<ResponseEntity<StampDto>> getStampById(@PathVariable String id) {
+        return stampRepository.findById(id)
+                .zipWith(designerNames(), stampMapper::toDto)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Stamp with id {} not found", id);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    /**
+     * Designer names are in memory once loaded, but the first call reads them from MongoDB.
+     */
+    private Mono<Map<String, String>> designerNames() {
+        return offload(designerNameResolver::names);
+    }
+
+    private static <T> Mono<T> offload(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
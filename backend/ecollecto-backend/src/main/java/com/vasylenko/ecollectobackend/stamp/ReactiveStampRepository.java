@@ -0,0 +1,22 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link StampRepository}, used by {@link ReactiveStampController}.
+ */
+public interface ReactiveStampRepository extends ReactiveMongoRepository<StampDocument, String> {
+
+    @Query("{ 'release.year': ?0 }")
+    Flux<StampDocument> findByReleaseYear(int year);
+
+    @Aggregation(pipeline = {
+        "{ $group: { _id: '$release.year', count: { $sum: 1 } } }",
+        "{ $project: { _id: 0, year: '$_id', count: 1 } }",
+        "{ $sort: { year: -1 } }"
+    })
+    Flux<StampRepository.YearCount> findDistinctReleaseYears();
+}
@@ -0,0 +1,138 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Read-through, in-memory copy of the stamp catalog.
+ *
+ * <p>The whole {@code stamp} collection is loaded once in {@code _id} order, mapped to
+ * {@link StampDto}s with designer names resolved, and published as an immutable
+ * {@link StampCatalogSnapshot}. Loading in a fixed order gives every node the same ordinal for
+ * the same stamp.
+ * Readers never block on a rebuild: a new snapshot is built off to the side and swapped in
+ * atomically on a {@link CatalogChangeEvent.StampsChanged} or
+ * {@link CatalogChangeEvent.DesignersChanged}. Designer names come from
+ * {@link DesignerNameResolver}, which handles designer changes before this catalog; subscribers
+ * that read the snapshot while rebuilding are ordered after it.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StampCatalog {
+
+    /** Snapshot order, which fixes the catalog ordinals. */
+    static final Sort LOAD_ORDER = Sort.by(Sort.Direction.ASC, "_id");
+
+    private final StampRepository stampRepository;
+    private final DesignerNameResolver designerNameResolver;
+    private final StampMapper stampMapper;
+
+    private final AtomicReference<StampCatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Object reloadLock = new Object();
+
+    /**
+     * Returns the current snapshot, loading it on first access.
+     */
+    public StampCatalogSnapshot snapshot() {
+        StampCatalogSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (reloadLock) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : reload();
+        }
+    }
+
+    /**
+     * Streams stamps straight from a MongoDB cursor, mapped exactly as in the snapshot, for
+     * callers that write them out one at a time instead of holding the catalog in memory.
+     * The caller must close the stream to release the cursor.
+     *
+     * @param year release year to restrict to, or {@code null} for the whole catalog
+     */
+    public Stream<StampDto> stream(Integer year) {
+        Map<String, String> designerNames = designerNameResolver.names();
+        Stream<StampDocument> documents = year != null
+                ? stampRepository.streamByReleaseYear(year)
+                : stampRepository.streamAll();
+        return documents.map(document -> stampMapper.toDto(document, designerNames));
+    }
+
+    /**
+     * Rebuilds the snapshot from MongoDB and swaps it in.
+     *
+     * @return the new snapshot.
+     */
+    public StampCatalogSnapshot reload() {
+        synchronized (reloadLock) {
+            long started = System.nanoTime();
+            List<StampDocument> documents = stampRepository.findAll(LOAD_ORDER);
+            Map<String, String> designerNames = documents.isEmpty() ? Map.of() : designerNameResolver.names();
+            List<StampDto> stamps = documents.stream()
+                    .map(document -> stampMapper.toDto(document, designerNames))
+                    .toList();
+
+            StampCatalogSnapshot snapshot = StampCatalogSnapshot.of(versions.incrementAndGet(), documents, stamps);
+            current.set(snapshot);
+            log.info("StampCatalog: loaded {} stamps (version {}) in {} ms",
+                    snapshot.size(), snapshot.version(), (System.nanoTime() - started) / 1_000_000);
+            return snapshot;
+        }
+    }
+
+    @EventListener
+    @Order(0)
+    public void onStampsChanged(CatalogChangeEvent.StampsChanged event) {
+        rebuild(CatalogChangeEvent.STAMP_COLLECTION);
+    }
+
+    @EventListener
+    @Order(0)
+    public void onDesignersChanged(CatalogChangeEvent.DesignersChanged event) {
+        if (!event.batch().contains(CatalogChangeEvent.STAMP_COLLECTION)) { // otherwise StampsChanged follows
+            rebuild(CatalogChangeEvent.DESIGNER_COLLECTION);
+        }
+    }
+
+    private void rebuild(String changedCollection) {
+        if (current.get() == null) {
+            return; // never loaded — the next reader will load fresh data
+        }
+        log.info("StampCatalog: {} changed, rebuilding snapshot", changedCollection);
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("StampCatalog: rebuild failed, keeping version {}", current.get().version(), e);
+        }
+    }
+
+    /**
+     * Warms the snapshot so the first catalog request is served from memory.
+     * A failure here is not fatal; the snapshot is then loaded by the first reader.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.warn("StampCatalog: warm-up failed, will load on first request: {}", e.getMessage());
+        }
+    }
+}
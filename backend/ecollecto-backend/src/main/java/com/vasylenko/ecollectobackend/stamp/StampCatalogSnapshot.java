@@ -0,0 +1,93 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, fully mapped view of the stamp catalog at a point in time.
+ *
+ * <p>{@code documents} and {@code stamps} are aligned: the element at index {@code i} of each
+ * list describes the same stamp, and {@code i} is that stamp's catalog ordinal for this
+ * snapshot. Ordinals are dense and stable only within one snapshot {@code version}.
+ * {@code facets} indexes those ordinals by facet value and is rebuilt with every snapshot,
+ * so year summaries and facet counts always match the stamps being served.</p>
+ */
+public record StampCatalogSnapshot(
+        long version,
+        List<StampDocument> documents,
+        List<StampDto> stamps,
+        Map<String, Integer> ordinals,
+        Map<Integer, List<StampDto>> stampsByYear,
+        StampFacetIndex facets) {
+
+    public static final StampCatalogSnapshot EMPTY = of(0, List.of(), List.of());
+
+    /**
+     * Builds a snapshot and its lookup indexes from aligned document and DTO lists.
+     */
+    public static StampCatalogSnapshot of(long version, List<StampDocument> documents, List<StampDto> stamps) {
+        if (documents.size() != stamps.size()) {
+            throw new IllegalArgumentException("documents and stamps must be aligned");
+        }
+        Map<String, Integer> ordinals = new HashMap<>(stamps.size() * 2);
+        Map<Integer, List<StampDto>> byYear = new LinkedHashMap<>();
+        for (int i = 0; i < stamps.size(); i++) {
+            StampDto stamp = stamps.get(i);
+            ordinals.putIfAbsent(stamp.getStampId(), i);
+            Integer year = stamp.getRelease() != null ? stamp.getRelease().getYear() : null;
+            if (year != null) {
+                byYear.computeIfAbsent(year, y -> new ArrayList<>()).add(stamp);
+            }
+        }
+        byYear.replaceAll((year, list) -> List.copyOf(list));
+
+        return new StampCatalogSnapshot(
+                version,
+                Collections.unmodifiableList(new ArrayList<>(documents)),
+                Collections.unmodifiableList(new ArrayList<>(stamps)),
+                Collections.unmodifiableMap(ordinals),
+                Collections.unmodifiableMap(byYear),
+                StampFacetIndex.build(documents));
+    }
+
+    public int size() {
+        return stamps.size();
+    }
+
+    public Optional<StampDto> findById(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? Optional.of(stamps.get(ordinal)) : Optional.empty();
+    }
+
+    public Optional<StampDocument> findDocumentById(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? Optional.of(documents.get(ordinal)) : Optional.empty();
+    }
+
+    /**
+     * @return the stamp's ordinal in this snapshot, or {@code -1} if the id is unknown.
+     */
+    public int ordinalOf(String id) {
+        Integer ordinal = ordinals.get(id);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * @return distinct release years with stamp counts, newest first, from the facet bitmaps.
+     */
+    public List<YearSummaryDto> years() {
+        return facets.yearSummaries();
+    }
+
+    public List<StampDto> findByYear(int year) {
+        return stampsByYear.getOrDefault(year, List.of());
+    }
+}
@@ -1,8 +1,15 @@
 package com.vasylenko.ecollectobackend.stamp;
 
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
 import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import com.vasylenko.ecollectobackend.dto.PopularStampDto;
 import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampPageDto;
+import com.vasylenko.ecollectobackend.dto.StampSearchResultDto;
 import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchQuery;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,47 +17,183 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * REST controller for managing stamp collection data.
  * Provides endpoints for browsing and retrieving specific postage stamps.
  */
 @RestController
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 @Slf4j
 @Tag(name = "Stamps", description = "Stamp lookup endpoints.")
 public class StampController {
 
     private final StampService stampService;
+    private final StampResponseCache stampResponseCache;
+    private final StampPageService stampPageService;
+    private final StampSearchService stampSearchService;
+    private final StampPopularityService stampPopularityService;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final boolean streamList;
+
+    public StampController(StampService stampService,
+                           StampResponseCache stampResponseCache,
+                           StampPageService stampPageService,
+                           StampSearchService stampSearchService,
+                           StampPopularityService stampPopularityService,
+                           JsonArrayStreamer jsonArrayStreamer,
+                           @Value("${app.stamps.list.streaming:false}") boolean streamList) {
+        this.stampService = stampService;
+        this.stampResponseCache = stampResponseCache;
+        this.stampPageService = stampPageService;
+        this.stampSearchService = stampSearchService;
+        this.stampPopularityService = stampPopularityService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
+        this.streamList = streamList;
+    }
 
     /**
      * GET /api/stamps
      * Retrieves a list of all available stamps, optionally filtered by year.
+     * The body is served pre-serialized from {@link StampResponseCache}, gzip-encoded when the
+     * client accepts it, and a matching {@code If-None-Match} yields 304 Not Modified.
+     * With {@code app.stamps.list.streaming=true} the array is instead written element by element
+     * from a MongoDB cursor, without an ETag, so the catalog is never held in memory.
      *
      * @param year Optional release year filter.
-     * @return A {@link ResponseEntity} containing a {@link List} of {@link StampDto} objects.
+     * @return A {@link ResponseEntity} containing the JSON array of {@link StampDto} objects.
      */
     @GetMapping("/stamps")
     @Operation(summary = "List stamps", description = "Retrieve all stamps, optionally filtered by year.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Stamps retrieved.",
-                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = StampDto.class)))),
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = StampDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Catalog unchanged since the given ETag."),
+            @ApiResponse(responseCode = "500", description = "Server error.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<?> getAllStamps(
+            @RequestParam(required = false) Integer year,
+            HttpServletRequest request) {
+        if (streamList) {
+            // Opened here rather than in the body so query errors still reach the exception handler.
+            Stream<StampDto> stamps = stampService.stream(year);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .body(jsonArrayStreamer.body(stamps));
+        }
+
+        StampResponseCache.Body body = stampResponseCache.get(year);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? body.gzipEtag() : body.etag();
+
+        if (body.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipJson());
+        }
+        return response.body(body.json());
+    }
+
+    /**
+     * GET /api/stamps/page
+     * Retrieves one keyset page of stamps with only the requested fields loaded.
+     *
+     * @param cursor Opaque cursor from the previous page's {@code next_cursor}.
+     * @param limit  Page size, capped at {@value StampPageService#MAX_LIMIT}.
+     * @param sort   {@code id} (default) or {@code date}.
+     * @param year   Optional release year filter.
+     * @param fields Comma-separated field names to return.
+     * @return A {@link ResponseEntity} containing a {@link StampPageDto}.
+     */
+    @GetMapping("/stamps/page")
+    @Operation(summary = "Page stamps",
+            description = "Retrieve stamps one keyset page at a time, projected to the requested fields.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page retrieved.",
+                    content = @Content(schema = @Schema(implementation = StampPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, limit, sort or field.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<StampPageDto> getStampPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(stampPageService.findPage(cursor, limit, sort, year, fields));
+    }
+
+    /**
+     * GET /api/stamps/search
+     * Full-text and faceted search over the in-memory catalog.
+     *
+     * @param q           Free text matched against name, series and description (Ukrainian-aware).
+     * @param theme       Themes to match (any of).
+     * @param designer    Designer ids to match (any of).
+     * @param currency    Denomination currencies to match (any of).
+     * @param europa      Europa flag.
+     * @param perforation Perforation flag.
+     * @param yearFrom    Inclusive lower bound on release year.
+     * @param yearTo      Inclusive upper bound on release year.
+     * @param offset      Number of ranked hits to skip.
+     * @param limit       Page size, capped at 200.
+     * @return A {@link ResponseEntity} containing a {@link StampSearchResultDto}.
+     */
+    @GetMapping("/stamps/search")
+    @Operation(summary = "Search stamps",
+            description = "Full-text search on name, series and description with facet filters and counts.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Search results retrieved.",
+                    content = @Content(schema = @Schema(implementation = StampSearchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid offset, limit or year range.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Server error.",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<List<StampDto>> getAllStamps(
-            @RequestParam(required = false) Integer year) {
-        List<StampDto> stamps = (year != null)
-                ? stampService.findByYear(year)
-                : stampService.findAll();
-        return ResponseEntity.ok(stamps);
+    public ResponseEntity<StampSearchResultDto> searchStamps(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Set<String> theme,
+            @RequestParam(required = false) Set<String> designer,
+            @RequestParam(required = false) Set<String> currency,
+            @RequestParam(required = false) Boolean europa,
+            @RequestParam(required = false) Boolean perforation,
+            @RequestParam(required = false) Integer yearFrom,
+            @RequestParam(required = false) Integer yearTo,
+            @RequestParam(required = false) Integer offset,
+            @RequestParam(required = false) Integer limit) {
+        StampSearchQuery query = new StampSearchQuery(
+                q, theme, designer, currency, europa, perforation, yearFrom, yearTo, offset, limit);
+        return ResponseEntity.ok(stampSearchService.search(query));
     }
 
     /**
@@ -71,6 +214,34 @@ public class StampController {
         return ResponseEntity.ok(stampService.findDistinctYears());
     }
 
+    /**
+     * GET /api/stamps/popular
+     * Retrieves the stamps held by the most users in one list, from precomputed in-memory rankings.
+     *
+     * @param list  {@code collected} (default), {@code wished} or {@code favorited}.
+     * @param year  Optional release year filter.
+     * @param limit Number of stamps, capped at 100.
+     * @return A {@link ResponseEntity} containing a {@link List} of {@link PopularStampDto} objects.
+     */
+    @GetMapping("/stamps/popular")
+    @Operation(summary = "List popular stamps",
+            description = "Retrieve the most collected, wished or favorited stamps, optionally for one release year. "
+                    + "Counts are refreshed every few seconds.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Popular stamps retrieved.",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = PopularStampDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid list or limit.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<List<PopularStampDto>> getPopularStamps(
+            @RequestParam(required = false) String list,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(stampPopularityService.getPopular(list, year, limit));
+    }
+
     /**
      * GET /api/stamp/{id}
      * Retrieves a specific stamp by its unique identifier.
@@ -96,4 +267,37 @@ public class StampController {
                     return ResponseEntity.notFound().build();
                 });
     }
+
+    /**
+     * Returns {@code true} when the Accept-Encoding header accepts gzip: an explicit gzip entry
+     * decides on its own, and {@code *} only applies when gzip is not listed. Either is refused
+     * by {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip")) {
+                return accepted(tokens);
+            }
+            if (coding.equals("*") && wildcard == null) {
+                wildcard = accepted(tokens);
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean accepted(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].replace(" ", "");
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                return !parameter.substring(2).matches("0(\\.0*)?");
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,207 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.dto.FacetCountDto;
+import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Compressed bitmap index over the stamp ordinals of one {@link StampCatalogSnapshot}.
+ *
+ * <p>Every facet value (year, theme, designer, denomination currency, Europa and perforation
+ * flags) maps to a {@link RoaringBitmap} of the ordinals carrying it. Filters are bitmap
+ * AND/OR operations and facet counts are {@link RoaringBitmap#andCardinality} calls, so counting
+ * never scans stamps or queries MongoDB. The index is built with its snapshot and replaced with
+ * it on every catalog reload; the bitmaps are never mutated after {@link #build}.</p>
+ */
+public final class StampFacetIndex {
+
+    public static final String THEMES = "themes";
+    public static final String DESIGNERS = "designers";
+    public static final String CURRENCY = "currency";
+    public static final String EUROPA = "europa";
+    public static final String PERFORATION = "perforation";
+    public static final String YEARS = "years";
+
+    private static final List<String> FACETS = List.of(THEMES, DESIGNERS, CURRENCY, EUROPA, PERFORATION, YEARS);
+
+    private final int size;
+    /** Facet name → value → ordinals, for every facet except {@link #YEARS}. */
+    private final Map<String, Map<String, RoaringBitmap>> values;
+    private final NavigableMap<Integer, RoaringBitmap> years;
+    private final List<YearSummaryDto> yearSummaries;
+
+    private StampFacetIndex(int size, Map<String, Map<String, RoaringBitmap>> values,
+                            NavigableMap<Integer, RoaringBitmap> years) {
+        this.size = size;
+        this.values = values;
+        this.years = years;
+        List<YearSummaryDto> summaries = new ArrayList<>(years.size());
+        years.descendingMap().forEach((year, stamps) ->
+                summaries.add(new YearSummaryDto(year, (long) stamps.getCardinality())));
+        this.yearSummaries = Collections.unmodifiableList(summaries);
+    }
+
+    /**
+     * Indexes {@code documents}, using each document's list position as its ordinal.
+     */
+    public static StampFacetIndex build(List<StampDocument> documents) {
+        Map<String, Map<String, RoaringBitmap>> values = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            if (!facet.equals(YEARS)) {
+                values.put(facet, new HashMap<>());
+            }
+        }
+        NavigableMap<Integer, RoaringBitmap> years = new TreeMap<>();
+
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            StampDocument document = documents.get(ordinal);
+            StampDocument.Meta meta = document.getMeta();
+            if (meta != null) {
+                if (meta.getThemes() != null) {
+                    for (String theme : meta.getThemes()) {
+                        add(values, THEMES, theme, ordinal);
+                    }
+                }
+                if (meta.getDesignerIds() != null) {
+                    for (String designerId : meta.getDesignerIds()) {
+                        add(values, DESIGNERS, designerId, ordinal);
+                    }
+                }
+                if (meta.getDenomination() != null) {
+                    add(values, CURRENCY, meta.getDenomination().getCurrency(), ordinal);
+                }
+                add(values, EUROPA, Objects.toString(meta.getEuropa(), null), ordinal);
+                add(values, PERFORATION, Objects.toString(meta.getPerforation(), null), ordinal);
+            }
+            Integer year = document.getRelease() != null ? document.getRelease().getYear() : null;
+            if (year != null) {
+                years.computeIfAbsent(year, y -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+
+        values.values().forEach(facet -> facet.values().forEach(RoaringBitmap::runOptimize));
+        years.values().forEach(RoaringBitmap::runOptimize);
+        return new StampFacetIndex(documents.size(), values, years);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a new bitmap of every ordinal in the snapshot.
+     */
+    public RoaringBitmap all() {
+        return RoaringBitmap.bitmapOfRange(0, size);
+    }
+
+    /**
+     * @return a new bitmap of the stamps carrying any of {@code selected} in {@code facet}.
+     */
+    public RoaringBitmap anyOf(String facet, Collection<String> selected) {
+        if (facet.equals(YEARS)) {
+            RoaringBitmap union = new RoaringBitmap();
+            for (String value : selected) {
+                Integer year = parseYear(value);
+                RoaringBitmap stamps = year != null ? years.get(year) : null;
+                if (stamps != null) {
+                    union.or(stamps);
+                }
+            }
+            return union;
+        }
+        Map<String, RoaringBitmap> facetValues = values.getOrDefault(facet, Map.of());
+        return RoaringBitmap.or(selected.stream()
+                .map(facetValues::get)
+                .filter(Objects::nonNull)
+                .iterator());
+    }
+
+    /**
+     * @return a new bitmap of the stamps released between {@code from} and {@code to}
+     * (both inclusive, either may be {@code null} for an open bound).
+     */
+    public RoaringBitmap yearRange(Integer from, Integer to) {
+        NavigableMap<Integer, RoaringBitmap> range = years;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return RoaringBitmap.or(range.values().iterator());
+    }
+
+    /**
+     * Counts every facet value within {@code base}, applying each selection to every facet but
+     * its own (disjunctive faceting), so an active filter still shows its alternatives.
+     *
+     * @param base       stamps in scope before facet filters, e.g. text-search hits
+     * @param selections active facet filters keyed by facet name
+     * @return facet name → non-zero value counts; years newest first, other facets by count
+     */
+    public Map<String, List<FacetCountDto>> count(RoaringBitmap base, Map<String, RoaringBitmap> selections) {
+        Map<String, List<FacetCountDto>> counts = new LinkedHashMap<>();
+        for (String facet : FACETS) {
+            RoaringBitmap scope = base;
+            for (Map.Entry<String, RoaringBitmap> selection : selections.entrySet()) {
+                if (!selection.getKey().equals(facet)) {
+                    scope = RoaringBitmap.and(scope, selection.getValue());
+                }
+            }
+            counts.put(facet, count(facet, scope));
+        }
+        return counts;
+    }
+
+    /**
+     * @return distinct release years with stamp counts, newest first.
+     */
+    public List<YearSummaryDto> yearSummaries() {
+        return yearSummaries;
+    }
+
+    private List<FacetCountDto> count(String facet, RoaringBitmap scope) {
+        List<FacetCountDto> counts = new ArrayList<>();
+        if (facet.equals(YEARS)) {
+            years.descendingMap().forEach((year, stamps) -> addCount(counts, year.toString(), stamps, scope));
+            return counts;
+        }
+        values.get(facet).forEach((value, stamps) -> addCount(counts, value, stamps, scope));
+        counts.sort(Comparator.comparing(FacetCountDto::getCount).reversed().thenComparing(FacetCountDto::getValue));
+        return counts;
+    }
+
+    private static void addCount(List<FacetCountDto> counts, String value, RoaringBitmap stamps, RoaringBitmap scope) {
+        int count = RoaringBitmap.andCardinality(stamps, scope);
+        if (count > 0) {
+            counts.add(new FacetCountDto(value, (long) count));
+        }
+    }
+
+    private static Integer parseYear(String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void add(Map<String, Map<String, RoaringBitmap>> values, String facet, String value, int ordinal) {
+        if (value != null && !value.isBlank()) {
+            values.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import java.util.Set;
+
+/**
+ * Keyset page request against the {@code stamp} collection.
+ *
+ * @param sort      sort order; {@code _id} is always the tie-breaker
+ * @param afterDate release date of the last stamp on the previous page (only for {@link Sort#RELEASE_DATE});
+ *                  {@code null} if that stamp had none
+ * @param afterId   id of the last stamp on the previous page, or {@code null} for the first page
+ * @param year      optional release year filter
+ * @param fields    document paths to project; {@code _id} is always returned
+ * @param limit     maximum number of documents to return
+ */
+public record StampPageQuery(Sort sort, String afterDate, String afterId, Integer year, Set<String> fields, int limit) {
+
+    public enum Sort {
+        ID("_id"),
+        RELEASE_DATE("release.date");
+
+        private final String path;
+
+        Sort(String path) {
+            this.path = path;
+        }
+
+        public String path() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampPageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keyset-paginated, field-projected stamp listing.
+ *
+ * <p>Unlike {@link StampService}, pages are read straight from MongoDB with a projection, so a
+ * request only materializes the fields it asked for and at most {@link #MAX_LIMIT} documents,
+ * regardless of catalog size. Cursors are opaque base64url strings encoding the sort key and
+ * {@code _id} of the last stamp on the previous page.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class StampPageService {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    /**
+     * Projection used when the caller passes no {@code fields}: what a list view renders.
+     */
+    static final List<String> DEFAULT_FIELDS = List.of("name", "release.year", "meta.denomination", "images.small");
+
+    /**
+     * Public field names (as they appear in {@link StampDto} JSON) mapped to the document paths
+     * they are built from. Group names select every field of that group.
+     */
+    private static final Map<String, List<String>> FIELD_PATHS = Map.ofEntries(
+            Map.entry("name", List.of("name")),
+            Map.entry("description", List.of("description")),
+            Map.entry("stampSKU", List.of("stampSKU")),
+            Map.entry("meta", List.of("meta")),
+            Map.entry("meta.denomination", List.of("meta.denomination")),
+            Map.entry("meta.series", List.of("meta.series")),
+            Map.entry("meta.designer", List.of("meta.designerIds")),
+            Map.entry("meta.perforation", List.of("meta.perforation")),
+            Map.entry("meta.stampsPerPane", List.of("meta.stampsPerPane")),
+            Map.entry("meta.themes", List.of("meta.themes")),
+            Map.entry("meta.europa", List.of("meta.europa")),
+            Map.entry("release", List.of("release")),
+            Map.entry("release.year", List.of("release.year")),
+            Map.entry("release.date", List.of("release.date")),
+            Map.entry("release.printQuantity", List.of("release.printQuantity")),
+            Map.entry("release.isMassIssue", List.of("release.isMassIssue")),
+            Map.entry("release.isAvailable", List.of("release.isAvailable")),
+            Map.entry("images", List.of("images")),
+            Map.entry("images.original", List.of("images.original")),
+            Map.entry("images.small", List.of("images.small")),
+            Map.entry("images.pane", List.of("images.pane"))
+    );
+
+    private static final String ID_CURSOR_PREFIX = "i:";
+    private static final String DATE_CURSOR_PREFIX = "d:";
+    /** Date cursor of a stamp without a release date; MongoDB sorts those before every dated stamp. */
+    private static final String NULL_DATE_CURSOR_PREFIX = "n:";
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final StampRepository stampRepository;
+    private final DesignerNameResolver designerNameResolver;
+    private final StampMapper stampMapper;
+
+    /**
+     * Returns one page of stamps.
+     *
+     * @param cursor the {@code next_cursor} of the previous page, or {@code null} for the first page
+     * @param limit  requested page size; defaults to {@link #DEFAULT_LIMIT} and is capped at {@link #MAX_LIMIT}
+     * @param sort   {@code id} (default) or {@code date}
+     * @param year   optional release year filter
+     * @param fields public field names to return; defaults to {@link #DEFAULT_FIELDS}
+     * @throws BadRequestException for an unknown sort or field, a non-positive limit, or a malformed cursor
+     */
+    public StampPageDto findPage(String cursor, Integer limit, String sort, Integer year, List<String> fields) {
+        StampPageQuery.Sort order = parseSort(sort);
+        int pageSize = resolveLimit(limit);
+        Set<String> paths = resolvePaths(fields, order);
+        String[] after = decodeCursor(cursor, order);
+
+        // One extra document tells us whether another page exists without a count query.
+        List<StampDocument> documents = stampRepository.findPage(
+                new StampPageQuery(order, after[0], after[1], year, paths, pageSize + 1));
+        boolean hasNext = documents.size() > pageSize;
+        List<StampDocument> page = hasNext ? documents.subList(0, pageSize) : documents;
+
+        Map<String, String> designerNames = paths.contains("meta") || paths.contains("meta.designerIds")
+                ? designerNameResolver.names()
+                : Map.of();
+        List<StampDto> items = page.stream()
+                .map(document -> stampMapper.toDto(document, designerNames))
+                .toList();
+        String nextCursor = hasNext ? encodeCursor(page.getLast(), order) : null;
+        return StampPageDto.builder().items(items).nextCursor(nextCursor).build();
+    }
+
+    static StampPageQuery.Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("id")) {
+            return StampPageQuery.Sort.ID;
+        }
+        if (sort.equalsIgnoreCase("date")) {
+            return StampPageQuery.Sort.RELEASE_DATE;
+        }
+        throw new BadRequestException("Unsupported sort '" + sort + "'; expected 'id' or 'date'");
+    }
+
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    static Set<String> resolvePaths(List<String> fields, StampPageQuery.Sort order) {
+        List<String> requested = fields == null || fields.isEmpty() ? DEFAULT_FIELDS : fields;
+        Set<String> paths = new LinkedHashSet<>();
+        for (String field : requested) {
+            List<String> mapped = FIELD_PATHS.get(field.trim());
+            if (mapped == null) {
+                throw new BadRequestException("Unknown field '" + field + "'");
+            }
+            paths.addAll(mapped);
+        }
+        // The cursor is built from the sort key, so it must be loaded even if not requested.
+        if (order == StampPageQuery.Sort.RELEASE_DATE) {
+            paths.add(order.path());
+        }
+        // MongoDB rejects projections naming both a path and its parent ("path collision").
+        paths.removeIf(path -> path.indexOf('.') > 0 && paths.contains(path.substring(0, path.indexOf('.'))));
+        return paths;
+    }
+
+    static String encodeCursor(StampDocument last, StampPageQuery.Sort order) {
+        String raw;
+        if (order == StampPageQuery.Sort.ID) {
+            raw = ID_CURSOR_PREFIX + last.getId();
+        } else {
+            String date = releaseDate(last);
+            raw = date == null
+                    ? NULL_DATE_CURSOR_PREFIX + last.getId()
+                    : DATE_CURSOR_PREFIX + date + CURSOR_SEPARATOR + last.getId();
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@code [afterDate, afterId]}; both {@code null} when there is no cursor, and
+     * {@code afterDate} is {@code null} when the last stamp had no release date
+     */
+    static String[] decodeCursor(String cursor, StampPageQuery.Sort order) {
+        if (cursor == null || cursor.isBlank()) {
+            return new String[2];
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+        if (order == StampPageQuery.Sort.ID && raw.startsWith(ID_CURSOR_PREFIX)) {
+            return new String[]{null, raw.substring(ID_CURSOR_PREFIX.length())};
+        }
+        int separator = raw.indexOf(CURSOR_SEPARATOR);
+        if (order == StampPageQuery.Sort.RELEASE_DATE && raw.startsWith(DATE_CURSOR_PREFIX) && separator > 0) {
+            return new String[]{raw.substring(DATE_CURSOR_PREFIX.length(), separator), raw.substring(separator + 1)};
+        }
+        if (order == StampPageQuery.Sort.RELEASE_DATE && raw.startsWith(NULL_DATE_CURSOR_PREFIX)
+                && raw.length() > NULL_DATE_CURSOR_PREFIX.length()) {
+            return new String[]{null, raw.substring(NULL_DATE_CURSOR_PREFIX.length())};
+        }
+        throw new BadRequestException("Cursor does not match sort '" + order.name().toLowerCase() + "'");
+    }
+
+    private static String releaseDate(StampDocument document) {
+        return document.getRelease() != null ? document.getRelease().getDate() : null;
+    }
+}
@@ -1,16 +1,28 @@
 package com.vasylenko.ecollectobackend.stamp;
 
 import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface StampRepository extends MongoRepository<StampDocument, String> {
+public interface StampRepository extends MongoRepository<StampDocument, String>, StampRepositoryCustom {
 
     @Query("{ 'release.year': ?0 }")
     List<StampDocument> findByReleaseYear(int year);
 
+    /** Cursor over the whole catalog in {@code _id} (ordinal) order, 100 documents per round trip; close the stream to release it. */
+    @Query(value = "{}", sort = "{ '_id': 1 }")
+    @Meta(cursorBatchSize = 100)
+    Stream<StampDocument> streamAll();
+
+    /** Cursor over one release year in natural order; close the stream to release it. */
+    @Query("{ 'release.year': ?0 }")
+    @Meta(cursorBatchSize = 100)
+    Stream<StampDocument> streamByReleaseYear(int year);
+
     @Aggregation(pipeline = {
         "{ $group: { _id: '$release.year', count: { $sum: 1 } } }",
         "{ $project: { _id: 0, year: '$_id', count: 1 } }",
@@ -0,0 +1,15 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import java.util.List;
+
+/**
+ * Queries on the {@code stamp} collection that derived queries cannot express.
+ */
+public interface StampRepositoryCustom {
+
+    /**
+     * Returns up to {@link StampPageQuery#limit()} stamps after the query's cursor, sorted by the
+     * query's sort key and {@code _id}, with only the requested fields loaded from MongoDB.
+     */
+    List<StampDocument> findPage(StampPageQuery pageQuery);
+}
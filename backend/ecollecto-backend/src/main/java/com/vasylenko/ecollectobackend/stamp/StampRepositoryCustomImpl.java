@@ -0,0 +1,70 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StampRepositoryCustomImpl implements StampRepositoryCustom {
+
+    public static final String RELEASE_DATE_INDEX = "release_date_id";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Indexes the date-sorted keyset pages walk; created at startup by
+     * {@link com.vasylenko.ecollectobackend.config.MongoIndexInitializer}.
+     */
+    public static List<Index> indexes() {
+        return List.of(new Index().on("release.date", Sort.Direction.ASC).on("_id", Sort.Direction.ASC)
+                .named(RELEASE_DATE_INDEX));
+    }
+
+    @Override
+    public List<StampDocument> findPage(StampPageQuery pageQuery) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (pageQuery.year() != null) {
+            criteria.add(Criteria.where("release.year").is(pageQuery.year()));
+        }
+        if (pageQuery.afterId() != null) {
+            criteria.add(afterCursor(pageQuery));
+        }
+
+        Query query = new Query();
+        if (!criteria.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteria));
+        }
+        if (pageQuery.sort() == StampPageQuery.Sort.ID) {
+            query.with(Sort.by(Sort.Direction.ASC, "_id"));
+        } else {
+            query.with(Sort.by(Sort.Direction.ASC, pageQuery.sort().path(), "_id"));
+        }
+        pageQuery.fields().forEach(query.fields()::include);
+        query.limit(pageQuery.limit());
+
+        return mongoTemplate.find(query, StampDocument.class);
+    }
+
+    private static Criteria afterCursor(StampPageQuery pageQuery) {
+        if (pageQuery.sort() == StampPageQuery.Sort.ID) {
+            return Criteria.where("_id").gt(pageQuery.afterId());
+        }
+        String path = pageQuery.sort().path();
+        if (pageQuery.afterDate() == null) {
+            // Missing and null dates sort before every dated stamp, so all dated stamps follow.
+            return new Criteria().orOperator(
+                    Criteria.where(path).ne(null),
+                    Criteria.where(path).is(null).and("_id").gt(pageQuery.afterId()));
+        }
+        // $gt/$eq on a string never match null, which sorted earlier and is already behind the cursor.
+        return new Criteria().orOperator(
+                Criteria.where(path).gt(pageQuery.afterDate()),
+                Criteria.where(path).is(pageQuery.afterDate()).and("_id").gt(pageQuery.afterId()));
+    }
+}
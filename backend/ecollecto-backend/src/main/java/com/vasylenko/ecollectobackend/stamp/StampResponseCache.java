@@ -0,0 +1,105 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.common.web.EntityTags;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON bodies for {@code GET /api/stamps}, keyed by catalog version and
+ * {@code year} filter.
+ *
+ * <p>Each body is serialized once per catalog version with the application's
+ * {@link ObjectMapper} (so it is byte-identical to what Spring MVC would write) and
+ * gzip-compressed once. A strong ETag derived from the identity bytes lets the controller
+ * answer {@code If-None-Match} with 304 without touching the catalog or Jackson.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class StampResponseCache {
+
+    private static final int ALL_YEARS = Integer.MIN_VALUE;
+    private static final Body EMPTY = body("[]".getBytes(StandardCharsets.UTF_8));
+
+    private final StampService stampService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Generation generation = new Generation(-1, new ConcurrentHashMap<>());
+
+    /**
+     * Returns the cached body for the whole catalog ({@code year == null}) or one release year.
+     */
+    public Body get(Integer year) {
+        long version = stampService.catalogVersion();
+        Generation current = generation;
+        if (current.version() != version) {
+            current = new Generation(version, new ConcurrentHashMap<>());
+            generation = current;
+        }
+        if (year != null && stampService.findByYear(year).isEmpty()) {
+            return EMPTY; // unknown years are not cached, so arbitrary ?year= values cannot grow the map
+        }
+        int key = year != null ? year : ALL_YEARS;
+        return current.bodies().computeIfAbsent(key, k -> render(year));
+    }
+
+    private Body render(Integer year) {
+        List<StampDto> stamps = year != null ? stampService.findByYear(year) : stampService.findAll();
+        return body(objectMapper.writeValueAsBytes(stamps));
+    }
+
+    private static Body body(byte[] json) {
+        String digest = digest(json);
+        return new Body(json, gzip(json), "\"" + digest + "\"", "\"" + digest + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Generation(long version, Map<Integer, Body> bodies) {
+    }
+
+    /**
+     * One serialized response body with its gzip variant and strong ETags.
+     * The gzip variant carries its own ETag because it is a different representation.
+     */
+    public record Body(byte[] json, byte[] gzipJson, String etag, String gzipEtag) {
+
+        /**
+         * @return {@code true} if the {@code If-None-Match} header value weakly matches either variant.
+         */
+        public boolean matches(String ifNoneMatch) {
+            return EntityTags.matches(ifNoneMatch, etag, gzipEtag);
+        }
+    }
+}
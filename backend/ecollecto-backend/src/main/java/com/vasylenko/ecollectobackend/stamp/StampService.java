@@ -5,80 +5,48 @@ import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Handles complex data orchestration for stamps, including bulk designer-name resolution,
- * before delegating the actual document-to-DTO conversion to {@link StampMapper}.
+ * Serves stamp lookups from the in-memory {@link StampCatalog} snapshot.
+ * Document loading, designer-name resolution and mapping happen once per catalog change
+ * in {@link StampCatalog}, not per request.
  */
 @Service
 @RequiredArgsConstructor
 public class StampService {
-    private final StampRepository stampRepository;
-    private final com.vasylenko.ecollectobackend.designer.DesignerRepository designerRepository;
-    private final StampMapper stampMapper;
+    private final StampCatalog stampCatalog;
+
+    /**
+     * @return the version of the catalog snapshot currently being served; changes whenever
+     * the catalog is rebuilt.
+     */
+    public long catalogVersion() {
+        return stampCatalog.snapshot().version();
+    }
 
     public List<StampDto> findAll() {
-        List<StampDocument> documents = stampRepository.findAll();
-        Set<String> designerIds = documents.stream()
-                .map(StampDocument::getMeta)
-                .filter(Objects::nonNull)
-                .map(StampDocument.Meta::getDesignerIds)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
-        Map<String, String> designerNames = loadDesignerNames(designerIds);
-
-        return documents.stream()
-                .map(document -> stampMapper.toDto(document, designerNames))
-                .collect(Collectors.toList());
+        return stampCatalog.snapshot().stamps();
     }
 
     public List<StampDto> findByYear(int year) {
-        List<StampDocument> documents = stampRepository.findByReleaseYear(year);
-        Set<String> designerIds = documents.stream()
-                .map(StampDocument::getMeta).filter(Objects::nonNull)
-                .map(StampDocument.Meta::getDesignerIds).filter(Objects::nonNull)
-                .flatMap(Collection::stream).collect(Collectors.toSet());
-        Map<String, String> designerNames = loadDesignerNames(designerIds);
-        return documents.stream()
-                .map(doc -> stampMapper.toDto(doc, designerNames))
-                .collect(Collectors.toList());
+        return stampCatalog.snapshot().findByYear(year);
     }
 
-    public List<YearSummaryDto> findDistinctYears() {
-        return stampRepository.findDistinctReleaseYears().stream()
-                .map(yc -> new YearSummaryDto(yc.getYear(), yc.getCount()))
-                .collect(Collectors.toList());
+    /**
+     * Streams stamps from MongoDB without going through the snapshot; see {@link StampCatalog#stream(Integer)}.
+     */
+    public Stream<StampDto> stream(Integer year) {
+        return stampCatalog.stream(year);
     }
 
-    public Optional<StampDto> findById(String id) {
-        return stampRepository.findById(id).map(document -> {
-            Set<String> designerIds = Optional.ofNullable(document.getMeta())
-                    .map(StampDocument.Meta::getDesignerIds)
-                    .map(list -> list.stream().filter(Objects::nonNull).collect(Collectors.toSet()))
-                    .orElse(Set.of());
-            Map<String, String> designerNames = loadDesignerNames(designerIds);
-            return stampMapper.toDto(document, designerNames);
-        });
+    public List<YearSummaryDto> findDistinctYears() {
+        return stampCatalog.snapshot().years();
     }
 
-    private Map<String, String> loadDesignerNames(Collection<String> designerIds) {
-        if (designerIds == null || designerIds.isEmpty()) {
-            return Map.of();
-        }
-        return designerRepository.findAllById(designerIds).stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toMap(
-                        com.vasylenko.ecollectobackend.designer.DesignerDocument::getId,
-                        com.vasylenko.ecollectobackend.designer.DesignerDocument::getName,
-                        (existing, replacement) -> existing
-                ));
+    public Optional<StampDto> findById(String id) {
+        return stampCatalog.snapshot().findById(id);
     }
 }
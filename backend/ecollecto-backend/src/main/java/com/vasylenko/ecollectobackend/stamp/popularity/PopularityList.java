@@ -0,0 +1,50 @@
+package com.vasylenko.ecollectobackend.stamp.popularity;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+
+import java.util.Locale;
+
+/**
+ * User list a popularity count is taken from, with its counter field in {@code stamp_popularity}
+ * and the user collection it is rebuilt from.
+ */
+public enum PopularityList {
+
+    COLLECTED("collected", UserListService.COLLECTIONS),
+    WISHED("wished", UserListService.WISHLISTS),
+    FAVORITED("favorited", UserListService.FAVORITES);
+
+    private final String field;
+    private final String sourceCollection;
+
+    PopularityList(String field, String sourceCollection) {
+        this.field = field;
+        this.sourceCollection = sourceCollection;
+    }
+
+    public String field() {
+        return field;
+    }
+
+    String sourceCollection() {
+        return sourceCollection;
+    }
+
+    /**
+     * @param value {@code collected} (default), {@code wished} or {@code favorited}
+     * @throws BadRequestException for any other value
+     */
+    public static PopularityList parse(String value) {
+        if (value == null || value.isBlank()) {
+            return COLLECTED;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (PopularityList list : values()) {
+            if (list.field.equals(normalized)) {
+                return list;
+            }
+        }
+        throw new BadRequestException("Unsupported list '" + value + "'; expected 'collected', 'wished' or 'favorited'");
+    }
+}
@@ -0,0 +1,47 @@
+package com.vasylenko.ecollectobackend.stamp.popularity;
+
+import com.vasylenko.ecollectobackend.common.exception.ConflictException;
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/admin/stamp-popularity")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Administrative endpoints (protected - requires ADMIN role).")
+public class StampPopularityAdminController {
+
+    private final StampPopularityService stampPopularityService;
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "Rebuild stamp popularity",
+            description = "Recounts how many users collect, wish for and favorite each stamp from their lists.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Popularity counters rebuilt."),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Another rebuild is running.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<Void> rebuild() {
+        if (stampPopularityService.rebuild().isEmpty()) {
+            throw new ConflictException("A stamp popularity rebuild is already running.");
+        }
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,495 @@
+package com.vasylenko.ecollectobackend.stamp.popularity;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.dto.PopularStampDto;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Cross-user "most collected / wished / favorited" rankings, kept in {@value #POPULARITY_COLLECTION}.
+ *
+ * <p>List writes never touch that collection. {@link #record} only bumps an in-memory
+ * {@link LongAdder} per list and stamp, which stripes concurrent updates of a hot stamp across
+ * cells instead of contending on one counter. The adders are bucketed by the second they were
+ * recorded in. {@link #flush} runs every {@code app.stamps.popularity.flush-interval}, drains the
+ * adders and applies the non-zero deltas as one unordered {@code bulkWrite} of upserted
+ * {@code $inc}s, so several instances can flush into the same documents. Deltas whose write
+ * failed are put back for the next flush.</p>
+ *
+ * <p>Reads are served from {@link Rankings}: the counters of every stamp loaded into arrays by
+ * catalog ordinal, with the top {@value #MAX_LIMIT} stamps per list, overall and per release
+ * year, precomputed. They are reloaded at most once per flush interval (or when the catalog
+ * snapshot changes), so {@code GET /api/stamps/popular} is an array slice and never scans the
+ * user lists.</p>
+ *
+ * <p>{@link #rebuild} recounts everything from the user lists, e.g. to backfill lists that
+ * predate the counters. One node at a time runs it under a lease in {@value #LEASE_COLLECTION},
+ * which also carries the rebuild's {@value #EPOCH} and {@value #CUTOFF}: the time taken just
+ * before the recount, whose writes the recount already sees. Every node reads that document
+ * before it flushes and discards the deltas it recorded before the cut-off (the leader does so
+ * as soon as it takes the lease); while the lease is held it flushes nothing, so no delta lands
+ * between the recount and the documents it replaces. The recount stamps each document with its
+ * epoch and deletes the others, and a flush only increments documents of the epoch it read, so a
+ * flush that read the state just before a rebuild started cannot add its (already recounted)
+ * deltas to the new counts. Writes that commit while the recount runs may still be counted
+ * twice, and around the cut-off a node whose clock drifts from the leader's may keep or drop a
+ * second too many; the next rebuild repairs both.</p>
+ */
+@Slf4j
+@Service
+public class StampPopularityService implements DisposableBean {
+
+    static final String POPULARITY_COLLECTION = "stamp_popularity";
+    static final String LEASE_COLLECTION = "stamp_popularity_rebuild";
+    static final String EPOCH = "epoch";
+    static final String CUTOFF = "cutoff";
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 100;
+
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+    private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+    private static final int REBUILD_BATCH_SIZE = 500;
+    private static final String LEASE_ID = "rebuild";
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final StampCatalog stampCatalog;
+    private final Duration refreshInterval;
+    private final Duration rebuildLease;
+    /**
+     * Unflushed deltas by the second they were recorded in (epoch millis), then per list, keyed by
+     * stamp id. Drained buckets are kept for two flush intervals so that a late {@link #record}
+     * into one is still picked up.
+     */
+    private final ConcurrentNavigableMap<Long, Map<PopularityList, ConcurrentMap<String, LongAdder>>> pending =
+            new ConcurrentSkipListMap<>();
+
+    private volatile Rankings rankings;
+    /** Cut-off of the latest rebuild whose earlier deltas were discarded. */
+    private volatile long discardedBefore;
+
+    public StampPopularityService(MongoTemplate mongoTemplate,
+                                  StampCatalog stampCatalog,
+                                  @Value("${app.stamps.popularity.flush-interval:PT10S}") Duration refreshInterval,
+                                  @Value("${app.stamps.popularity.rebuild-lease:PT10M}") Duration rebuildLease) {
+        this.mongoTemplate = mongoTemplate;
+        this.stampCatalog = stampCatalog;
+        this.refreshInterval = refreshInterval;
+        this.rebuildLease = rebuildLease;
+    }
+
+    /**
+     * Counts {@code stampIds} as added to ({@code sign = 1}) or removed from ({@code -1}) one
+     * user's {@code list}. Ids that are not in the catalog are ignored, which bounds the
+     * counters by the catalog size.
+     */
+    public void record(PopularityList list, Collection<String> stampIds, int sign) {
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        long bucket = System.currentTimeMillis() / BUCKET_MILLIS * BUCKET_MILLIS;
+        ConcurrentMap<String, LongAdder> counters = pending
+                .computeIfAbsent(bucket, second -> emptyBucket())
+                .get(list);
+        for (String stampId : stampIds) {
+            if (catalog.ordinalOf(stampId) >= 0) {
+                counters.computeIfAbsent(stampId, id -> new LongAdder()).add(sign);
+            }
+        }
+    }
+
+    /**
+     * Writes the pending deltas to {@value #POPULARITY_COLLECTION}, after discarding those recorded
+     * before the latest rebuild's cut-off. Holds them while a rebuild is running.
+     */
+    @Scheduled(fixedDelayString = "${app.stamps.popularity.flush-interval:PT10S}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Document lease;
+        try {
+            lease = mongoTemplate.findById(LEASE_ID, Document.class, LEASE_COLLECTION);
+        } catch (RuntimeException e) {
+            log.warn("StampPopularityService: could not read the rebuild state; retrying on the next flush: {}",
+                    e.getMessage());
+            return;
+        }
+        long epoch = 0;
+        if (lease != null) {
+            discardBefore(lease.getDate(CUTOFF));
+            if (lease.getDate("expiresAt").after(new Date())) {
+                log.debug("StampPopularityService: rebuild running; holding counters until it completes");
+                return;
+            }
+            epoch = ((Number) lease.get(EPOCH)).longValue();
+        }
+        Map.Entry<Long, Map<PopularityList, ConcurrentMap<String, LongAdder>>> oldest = pending.firstEntry();
+        Map<String, Document> increments = drain();
+        if (oldest == null || increments.isEmpty()) {
+            return;
+        }
+        List<String> stampIds = new ArrayList<>(increments.keySet());
+        List<WriteModel<Document>> writes = new ArrayList<>(stampIds.size());
+        Date now = new Date();
+        for (String stampId : stampIds) {
+            writes.add(new UpdateOneModel<>(
+                    Filters.and(Filters.eq("_id", stampId), Filters.not(Filters.gt(EPOCH, epoch))),
+                    new Document("$inc", increments.get(stampId)).append("$set", new Document("updatedAt", now)),
+                    UPSERT));
+        }
+        try {
+            mongoTemplate.getCollection(POPULARITY_COLLECTION).bulkWrite(writes, UNORDERED);
+            rankings = null;
+        } catch (MongoBulkWriteException e) {
+            // Unordered: everything but the reported writes was applied. A duplicate key means a
+            // rebuild that started after the state was read already replaced the document and
+            // recounted these deltas.
+            int retried = 0;
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    String stampId = stampIds.get(error.getIndex());
+                    restore(oldest.getKey(), stampId, increments.get(stampId));
+                    retried++;
+                }
+            }
+            rankings = null;
+            log.warn("StampPopularityService: {} of {} counter writes failed, {} superseded by a rebuild; "
+                    + "retrying the rest on the next flush",
+                    e.getWriteErrors().size(), writes.size(), e.getWriteErrors().size() - retried);
+        } catch (RuntimeException e) {
+            increments.forEach((stampId, increment) -> restore(oldest.getKey(), stampId, increment));
+            log.warn("StampPopularityService: could not flush {} counters; retrying on the next flush: {}",
+                    writes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the stamps most often held in {@code list}, most popular first.
+     *
+     * @param list  {@code collected} (default), {@code wished} or {@code favorited}
+     * @param year  optional release year filter
+     * @param limit number of stamps; defaults to {@link #DEFAULT_LIMIT} and is capped at {@link #MAX_LIMIT}
+     * @throws BadRequestException for an unknown list or a non-positive limit
+     */
+    public List<PopularStampDto> getPopular(String list, Integer year, Integer limit) {
+        PopularityList by = PopularityList.parse(list);
+        int size = resolveLimit(limit);
+        Rankings current = rankingsFor(stampCatalog.snapshot());
+        long[] counts = current.counts().get(by);
+        return Arrays.stream(current.top(by, year))
+                .limit(size)
+                .mapToObj(ordinal -> {
+                    StampDto stamp = current.snapshot().stamps().get(ordinal);
+                    return PopularStampDto.builder()
+                            .stampId(stamp.getStampId())
+                            .count(counts[ordinal])
+                            .stamp(stamp)
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Recounts every stamp from the user lists and replaces {@value #POPULARITY_COLLECTION}.
+     * Runs under a cluster-wide lease; deltas recorded before the cut-off are discarded on every
+     * node, since the recount already sees the writes behind them.
+     *
+     * @return number of stamps held in at least one list, or empty when another node is rebuilding
+     */
+    public OptionalInt rebuild() {
+        String token = UUID.randomUUID().toString();
+        Document lease = acquireLease(token);
+        if (lease == null) {
+            log.info("StampPopularityService: another node holds the rebuild lease; skipping");
+            return OptionalInt.empty();
+        }
+        long startedNanos = System.nanoTime();
+        long epoch = ((Number) lease.get(EPOCH)).longValue();
+        Date cutoff = lease.getDate(CUTOFF);
+        discardBefore(cutoff);
+        try {
+            Map<String, Document> counts = new HashMap<>();
+            Aggregation countByStamp = Aggregation.newAggregation(Aggregation.group("stampId").count().as("count"));
+            for (PopularityList list : PopularityList.values()) {
+                for (Document row : mongoTemplate.aggregate(countByStamp, list.sourceCollection(), Document.class)) {
+                    counts.computeIfAbsent(row.getString("_id"), id -> emptyCounters())
+                            .put(list.field(), ((Number) row.get("count")).longValue());
+                }
+            }
+
+            List<WriteModel<Document>> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            for (Map.Entry<String, Document> entry : counts.entrySet()) {
+                Document document = new Document("_id", entry.getKey());
+                document.putAll(entry.getValue());
+                document.append(EPOCH, epoch).append("updatedAt", cutoff);
+                batch.add(new ReplaceOneModel<>(Filters.eq("_id", entry.getKey()), document,
+                        new ReplaceOptions().upsert(true)));
+                if (batch.size() == REBUILD_BATCH_SIZE) {
+                    mongoTemplate.getCollection(POPULARITY_COLLECTION).bulkWrite(batch, UNORDERED);
+                    batch.clear();
+                    renewLease(token);
+                }
+            }
+            if (!batch.isEmpty()) {
+                mongoTemplate.getCollection(POPULARITY_COLLECTION).bulkWrite(batch, UNORDERED);
+            }
+            mongoTemplate.remove(Query.query(Criteria.where(EPOCH).ne(epoch)), POPULARITY_COLLECTION);
+            rankings = null;
+
+            log.info("StampPopularityService: recounted {} stamps in {} ms",
+                    counts.size(), (System.nanoTime() - startedNanos) / 1_000_000);
+            return OptionalInt.of(counts.size());
+        } finally {
+            releaseLease(token);
+        }
+    }
+
+    /**
+     * Flushes what is still pending before the application context closes.
+     */
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Resets every adder and collects the non-zero deltas as {@code $inc} documents keyed by stamp
+     * id, dropping buckets older than two flush intervals once drained.
+     */
+    private Map<String, Document> drain() {
+        long expired = System.currentTimeMillis() - 2 * refreshInterval.toMillis();
+        Map<String, Document> increments = new LinkedHashMap<>();
+        pending.forEach((second, bucket) -> {
+            bucket.forEach((list, counters) -> counters.forEach((stampId, adder) -> {
+                long delta = adder.sumThenReset();
+                if (delta != 0) {
+                    increments.computeIfAbsent(stampId, id -> new Document())
+                            .merge(list.field(), delta, (a, b) -> (Long) a + (Long) b);
+                }
+            }));
+            if (second < expired) {
+                pending.remove(second, bucket);
+            }
+        });
+        return increments;
+    }
+
+    /**
+     * Puts a failed increment back into {@code second}, the oldest bucket it was drained from, so
+     * a later cut-off still discards it.
+     */
+    private void restore(long second, String stampId, Document increment) {
+        Map<PopularityList, ConcurrentMap<String, LongAdder>> bucket =
+                pending.computeIfAbsent(second, s -> emptyBucket());
+        for (PopularityList list : PopularityList.values()) {
+            Object delta = increment.get(list.field());
+            if (delta != null) {
+                bucket.get(list).computeIfAbsent(stampId, id -> new LongAdder()).add((Long) delta);
+            }
+        }
+    }
+
+    /**
+     * Drops the deltas recorded before {@code cutoff} (including its own second) the first time
+     * this node sees that cut-off.
+     */
+    private void discardBefore(Date cutoff) {
+        long millis = cutoff.getTime();
+        if (millis > discardedBefore) {
+            pending.headMap(millis).clear();
+            discardedBefore = millis;
+        }
+    }
+
+    /**
+     * Takes the rebuild lease with one upsert that also bumps the epoch and sets the cut-off to
+     * now. The filter matches only an expired lease, so while it is held the upsert collides on
+     * {@code _id} instead.
+     *
+     * @return the lease document, or {@code null} when another node holds it
+     */
+    private Document acquireLease(String token) {
+        Date now = new Date();
+        try {
+            return mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(LEASE_ID).and("expiresAt").lt(now)),
+                    new Update()
+                            .set("holder", token)
+                            .set("expiresAt", new Date(now.getTime() + rebuildLease.toMillis()))
+                            .set(CUTOFF, now)
+                            .inc(EPOCH, 1),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    Document.class, LEASE_COLLECTION);
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private void renewLease(String token) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(LEASE_ID).and("holder").is(token)),
+                Update.update("expiresAt", new Date(System.currentTimeMillis() + rebuildLease.toMillis())),
+                LEASE_COLLECTION);
+    }
+
+    private void releaseLease(String token) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(LEASE_ID).and("holder").is(token)),
+                Update.update("expiresAt", new Date(0)), LEASE_COLLECTION);
+    }
+
+    private Rankings rankingsFor(StampCatalogSnapshot snapshot) {
+        Rankings current = rankings;
+        if (current != null && !current.isStale(snapshot, refreshInterval)) {
+            return current;
+        }
+        synchronized (this) {
+            current = rankings;
+            if (current == null || current.isStale(snapshot, refreshInterval)) {
+                current = Rankings.load(snapshot,
+                        mongoTemplate.findAll(Document.class, POPULARITY_COLLECTION));
+                rankings = current;
+            }
+            return current;
+        }
+    }
+
+    private static Map<PopularityList, ConcurrentMap<String, LongAdder>> emptyBucket() {
+        Map<PopularityList, ConcurrentMap<String, LongAdder>> bucket = new EnumMap<>(PopularityList.class);
+        for (PopularityList list : PopularityList.values()) {
+            bucket.put(list, new ConcurrentHashMap<>());
+        }
+        return bucket;
+    }
+
+    private static Document emptyCounters() {
+        Document counters = new Document();
+        for (PopularityList list : PopularityList.values()) {
+            counters.put(list.field(), 0L);
+        }
+        return counters;
+    }
+
+    /**
+     * Counters of one catalog snapshot by ordinal, with the top {@value #MAX_LIMIT} ordinals per
+     * list (overall and per release year) sorted by count, then catalog order.
+     */
+    record Rankings(StampCatalogSnapshot snapshot,
+                    long loadedAt,
+                    Map<PopularityList, long[]> counts,
+                    Map<PopularityList, int[]> top,
+                    Map<PopularityList, Map<Integer, int[]>> topByYear) {
+
+        static Rankings load(StampCatalogSnapshot snapshot, List<Document> documents) {
+            Map<PopularityList, long[]> counts = new EnumMap<>(PopularityList.class);
+            for (PopularityList list : PopularityList.values()) {
+                counts.put(list, new long[snapshot.size()]);
+            }
+            for (Document document : documents) {
+                int ordinal = snapshot.ordinalOf(document.getString("_id"));
+                if (ordinal < 0) {
+                    continue;
+                }
+                for (PopularityList list : PopularityList.values()) {
+                    if (document.get(list.field()) instanceof Number count) {
+                        counts.get(list)[ordinal] = count.longValue();
+                    }
+                }
+            }
+
+            Map<PopularityList, int[]> top = new EnumMap<>(PopularityList.class);
+            Map<PopularityList, Map<Integer, int[]>> topByYear = new EnumMap<>(PopularityList.class);
+            for (PopularityList list : PopularityList.values()) {
+                long[] listCounts = counts.get(list);
+                int[] ranked = IntStream.range(0, listCounts.length)
+                        .filter(ordinal -> listCounts[ordinal] > 0)
+                        .boxed()
+                        .sorted(Comparator.comparingLong((Integer ordinal) -> listCounts[ordinal]).reversed()
+                                .thenComparing(Comparator.naturalOrder()))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                top.put(list, Arrays.copyOf(ranked, Math.min(ranked.length, MAX_LIMIT)));
+
+                Map<Integer, List<Integer>> byYear = new HashMap<>();
+                for (int ordinal : ranked) {
+                    Integer year = yearOf(snapshot.documents().get(ordinal));
+                    if (year != null) {
+                        List<Integer> yearTop = byYear.computeIfAbsent(year, y -> new ArrayList<>());
+                        if (yearTop.size() < MAX_LIMIT) {
+                            yearTop.add(ordinal);
+                        }
+                    }
+                }
+                Map<Integer, int[]> yearArrays = new HashMap<>();
+                byYear.forEach((year, ordinals) ->
+                        yearArrays.put(year, ordinals.stream().mapToInt(Integer::intValue).toArray()));
+                topByYear.put(list, yearArrays);
+            }
+            return new Rankings(snapshot, System.nanoTime(), counts, top, topByYear);
+        }
+
+        int[] top(PopularityList list, Integer year) {
+            return year == null ? top.get(list) : topByYear.get(list).getOrDefault(year, new int[0]);
+        }
+
+        boolean isStale(StampCatalogSnapshot current, Duration refreshInterval) {
+            return snapshot.version() != current.version() || System.nanoTime() - loadedAt > refreshInterval.toNanos();
+        }
+
+        private static Integer yearOf(StampDocument document) {
+            return document.getRelease() != null ? document.getRelease().getYear() : null;
+        }
+    }
+}
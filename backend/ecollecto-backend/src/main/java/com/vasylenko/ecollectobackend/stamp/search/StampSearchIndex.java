@@ -0,0 +1,176 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import com.vasylenko.ecollectobackend.dto.FacetCountDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.stamp.StampFacetIndex;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable inverted index over one catalog snapshot.
+ *
+ * <p>Documents are identified by their catalog ordinal. Each analyzed term of name, series and
+ * description maps to a {@link RoaringBitmap} of ordinals per field; facet filtering and
+ * counting are delegated to the snapshot's {@link StampFacetIndex}, so a query is a handful of
+ * bitmap ANDs/ORs plus cardinality calls.</p>
+ */
+final class StampSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int SERIES_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final StampFacetIndex facets;
+    private final NavigableMap<String, RoaringBitmap> nameTerms;
+    private final NavigableMap<String, RoaringBitmap> seriesTerms;
+    private final NavigableMap<String, RoaringBitmap> descriptionTerms;
+
+    private StampSearchIndex(StampFacetIndex facets,
+                             NavigableMap<String, RoaringBitmap> nameTerms,
+                             NavigableMap<String, RoaringBitmap> seriesTerms,
+                             NavigableMap<String, RoaringBitmap> descriptionTerms) {
+        this.facets = facets;
+        this.nameTerms = nameTerms;
+        this.seriesTerms = seriesTerms;
+        this.descriptionTerms = descriptionTerms;
+    }
+
+    /**
+     * Indexes the text of the snapshot's documents, using each document's list position as its ordinal.
+     */
+    static StampSearchIndex build(StampCatalogSnapshot snapshot) {
+        NavigableMap<String, RoaringBitmap> nameTerms = new TreeMap<>();
+        NavigableMap<String, RoaringBitmap> seriesTerms = new TreeMap<>();
+        NavigableMap<String, RoaringBitmap> descriptionTerms = new TreeMap<>();
+
+        List<StampDocument> documents = snapshot.documents();
+        for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+            StampDocument document = documents.get(ordinal);
+            addTerms(nameTerms, document.getName(), ordinal);
+            addTerms(descriptionTerms, document.getDescription(), ordinal);
+            if (document.getMeta() != null) {
+                addTerms(seriesTerms, document.getMeta().getSeries(), ordinal);
+            }
+        }
+        List.of(nameTerms, seriesTerms, descriptionTerms)
+                .forEach(terms -> terms.values().forEach(RoaringBitmap::runOptimize));
+        return new StampSearchIndex(snapshot.facets(), nameTerms, seriesTerms, descriptionTerms);
+    }
+
+    /**
+     * Runs {@code query} and returns the requested page of ordinals, best match first, with
+     * disjunctive facet counts (each facet counted under every filter except its own).
+     */
+    Result search(StampSearchQuery query, int offset, int limit) {
+        List<RoaringBitmap[]> termFields = new ArrayList<>();
+        RoaringBitmap base = matchText(query.text(), termFields);
+
+        Map<String, RoaringBitmap> selections = new LinkedHashMap<>();
+        select(selections, StampFacetIndex.THEMES, query.themes());
+        select(selections, StampFacetIndex.DESIGNERS, query.designerIds());
+        select(selections, StampFacetIndex.CURRENCY, query.currencies());
+        if (query.europa() != null) {
+            select(selections, StampFacetIndex.EUROPA, Set.of(query.europa().toString()));
+        }
+        if (query.perforation() != null) {
+            select(selections, StampFacetIndex.PERFORATION, Set.of(query.perforation().toString()));
+        }
+        if (query.yearFrom() != null || query.yearTo() != null) {
+            selections.put(StampFacetIndex.YEARS, facets.yearRange(query.yearFrom(), query.yearTo()));
+        }
+
+        RoaringBitmap hits = base.clone();
+        selections.values().forEach(hits::and);
+
+        int[] ranked = rank(hits, termFields);
+        int from = Math.min(offset, ranked.length);
+        int to = Math.min(from + limit, ranked.length);
+        return new Result(ranked.length, Arrays.copyOfRange(ranked, from, to), facets.count(base, selections));
+    }
+
+    private RoaringBitmap matchText(String text, List<RoaringBitmap[]> termFields) {
+        RoaringBitmap matches = facets.all();
+        List<String> tokens = UkrainianAnalyzer.tokens(text);
+        // The last word is still being typed unless the text ends with a space. It is matched as
+        // typed, before stop-word removal, so "на" on the way to "наука" is a prefix rather than
+        // a dropped stop word, and the prefix never moves to an earlier word.
+        boolean lastIsPrefix = !tokens.isEmpty() && !Character.isWhitespace(text.charAt(text.length() - 1));
+        List<String> terms = new ArrayList<>(UkrainianAnalyzer.terms(
+                lastIsPrefix ? tokens.subList(0, tokens.size() - 1) : tokens));
+        if (lastIsPrefix) {
+            terms.add(UkrainianAnalyzer.stem(tokens.getLast()));
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            boolean prefix = lastIsPrefix && i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH;
+            RoaringBitmap[] fields = {
+                    postings(nameTerms, term, prefix),
+                    postings(seriesTerms, term, prefix),
+                    postings(descriptionTerms, term, prefix)
+            };
+            matches.and(RoaringBitmap.or(fields));
+            termFields.add(fields);
+        }
+        return matches;
+    }
+
+    private static RoaringBitmap postings(NavigableMap<String, RoaringBitmap> terms, String term, boolean prefix) {
+        if (!prefix) {
+            RoaringBitmap exact = terms.get(term);
+            return exact != null ? exact : new RoaringBitmap();
+        }
+        return RoaringBitmap.or(terms.subMap(term, true, term + Character.MAX_VALUE, false).values().iterator());
+    }
+
+    private void select(Map<String, RoaringBitmap> selections, String facet, Set<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selections.put(facet, facets.anyOf(facet, values));
+        }
+    }
+
+    private int[] rank(RoaringBitmap hits, List<RoaringBitmap[]> termFields) {
+        int[] ordinals = hits.toArray(); // ascending, i.e. catalog order
+        if (termFields.isEmpty()) {
+            return ordinals;
+        }
+        int[] scores = new int[facets.size()];
+        for (int ordinal : ordinals) {
+            for (RoaringBitmap[] fields : termFields) {
+                scores[ordinal] += fields[0].contains(ordinal) ? NAME_WEIGHT : 0;
+                scores[ordinal] += fields[1].contains(ordinal) ? SERIES_WEIGHT : 0;
+                scores[ordinal] += fields[2].contains(ordinal) ? DESCRIPTION_WEIGHT : 0;
+            }
+        }
+        return Arrays.stream(ordinals)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer ordinal) -> scores[ordinal]).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static void addTerms(NavigableMap<String, RoaringBitmap> terms, String text, int ordinal) {
+        for (String term : UkrainianAnalyzer.terms(text)) {
+            terms.computeIfAbsent(term, t -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    /**
+     * @param total    number of matching stamps
+     * @param ordinals catalog ordinals of the requested page, best match first
+     * @param facets   facet name → value counts
+     */
+    record Result(int total, int[] ordinals, Map<String, List<FacetCountDto>> facets) {
+    }
+}
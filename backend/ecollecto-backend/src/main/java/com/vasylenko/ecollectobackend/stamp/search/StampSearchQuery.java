@@ -0,0 +1,33 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import java.util.Set;
+
+/**
+ * Parsed {@code GET /api/stamps/search} request.
+ *
+ * <p>Values within one facet are OR-ed, facets are AND-ed with each other and with the text
+ * query. Empty sets and {@code null} values mean "no filter".</p>
+ *
+ * @param text        free text matched against name, series and description; the last word is a prefix
+ * @param themes      theme values to match
+ * @param designerIds designer ids to match
+ * @param currencies  denomination currencies to match
+ * @param europa      Europa flag to match
+ * @param perforation perforation flag to match
+ * @param yearFrom    inclusive lower bound on release year
+ * @param yearTo      inclusive upper bound on release year
+ * @param offset      number of ranked hits to skip; defaults to 0
+ * @param limit       maximum number of hits to return; defaults to 50, capped at 200
+ */
+public record StampSearchQuery(
+        String text,
+        Set<String> themes,
+        Set<String> designerIds,
+        Set<String> currencies,
+        Boolean europa,
+        Boolean perforation,
+        Integer yearFrom,
+        Integer yearTo,
+        Integer offset,
+        Integer limit) {
+}
@@ -0,0 +1,95 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampSearchResultDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Full-text and faceted search over the in-memory stamp catalog.
+ *
+ * <p>A {@link StampSearchIndex} is built from the current {@link StampCatalogSnapshot} on first
+ * use and rebuilt lazily the first time a query sees a newer snapshot version, so searches never
+ * touch MongoDB and hits are returned as the snapshot's already-mapped {@link StampDto}s.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StampSearchService {
+
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 200;
+
+    private final StampCatalog stampCatalog;
+
+    private volatile IndexedSnapshot indexed;
+
+    /**
+     * Runs {@code query} against the current catalog snapshot.
+     *
+     * @throws BadRequestException for a negative offset, non-positive limit or inverted year range
+     */
+    public StampSearchResultDto search(StampSearchQuery query) {
+        int offset = query.offset() != null ? query.offset() : 0;
+        int limit = resolveLimit(query.limit());
+        if (offset < 0) {
+            throw new BadRequestException("offset must not be negative");
+        }
+        if (query.yearFrom() != null && query.yearTo() != null && query.yearFrom() > query.yearTo()) {
+            throw new BadRequestException("yearFrom must not be after yearTo");
+        }
+        IndexedSnapshot current = indexFor(stampCatalog.snapshot());
+
+        StampSearchIndex.Result result = current.index().search(query, offset, limit);
+        List<StampDto> items = Arrays.stream(result.ordinals())
+                .mapToObj(current.snapshot().stamps()::get)
+                .toList();
+        return StampSearchResultDto.builder()
+                .total((long) result.total())
+                .items(items)
+                .facets(result.facets())
+                .build();
+    }
+
+    static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private IndexedSnapshot indexFor(StampCatalogSnapshot snapshot) {
+        IndexedSnapshot current = indexed;
+        if (current != null && current.snapshot().version() >= snapshot.version()) {
+            return current;
+        }
+        synchronized (this) {
+            current = indexed;
+            if (current == null || current.snapshot().version() < snapshot.version()) {
+                long started = System.nanoTime();
+                current = new IndexedSnapshot(snapshot, StampSearchIndex.build(snapshot));
+                indexed = current;
+                log.info("StampSearchService: indexed {} stamps (version {}) in {} ms",
+                        snapshot.size(), snapshot.version(), (System.nanoTime() - started) / 1_000_000);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Pairs an index with the snapshot it was built from, so ordinals are always resolved
+     * against the matching stamp list.
+     */
+    private record IndexedSnapshot(StampCatalogSnapshot snapshot, StampSearchIndex index) {
+    }
+}
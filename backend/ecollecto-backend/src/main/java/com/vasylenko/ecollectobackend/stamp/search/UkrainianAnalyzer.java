@@ -0,0 +1,107 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer and light suffix-stripping stemmer for Ukrainian catalog text.
+ *
+ * <p>Text is NFC-normalized and lower-cased; apostrophes inside words ({@code '}, {@code ’},
+ * {@code ʼ}) are dropped so {@code м'ята} and {@code мʼята} index the same term. Tokens are
+ * maximal runs of letters and digits. Cyrillic tokens lose their longest inflectional ending
+ * as long as a stem of {@link #MIN_STEM_LENGTH} characters remains, which folds the common
+ * case and number forms ({@code Україна}, {@code України}, {@code Україною} → {@code україн}).
+ * Latin tokens and numbers are kept as they are.</p>
+ */
+final class UkrainianAnalyzer {
+
+    static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "і", "й", "та", "а", "але", "в", "у", "на", "з", "із", "зі", "до", "від", "для", "по", "про",
+            "що", "як", "the", "of", "and");
+
+    /**
+     * Inflectional endings, longest first so the longest match wins.
+     */
+    private static final List<String> SUFFIXES = List.of(
+            "ями", "ами", "ові", "еві", "ого", "ому", "ими", "іми",
+            "ої", "ою", "ею", "єю", "ій", "ий", "их", "іх", "ом", "ем", "ів", "ах", "ях", "ям", "ам",
+            "ї", "а", "я", "і", "и", "у", "ю", "е", "є", "о", "ь", "й");
+
+    private UkrainianAnalyzer() {
+    }
+
+    /**
+     * @return the stemmed, stop-word-free terms of {@code text}, in order (duplicates kept).
+     */
+    static List<String> terms(String text) {
+        return terms(tokens(text));
+    }
+
+    /**
+     * @return the stemmed, stop-word-free terms of already normalized {@code tokens}, in order.
+     */
+    static List<String> terms(List<String> tokens) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokens) {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * @return the normalized, unstemmed tokens of {@code text}.
+     */
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty() && !isApostropheInsideWord(normalized, i)) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Strips the longest inflectional ending from a Cyrillic token.
+     */
+    static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH || !isCyrillic(token.charAt(token.length() - 1))) {
+            return token;
+        }
+        for (String suffix : SUFFIXES) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+
+    private static boolean isApostropheInsideWord(String text, int index) {
+        char c = text.charAt(index);
+        boolean apostrophe = c == '\'' || c == '’' || c == 'ʼ' || c == '`';
+        return apostrophe && index + 1 < text.length() && Character.isLetter(text.charAt(index + 1));
+    }
+
+    private static boolean isCyrillic(char c) {
+        return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC;
+    }
+}
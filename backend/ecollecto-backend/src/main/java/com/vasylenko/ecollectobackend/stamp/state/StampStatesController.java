@@ -0,0 +1,66 @@
+package com.vasylenko.ecollectobackend.stamp.state;
+
+import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import com.vasylenko.ecollectobackend.common.web.EntityTags;
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/me/stamp-states")
+@RequiredArgsConstructor
+@Tag(name = "Stamp states", description = "Per-user stamp markers for catalog rendering (protected - requires Bearer JWT).")
+public class StampStatesController {
+
+    private final StampStatesService stampStatesService;
+    private final CurrentUserService currentUserService;
+
+    /**
+     * GET /api/me/stamp-states
+     * Returns collection, wishlist and favorites membership of every catalog stamp as bitsets.
+     * The ETag is a digest of the catalog layout and the bitsets, the same on every node, so a
+     * matching {@code If-None-Match} yields 304 Not Modified.
+     */
+    @GetMapping
+    @Operation(summary = "Get stamp states",
+            description = "Returns which catalog stamps the authenticated user has collected, wished for or favorited, "
+                    + "as bitsets over catalog ordinals.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stamp states retrieved.",
+                    content = @Content(schema = @Schema(implementation = StampStatesDto.class))),
+            @ApiResponse(responseCode = "304", description = "Stamp states unchanged since the given ETag."),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<StampStatesDto> getStampStates(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StampStatesService.StampStates states = stampStatesService.get(currentUserService.getCurrentUserId());
+        String etag = states.etag();
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(states.body());
+    }
+}
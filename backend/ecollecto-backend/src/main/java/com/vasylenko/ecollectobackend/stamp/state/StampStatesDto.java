@@ -0,0 +1,36 @@
+package com.vasylenko.ecollectobackend.stamp.state;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Which catalog stamps the authenticated user has collected, wished for or favorited, as bitsets "
+        + "over catalog ordinals. Ordinal i is the i-th stamp of GET /api/stamps (no year filter) for the same catalog. "
+        + "Each bitset is Base64 of little-endian bytes: stamp i is set when (byte[i / 8] >> (i % 8)) & 1 is 1. "
+        + "Trailing zero bytes are omitted, so a bitset may be shorter than size / 8.")
+public class StampStatesDto {
+
+    @Schema(description = "Digest of the catalog's stamp ids in ordinal order, the same on every server for the same "
+            + "catalog; when it changes, ordinals refer to a different GET /api/stamps list.",
+            example = "q2Xj0JmJ7vQ3VwW1pZ9m4A", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String catalogLayout;
+
+    @Schema(description = "Stamps in the catalog, i.e. the number of bits each bitset covers.",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    private Integer size;
+
+    @Schema(description = "Stamps in the user's collection.", example = "Aw==", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String collection;
+
+    @Schema(description = "Stamps on the user's wishlist.", example = "BA==", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String wishlist;
+
+    @Schema(description = "Stamps in the user's favorites.", example = "", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String favorites;
+}
@@ -0,0 +1,192 @@
+package com.vasylenko.ecollectobackend.stamp.state;
+
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds and caches, per user, bitsets of the catalog ordinals on their collection, wishlist and
+ * favorites, so the catalog grid can mark every stamp from one small response.
+ *
+ * <p>Each list is read with one query on {@code userId} that projects only {@code stampId}. Both
+ * fields are in the {@value UserListService#STAMP_INDEX} index every list collection carries,
+ * and the query is hinted to it, so MongoDB answers from the index alone without fetching documents.
+ * Stamp ids are mapped to ordinals through the in-memory {@link StampCatalog}; ids no longer in
+ * the catalog are skipped.</p>
+ *
+ * <p>The catalog snapshot is loaded in {@code _id} order, so ordinals are the same on every node.
+ * The response carries a digest of that layout, and its ETag is a digest of the layout and the
+ * encoded bitsets, so every node serving the same catalog and lists yields the same body and
+ * ETag. A new catalog version makes
+ * an entry stale, and {@link #invalidate(String)} is called by the list services after every
+ * write. It leaves a tombstone rather than removing the entry, so a rebuild that read the lists
+ * before the write cannot store its result over it. Invalidation only reaches this node, so
+ * entries also expire after {@code app.stamps.states.ttl} to pick up writes served elsewhere.</p>
+ */
+@Service
+public class StampStatesService {
+
+    private static final int DIGEST_BYTES = 16;
+
+    /**
+     * States of one user at one catalog version, with their ETag.
+     */
+    public record StampStates(String etag, StampStatesDto body) {
+    }
+
+    /** A cached entry, or a tombstone left by {@link #invalidate} when {@code states} is null. */
+    private record Entry(long generation, StampStates states, long catalogVersion, long loadedNanos) {
+    }
+
+    /** Digest of the stamp ids in ordinal order for one catalog version, also as Base64url text. */
+    private record Layout(long version, byte[] digest, String text) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final StampCatalog stampCatalog;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final AtomicLong generations = new AtomicLong();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile Layout layout;
+
+    public StampStatesService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                              @Value("${app.stamps.states.max-entries:10000}") int maxEntries,
+                              @Value("${app.stamps.states.ttl:PT30S}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.stampCatalog = stampCatalog;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return the user's states for the current catalog, from cache when still valid
+     */
+    public StampStates get(String userId) {
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        Entry seen = entries.get(userId);
+        long now = System.nanoTime();
+        if (seen != null && seen.states() != null
+                && seen.catalogVersion() == catalog.version()
+                && now - seen.loadedNanos() < ttlNanos) {
+            return seen.states();
+        }
+
+        Layout catalogLayout = layout(catalog);
+        StampStatesDto body = StampStatesDto.builder()
+                .catalogLayout(catalogLayout.text())
+                .size(catalog.size())
+                .collection(encode(ordinals(UserListService.COLLECTIONS, userId, catalog)))
+                .wishlist(encode(ordinals(UserListService.WISHLISTS, userId, catalog)))
+                .favorites(encode(ordinals(UserListService.FAVORITES, userId, catalog)))
+                .build();
+        StampStates states = new StampStates(etag(catalogLayout, body), body);
+
+        Entry loaded = new Entry(generations.incrementAndGet(), states, catalog.version(), now);
+        if (seen == null) {
+            if (entries.size() >= maxEntries) {
+                makeRoom();
+            }
+            entries.putIfAbsent(userId, loaded);
+        } else {
+            entries.replace(userId, seen, loaded);
+        }
+        return states;
+    }
+
+    /**
+     * Marks the user's cached states stale after a write to one of their lists.
+     */
+    public void invalidate(String userId) {
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) {
+            makeRoom();
+        }
+        entries.put(userId, new Entry(generations.incrementAndGet(), null, 0, 0));
+    }
+
+    private BitSet ordinals(String collectionName, String userId, StampCatalogSnapshot catalog) {
+        Query query = Query.query(Criteria.where("userId").is(userId)).withHint(UserListService.STAMP_INDEX);
+        query.fields().include("stampId").exclude("_id");
+        BitSet bits = new BitSet(catalog.size());
+        for (Document item : mongoTemplate.find(query, Document.class, collectionName)) {
+            int ordinal = catalog.ordinalOf(item.getString("stampId"));
+            if (ordinal >= 0) {
+                bits.set(ordinal);
+            }
+        }
+        return bits;
+    }
+
+    private static String encode(BitSet bits) {
+        return Base64.getEncoder().encodeToString(bits.toByteArray());
+    }
+
+    /**
+     * @return a strong ETag over the catalog layout and the encoded bitsets, the same on every node
+     */
+    private static String etag(Layout catalogLayout, StampStatesDto body) {
+        MessageDigest digest = sha256();
+        digest.update(catalogLayout.digest());
+        digest.update((body.getSize() + ":" + body.getCollection() + ":" + body.getWishlist() + ":"
+                + body.getFavorites()).getBytes(StandardCharsets.UTF_8));
+        return "\"" + text(digest.digest()) + "\"";
+    }
+
+    private Layout layout(StampCatalogSnapshot catalog) {
+        Layout current = layout;
+        if (current != null && current.version() == catalog.version()) {
+            return current;
+        }
+        MessageDigest digest = sha256();
+        for (StampDto stamp : catalog.stamps()) {
+            digest.update((stamp.getStampId() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] bytes = digest.digest();
+        current = new Layout(catalog.version(), bytes, text(bytes));
+        layout = current;
+        return current;
+    }
+
+    private static String text(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, DIGEST_BYTES));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Drops an arbitrary eighth of the entries. */
+    private void makeRoom() {
+        int excess = entries.size() - (maxEntries - 1 - maxEntries / 8);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            excess--;
+        }
+    }
+}
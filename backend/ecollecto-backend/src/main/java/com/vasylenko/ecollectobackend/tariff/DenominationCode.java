@@ -0,0 +1,59 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A stamp's printed denomination, parsed.
+ *
+ * <p>Numeric codes ({@code "0.15"}, {@code "1,50"}) are an amount in the stamp's own currency.
+ * Letter codes ({@code "U"}, {@code "F+8.00"}) name a tariff, optionally with a printed
+ * surcharge; their value depends on the {@link TariffTable} year they are priced at.</p>
+ *
+ * @param currency   currency of a numeric code, {@code null} for letter codes
+ * @param letter     tariff letter code, {@code null} for numeric codes
+ * @param minorUnits the printed amount, or the surcharge of a letter code, in hundredths
+ */
+public record DenominationCode(String currency, String letter, long minorUnits) {
+
+    private static final Pattern AMOUNT = Pattern.compile("\\d+(\\.\\d+)?");
+    private static final Pattern LETTER = Pattern.compile("(\\p{L}+)(?:\\+(\\d+(?:\\.\\d+)?))?");
+
+    /**
+     * @param currency currency field of the stamp's denomination
+     * @param code     code field of the stamp's denomination
+     * @return the parsed code, or {@code null} if it is neither an amount in a known currency nor a letter code
+     */
+    public static DenominationCode parse(String currency, String code) {
+        if (code == null) {
+            return null;
+        }
+        String normalized = code.replace(',', '.').replace(" ", "");
+        if (AMOUNT.matcher(normalized).matches()) {
+            return isCurrencyCode(currency)
+                    ? new DenominationCode(currency, null, toMinorUnits(new BigDecimal(normalized)))
+                    : null;
+        }
+        Matcher letter = LETTER.matcher(normalized);
+        if (!letter.matches()) {
+            return null;
+        }
+        long surcharge = letter.group(2) != null ? toMinorUnits(new BigDecimal(letter.group(2))) : 0;
+        return new DenominationCode(null, letter.group(1), surcharge);
+    }
+
+    public boolean isLetter() {
+        return letter != null;
+    }
+
+    private static long toMinorUnits(BigDecimal value) {
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /** Excludes the "non-denominated stamp" marker some records carry in the currency field. */
+    private static boolean isCurrencyCode(String currency) {
+        return currency != null && currency.length() == 3 && currency.chars().allMatch(Character::isUpperCase);
+    }
+}
@@ -0,0 +1,85 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
+import com.vasylenko.ecollectobackend.common.model.Currency;
+import com.vasylenko.ecollectobackend.dto.TariffsDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * WebFlux counterpart of {@link TariffsController}, active under the {@code reactive} profile.
+ * Responses and error handling match the MVC controller: an unknown year is a 404 error
+ * response, an unknown currency or letter within a known year an empty 404.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/tariffs")
+@Slf4j
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTariffsController {
+
+    private final ReactiveTariffsRepository repository;
+    private final TariffsMapper tariffsMapper;
+
+    /**
+     * GET /api/tariffs
+     * Streams tariffs for all years.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<TariffsDto> getAllTariffs() {
+        return repository.findAll().map(tariffsMapper::toDto);
+    }
+
+    /**
+     * GET /api/tariffs/{year}/{currency}
+     * Returns the letter-to-tariff map for the given year and currency.
+     */
+    @GetMapping("/{year}/{currency}")
+    public Mono<ResponseEntity<Map<String, Double>>> getAllTariffsByCurrency(
+            @PathVariable Integer year,
+            @PathVariable Currency currency) {
+        return tariffsByCurrency(year, currency)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Tariffs not found for year: {} and currency: {}", year, currency);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    /**
+     * GET /api/tariffs/{year}/{currency}/{letter}
+     * Returns a single tariff value for the given year, currency and postal letter.
+     */
+    @GetMapping("/{year}/{currency}/{letter}")
+    public Mono<ResponseEntity<Double>> getTariff(
+            @PathVariable Integer year,
+            @PathVariable Currency currency,
+            @PathVariable String letter) {
+        return tariffsByCurrency(year, currency)
+                .mapNotNull(tariffs -> tariffs.get(letter))
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Tariff not found for year: {}, currency: {}, letter: {}", year, currency, letter);
+                    return ResponseEntity.notFound().build();
+                }));
+    }
+
+    private Mono<Map<String, Double>> tariffsByCurrency(Integer year, Currency currency) {
+        return repository.findByYear(year)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Tariffs not found for year: {}", year);
+                    return new NotFoundException("Tariffs not found for year " + year);
+                }))
+                .mapNotNull(document -> document.getCurrencies() != null
+                        ? document.getCurrencies().get(currency.name())
+                        : null);
+    }
+}
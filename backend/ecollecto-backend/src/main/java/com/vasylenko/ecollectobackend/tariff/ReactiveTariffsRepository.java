@@ -0,0 +1,11 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TariffsRepository}, used by {@link ReactiveTariffsController}.
+ */
+public interface ReactiveTariffsRepository extends ReactiveMongoRepository<TariffsDocument, String> {
+    Mono<TariffsDocument> findByYear(Integer year);
+}
@@ -0,0 +1,79 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link TariffTable}, compiled from the whole {@code tariffs} collection on
+ * first use (or at startup) and recompiled off to the side on a
+ * {@link CatalogChangeEvent.TariffsChanged}. Ordered ahead of subscribers that price stamps while
+ * rebuilding.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TariffCatalog {
+
+    private final TariffsRepository tariffsRepository;
+
+    private final AtomicReference<TariffTable> current = new AtomicReference<>();
+    private final Object reloadLock = new Object();
+
+    /**
+     * Returns the current table, compiling it on first access.
+     */
+    public TariffTable table() {
+        TariffTable table = current.get();
+        if (table != null) {
+            return table;
+        }
+        synchronized (reloadLock) {
+            table = current.get();
+            return table != null ? table : reload();
+        }
+    }
+
+    /**
+     * Recompiles the table from MongoDB and swaps it in.
+     */
+    public TariffTable reload() {
+        synchronized (reloadLock) {
+            TariffTable table = TariffTable.compile(tariffsRepository.findAll());
+            current.set(table);
+            log.info("TariffCatalog: compiled tariffs up to {}", table.latestYear());
+            return table;
+        }
+    }
+
+    @EventListener
+    @Order(0)
+    public void onTariffsChanged(CatalogChangeEvent.TariffsChanged event) {
+        if (current.get() == null) {
+            return; // never loaded — the next reader will load fresh data
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("TariffCatalog: reload failed, keeping previous tariffs", e);
+        }
+    }
+
+    /**
+     * Compiles tariffs at startup so the first lookup does not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            table();
+        } catch (RuntimeException e) {
+            log.warn("TariffCatalog: warm-up failed, will load on first request: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.model.Currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Immutable tariff lookup table compiled from the {@code tariffs} collection.
+ *
+ * <p>Rates are held in one dense {@code long[]} of minor units (kopiyky / cents), indexed by
+ * year offset, {@link Currency} ordinal and the position of the letter code in a sorted array
+ * of every code seen. {@link #minorUnits(int, Currency, String)} is an array index plus one
+ * binary search: it allocates nothing and does no I/O. Currencies stored in MongoDB that are not
+ * a {@link Currency} constant (such as {@code UAK} in 1992) cannot be requested and are skipped.</p>
+ *
+ * <p>For bulk pricing, callers resolve letter codes with {@link #letterIndex(String)} and years
+ * with {@link #yearInForce(int, Currency)} once per item, then price every item in one pass over
+ * primitive arrays with {@link #price(Currency, int[], int[], long[])}.</p>
+ */
+public final class TariffTable {
+
+    /** Returned by {@link #minorUnits(int, Currency, String)} when no rate exists. */
+    public static final long MISSING = Long.MIN_VALUE;
+
+    public static final TariffTable EMPTY = compile(List.of());
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    private final int firstYear;
+    private final boolean[] years;
+    private final String[] letters;
+    private final long[] minorUnits;
+    private final Map<String, Double>[] rates;
+    /** Per year offset and currency: the latest year up to it with rates in that currency, or -1. */
+    private final int[] inForce;
+
+    private TariffTable(int firstYear, boolean[] years, String[] letters, long[] minorUnits,
+                        Map<String, Double>[] rates) {
+        this.firstYear = firstYear;
+        this.years = years;
+        this.letters = letters;
+        this.minorUnits = minorUnits;
+        this.rates = rates;
+        this.inForce = new int[rates.length];
+        for (Currency currency : CURRENCIES) {
+            int latest = -1;
+            for (int yearIndex = 0; yearIndex < years.length; yearIndex++) {
+                int slot = yearIndex * CURRENCIES.length + currency.ordinal();
+                if (rates[slot] != null) {
+                    latest = firstYear + yearIndex;
+                }
+                inForce[slot] = latest;
+            }
+        }
+    }
+
+    /**
+     * Compiles {@code documents} into a table. Documents without a year are ignored; if two
+     * documents share a year, the later one wins.
+     */
+    @SuppressWarnings("unchecked")
+    public static TariffTable compile(Collection<TariffsDocument> documents) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        TreeSet<String> codes = new TreeSet<>();
+        for (TariffsDocument document : documents) {
+            if (document.getYear() == null) {
+                continue;
+            }
+            first = Math.min(first, document.getYear());
+            last = Math.max(last, document.getYear());
+            if (document.getCurrencies() != null) {
+                for (Currency currency : CURRENCIES) {
+                    Map<String, Double> byLetter = document.getCurrencies().get(currency.name());
+                    if (byLetter != null) {
+                        codes.addAll(byLetter.keySet());
+                    }
+                }
+            }
+        }
+        if (first > last) {
+            return new TariffTable(0, new boolean[0], new String[0], new long[0], new Map[0]);
+        }
+
+        String[] letters = codes.toArray(String[]::new);
+        boolean[] years = new boolean[last - first + 1];
+        Map<String, Double>[] rates = new Map[years.length * CURRENCIES.length];
+        long[] minorUnits = new long[rates.length * letters.length];
+        Arrays.fill(minorUnits, MISSING);
+
+        for (TariffsDocument document : documents) {
+            if (document.getYear() == null) {
+                continue;
+            }
+            int yearIndex = document.getYear() - first;
+            years[yearIndex] = true;
+            for (Currency currency : CURRENCIES) {
+                int slot = yearIndex * CURRENCIES.length + currency.ordinal();
+                Arrays.fill(minorUnits, slot * letters.length, (slot + 1) * letters.length, MISSING);
+                Map<String, Double> byLetter = document.getCurrencies() != null
+                        ? document.getCurrencies().get(currency.name())
+                        : null;
+                if (byLetter == null) {
+                    rates[slot] = null;
+                    continue;
+                }
+                Map<String, Double> slotRates = new LinkedHashMap<>();
+                byLetter.forEach((letter, amount) -> {
+                    if (letter != null && amount != null) {
+                        long value = toMinorUnits(amount);
+                        minorUnits[slot * letters.length + Arrays.binarySearch(letters, letter)] = value;
+                        slotRates.put(letter, toAmount(value));
+                    }
+                });
+                rates[slot] = Collections.unmodifiableMap(slotRates);
+            }
+        }
+        return new TariffTable(first, years, letters, minorUnits, rates);
+    }
+
+    /**
+     * @return {@code true} if a tariffs document exists for {@code year}
+     */
+    public boolean hasYear(int year) {
+        int index = year - firstYear;
+        return index >= 0 && index < years.length && years[index];
+    }
+
+    /**
+     * @return the most recent year with tariffs, or {@code -1} if the table is empty
+     */
+    public int latestYear() {
+        return firstYear + years.length - 1;
+    }
+
+    /**
+     * @return the rate in minor units of {@code currency}, or {@link #MISSING}
+     */
+    public long minorUnits(int year, Currency currency, String letter) {
+        int slot = slot(year, currency);
+        if (slot < 0 || letter == null) {
+            return MISSING;
+        }
+        int letterIndex = Arrays.binarySearch(letters, letter);
+        return letterIndex < 0 ? MISSING : minorUnits[slot * letters.length + letterIndex];
+    }
+
+    /**
+     * @return the position of {@code letter} among the compiled letter codes, or {@code -1}
+     */
+    public int letterIndex(String letter) {
+        if (letter == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(letters, letter);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * @return the latest year up to {@code year} with {@code currency} rates, i.e. the tariff in
+     * force that year, or {@code -1} if there is none. Years after the last table resolve to it.
+     */
+    public int yearInForce(int year, Currency currency) {
+        int yearIndex = Math.min(year - firstYear, years.length - 1);
+        return yearIndex < 0 ? -1 : inForce[yearIndex * CURRENCIES.length + currency.ordinal()];
+    }
+
+    /**
+     * @return the year whose {@code currency} rates are in force now, i.e. the tariff in force in
+     * {@link #latestYear()}, or {@code -1} if there is none
+     */
+    public int currentYear(Currency currency) {
+        return yearInForce(latestYear(), currency);
+    }
+
+    /**
+     * Prices {@code years.length} items in one pass: {@code out[i]} is the {@code currency} rate of
+     * letter {@code letterIndexes[i]} in year {@code years[i]}, or {@link #MISSING} if either index
+     * is unknown. Allocates nothing.
+     *
+     * @param years         tariff years, typically from {@link #yearInForce(int, Currency)}
+     * @param letterIndexes letter positions from {@link #letterIndex(String)}
+     */
+    public void price(Currency currency, int[] years, int[] letterIndexes, long[] out) {
+        int stride = letters.length;
+        for (int i = 0; i < years.length; i++) {
+            int slot = slot(years[i], currency);
+            int letterIndex = letterIndexes[i];
+            out[i] = slot < 0 || letterIndex < 0 ? MISSING : minorUnits[slot * stride + letterIndex];
+        }
+    }
+
+    /**
+     * @return an unmodifiable letter → amount map in document order, or {@code null} if there are
+     * no {@code currency} tariffs for {@code year}
+     */
+    public Map<String, Double> rates(int year, Currency currency) {
+        int slot = slot(year, currency);
+        return slot < 0 ? null : rates[slot];
+    }
+
+    /**
+     * @return {@code minorUnits} as an amount in major units, e.g. {@code 2400 → 24.0}
+     */
+    public static double toAmount(long minorUnits) {
+        return minorUnits / 100.0;
+    }
+
+    private int slot(int year, Currency currency) {
+        return hasYear(year) ? (year - firstYear) * CURRENCIES.length + currency.ordinal() : -1;
+    }
+
+    private static long toMinorUnits(double amount) {
+        return BigDecimal.valueOf(amount).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
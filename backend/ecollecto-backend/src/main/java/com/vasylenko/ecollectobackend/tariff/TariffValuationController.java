@@ -0,0 +1,64 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import com.vasylenko.ecollectobackend.dto.ErrorResponse;
+import com.vasylenko.ecollectobackend.dto.TariffValuationDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for valuing sets of stamps against the postal tariffs.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+@RequestMapping("/api/tariffs")
+@Tag(name = "Tariffs", description = "Tariff lookup endpoints.")
+public class TariffValuationController {
+
+    private final TariffValuationService tariffValuationService;
+    private final CurrentUserService currentUserService;
+
+    /**
+     * POST /api/tariffs/valuate
+     * <p>
+     * Returns the current and historical face value of each requested stamp, plus totals per
+     * currency. Public for explicit stamp ids; valuing the caller's collection requires a JWT.
+     * </p>
+     *
+     * @param request the stamp ids to value, or {@code collection: true}
+     * @return {@link ResponseEntity} containing a {@link TariffValuationDto}
+     */
+    @PostMapping("/valuate")
+    @Operation(summary = "Value stamps",
+            description = "Value a list of stamps (up to " + TariffValuationService.MAX_STAMP_IDS + ") or, with "
+                    + "collection=true and a Bearer JWT, the caller's whole collection. Letter-coded denominations "
+                    + "are priced at the latest UAH tariff and at the tariff in force in the stamp's release year.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stamps valued.",
+                    content = @Content(schema = @Schema(implementation = TariffValuationDto.class))),
+            @ApiResponse(responseCode = "400", description = "No stamp ids, or too many.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "collection=true without a valid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Server error.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<TariffValuationDto> valuate(@RequestBody TariffValuationRequest request) {
+        if (request.isCollection()) {
+            String userId = currentUserService.findCurrentUserId()
+                    .orElseThrow(() -> new AuthenticationCredentialsNotFoundException("Sign in to value your collection"));
+            return ResponseEntity.ok(tariffValuationService.valuateCollection(userId));
+        }
+        return ResponseEntity.ok(tariffValuationService.valuateStamps(request.getStampIds()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(description = "Stamps to value: explicit ids, or the authenticated user's whole collection.")
+public class TariffValuationRequest {
+
+    @Schema(description = "Stamp IDs to value, at most " + TariffValuationService.MAX_STAMP_IDS
+            + ". Ignored when collection is true.", example = "[\"s1974\", \"s2001\"]")
+    private List<String> stampIds;
+
+    @Schema(description = "Value the authenticated user's collection instead of stampIds; requires a Bearer JWT.",
+            defaultValue = "false")
+    private boolean collection;
+}
@@ -0,0 +1,162 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.collection.CollectionItemDto;
+import com.vasylenko.ecollectobackend.collection.CollectionService;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.common.model.Currency;
+import com.vasylenko.ecollectobackend.dto.StampValuationDto;
+import com.vasylenko.ecollectobackend.dto.TariffValuationDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Values sets of stamps at the current tariff and at the tariff in force when each was issued.
+ *
+ * <p>Stamps come from the in-memory {@link StampCatalog} and rates from the compiled
+ * {@link TariffTable}, so valuing even a whole collection does no I/O beyond reading the
+ * collection's stamp ids. Denominations are parsed and resolved to letter and year indexes once
+ * per stamp; both valuations are then single passes of {@link TariffTable#price} over primitive
+ * arrays rather than one lookup call per stamp.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TariffValuationService {
+
+    static final int MAX_STAMP_IDS = 10_000;
+
+    /** Letter codes are priced in the domestic tariff, as for collection statistics. */
+    private static final Currency LETTER_CURRENCY = Currency.UAH;
+
+    private final StampCatalog stampCatalog;
+    private final TariffCatalog tariffCatalog;
+    private final CollectionService collectionService;
+
+    /**
+     * @throws BadRequestException if {@code stampIds} is empty or longer than {@link #MAX_STAMP_IDS}
+     */
+    public TariffValuationDto valuateStamps(List<String> stampIds) {
+        if (stampIds == null || stampIds.isEmpty()) {
+            throw new BadRequestException("stampIds must not be empty");
+        }
+        if (stampIds.size() > MAX_STAMP_IDS) {
+            throw new BadRequestException("At most " + MAX_STAMP_IDS + " stamps can be valued at once");
+        }
+        return valuate(stampIds);
+    }
+
+    /**
+     * Values every stamp in the user's collection.
+     */
+    public TariffValuationDto valuateCollection(String userId) {
+        return valuate(collectionService.getCollection(userId).stream()
+                .map(CollectionItemDto::getStampId)
+                .toList());
+    }
+
+    TariffValuationDto valuate(List<String> stampIds) {
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        TariffTable tariffs = tariffCatalog.table();
+        int currentYear = tariffs.currentYear(LETTER_CURRENCY);
+        int count = stampIds.size();
+
+        StampDocument.Denomination[] denominations = new StampDocument.Denomination[count];
+        DenominationCode[] codes = new DenominationCode[count];
+        int[] letterIndexes = new int[count];
+        int[] currentYears = new int[count];
+        int[] historicalYears = new int[count];
+        for (int i = 0; i < count; i++) {
+            StampDocument document = catalog.findDocumentById(stampIds.get(i)).orElse(null);
+            StampDocument.Denomination denomination = document != null && document.getMeta() != null
+                    ? document.getMeta().getDenomination()
+                    : null;
+            DenominationCode code = denomination != null
+                    ? DenominationCode.parse(denomination.getCurrency(), denomination.getCode())
+                    : null;
+            Integer releaseYear = document != null && document.getRelease() != null
+                    ? document.getRelease().getYear()
+                    : null;
+            denominations[i] = denomination;
+            codes[i] = code;
+            letterIndexes[i] = code != null && code.isLetter() ? tariffs.letterIndex(code.letter()) : -1;
+            currentYears[i] = currentYear;
+            historicalYears[i] = releaseYear != null ? tariffs.yearInForce(releaseYear, LETTER_CURRENCY) : -1;
+        }
+
+        long[] currentRates = new long[count];
+        long[] historicalRates = new long[count];
+        tariffs.price(LETTER_CURRENCY, currentYears, letterIndexes, currentRates);
+        tariffs.price(LETTER_CURRENCY, historicalYears, letterIndexes, historicalRates);
+
+        List<StampValuationDto> stamps = new ArrayList<>(count);
+        Map<String, Long> currentTotal = new TreeMap<>();
+        Map<String, Long> historicalTotal = new TreeMap<>();
+        long unvalued = 0;
+        for (int i = 0; i < count; i++) {
+            DenominationCode code = codes[i];
+            StampValuationDto.StampValuationDtoBuilder stamp = StampValuationDto.builder()
+                    .stampId(stampIds.get(i))
+                    .denomination(denominations[i] != null ? denominations[i].getCode() : null);
+            long current = TariffTable.MISSING;
+            long historical = TariffTable.MISSING;
+            String currency = null;
+            if (code != null && !code.isLetter()) {
+                currency = code.currency();
+                current = code.minorUnits();
+                historical = code.minorUnits();
+            } else if (code != null) {
+                currency = LETTER_CURRENCY.name();
+                current = plusSurcharge(currentRates[i], code);
+                historical = plusSurcharge(historicalRates[i], code);
+                if (historical != TariffTable.MISSING) {
+                    stamp.historicalTariffYear(historicalYears[i]);
+                }
+            }
+
+            if (current != TariffTable.MISSING) {
+                stamp.currentValue(toAmount(current));
+                currentTotal.merge(currency, current, Long::sum);
+            } else {
+                unvalued++;
+            }
+            if (historical != TariffTable.MISSING) {
+                stamp.historicalValue(toAmount(historical));
+                historicalTotal.merge(currency, historical, Long::sum);
+            }
+            if (current != TariffTable.MISSING || historical != TariffTable.MISSING) {
+                stamp.currency(currency);
+            }
+            stamps.add(stamp.build());
+        }
+
+        return TariffValuationDto.builder()
+                .tariffYear(currentYear >= 0 ? currentYear : null)
+                .stamps(stamps)
+                .currentTotal(toAmounts(currentTotal))
+                .historicalTotal(toAmounts(historicalTotal))
+                .unvalued(unvalued)
+                .build();
+    }
+
+    private static long plusSurcharge(long rate, DenominationCode code) {
+        return rate == TariffTable.MISSING ? TariffTable.MISSING : rate + code.minorUnits();
+    }
+
+    private static Map<String, BigDecimal> toAmounts(Map<String, Long> totals) {
+        Map<String, BigDecimal> amounts = new TreeMap<>();
+        totals.forEach((currency, minorUnits) -> amounts.put(currency, toAmount(minorUnits)));
+        return amounts;
+    }
+
+    private static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, 2);
+    }
+}
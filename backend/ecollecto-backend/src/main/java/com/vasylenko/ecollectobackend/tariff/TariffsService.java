@@ -14,7 +14,8 @@ import java.util.stream.Collectors;
 
 /**
  * Handles the retrieval of year-specific tariffs and provides granular access to
- * currency-based and letter-based rates.
+ * currency-based and letter-based rates. Currency and letter lookups are answered from the
+ * compiled {@link TariffTable} held by {@link TariffCatalog}, without querying MongoDB.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,6 +23,7 @@ import java.util.stream.Collectors;
 public class TariffsService {
     private final TariffsRepository repository;
     private final TariffsMapper tariffsMapper;
+    private final TariffCatalog tariffCatalog;
 
     /**
      * Retrieves all tariff documents and converts them to DTOs.
@@ -55,13 +57,12 @@ public class TariffsService {
      * @param year     The year of the tariff.
      * @param currency The {@link Currency} (e.g., UAH, USD).
      * @return An {@link Optional} containing the map of tariffs, or empty if not found.
+     * @throws NotFoundException if no tariffs exist for the specified year.
      */
     public Optional<Map<String, Double>> getTariffsByCurrency(
             Integer year,
             Currency currency) {
-        Optional<Map<String, Double>> tariffs = Optional.ofNullable(getByYear(year))
-                .map(TariffsDocument::getCurrencies)
-                .map(currencies -> currencies.get(currency.name()));
+        Optional<Map<String, Double>> tariffs = Optional.ofNullable(tableFor(year).rates(year, currency));
         if (tariffs.isEmpty()) {
             log.warn("Tariffs not found for year: {} and currency: {}", year, currency);
         }
@@ -75,16 +76,26 @@ public class TariffsService {
      * @param currency The {@link Currency}.
      * @param letter   The postal letter code (e.g., "A", "W").
      * @return An {@link Optional} containing the specific price as a {@link Double}.
+     * @throws NotFoundException if no tariffs exist for the specified year.
      */
     public Optional<Double> getTariffByLetter(
             Integer year,
             Currency currency,
             String letter) {
-        Optional<Double> tariff = getTariffsByCurrency(year, currency)
-                .map(tariffs -> tariffs.get(letter));
-        if (tariff.isEmpty()) {
+        long minorUnits = tableFor(year).minorUnits(year, currency, letter);
+        if (minorUnits == TariffTable.MISSING) {
             log.warn("Tariff not found for year: {}, currency: {}, letter: {}", year, currency, letter);
+            return Optional.empty();
+        }
+        return Optional.of(TariffTable.toAmount(minorUnits));
+    }
+
+    private TariffTable tableFor(Integer year) {
+        TariffTable table = tariffCatalog.table();
+        if (year == null || !table.hasYear(year)) {
+            log.warn("Tariffs not found for year: {}", year);
+            throw new NotFoundException("Tariffs not found for year " + year);
         }
-        return tariff;
+        return table;
     }
 }
@@ -9,11 +9,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/me")
 @Tag(name = "User", description = "User profile endpoints (protected - requires Bearer JWT).")
 public class UserController {
@@ -29,7 +31,7 @@ public class UserController {
     @GetMapping
     @Operation(
             summary     = "Get user profile",
-            description = "Returns the authenticated user's profile. Creates the profile on first call if one does not yet exist.",
+            description = "Returns the authenticated user's profile. Creates the profile on first call if one does not yet exist, and keeps email and name in sync with the token.",
             security    = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses({
@@ -44,7 +46,8 @@ public class UserController {
     })
     public UserDto getProfile() {
         String userId = currentUserService.getCurrentUserId();
-        return userService.getOrCreateProfile(userId);
+        return userService.getOrCreateProfile(userId,
+                currentUserService.getCurrentUserEmail(), currentUserService.getCurrentUserName());
     }
 }
 
@@ -1,33 +1,156 @@
 package com.vasylenko.ecollectobackend.user;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
+/**
+ * Resolves the caller's profile in {@code users}, creating it on first access.
+ *
+ * <p>Profiles are kept per subject for {@code app.users.profile-cache.ttl}, so repeated
+ * {@code /api/me} calls do not touch MongoDB. A miss is one atomic {@code findAndModify} upsert
+ * whose {@code $setOnInsert} creates the document with the token's email and name; parallel
+ * first-login requests therefore converge on a single document instead of racing a find and a
+ * save. When the token's email or name differ from the stored ones (the user edited them in
+ * Keycloak), a second update syncs them. A cached profile is also bypassed as soon as the token
+ * carries different claims, and {@link #evictProfile} / {@link #evictAllProfiles} drop entries
+ * explicitly.</p>
+ */
 @Service
 public class UserService {
 
-    private final UserRepository userRepository;
+    static final String USERS_COLLECTION = "users";
 
-    public UserService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private record CachedProfile(UserDto profile, long expiresAtNanos) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoTime;
+    private final Map<String, CachedProfile> profiles = new ConcurrentHashMap<>();
+
+    public UserService(MongoTemplate mongoTemplate,
+                       @Value("${app.users.profile-cache.ttl:PT5M}") Duration ttl,
+                       @Value("${app.users.profile-cache.max-entries:10000}") int maxEntries) {
+        this(mongoTemplate, ttl, maxEntries, System::nanoTime);
+    }
+
+    UserService(MongoTemplate mongoTemplate, Duration ttl, int maxEntries, LongSupplier nanoTime) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the user's profile, creating it on first access and syncing email and name from the
+     * token when they have changed.
+     *
+     * @param keycloakSub Keycloak JWT subject (UUID)
+     * @param email       {@code email} claim, or {@code null} if the token has none
+     * @param name        {@code name} claim, or {@code null} if the token has none
+     */
+    public UserDto getOrCreateProfile(String keycloakSub, String email, String name) {
+        CachedProfile cached = profiles.get(keycloakSub);
+        if (cached != null && nanoTime.getAsLong() - cached.expiresAtNanos() < 0
+                && matchesClaims(cached.profile(), email, name)) {
+            return cached.profile();
+        }
+        UserDto profile = toDto(upsert(keycloakSub, email, name));
+        if (maxEntries > 0) {
+            if (profiles.size() >= maxEntries && !profiles.containsKey(keycloakSub)) {
+                makeRoom();
+            }
+            profiles.put(keycloakSub, new CachedProfile(profile, nanoTime.getAsLong() + ttlNanos));
+        }
+        return profile;
+    }
+
+    /**
+     * Drops the cached profile of one user; the next lookup reads MongoDB.
+     */
+    public void evictProfile(String keycloakSub) {
+        profiles.remove(keycloakSub);
     }
 
     /**
-     * Returns an existing user profile or creates a new one on first access.
-     * The keycloakSub is the Keycloak JWT subject (UUID).
+     * Drops every cached profile, e.g. after profiles were edited directly in MongoDB.
      */
-    public UserDto getOrCreateProfile(String keycloakSub) {
-        return userRepository.findById(keycloakSub)
-                .map(this::toDto)
-                .orElseGet(() -> {
-                    UserDocument doc = new UserDocument();
-                    doc.setId(keycloakSub);
-                    doc.setCreatedAt(Instant.now());
-                    doc.setUpdatedAt(Instant.now());
-                    UserDocument saved = userRepository.save(doc);
-                    return toDto(saved);
-                });
+    public void evictAllProfiles() {
+        profiles.clear();
+    }
+
+    private UserDocument upsert(String keycloakSub, String email, String name) {
+        Query query = Query.query(Criteria.where("_id").is(keycloakSub));
+        Instant now = Instant.now();
+        Update create = new Update()
+                .setOnInsert("email", email)
+                .setOnInsert("name", name)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("updatedAt", now);
+        UserDocument document;
+        try {
+            document = findAndModify(query, create, true);
+        } catch (DuplicateKeyException e) {
+            // Two upserts for a new _id raced and the server did not retry the loser: the document exists now.
+            document = findAndModify(query, create, true);
+        }
+        if (!needsSync(document, email, name)) {
+            return document;
+        }
+        Update sync = new Update().set("updatedAt", now);
+        if (email != null) {
+            sync.set("email", email);
+        }
+        if (name != null) {
+            sync.set("name", name);
+        }
+        UserDocument synced = findAndModify(query, sync, false);
+        return synced != null ? synced : document;
+    }
+
+    private UserDocument findAndModify(Query query, Update update, boolean upsert) {
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(upsert).returnNew(true),
+                UserDocument.class, USERS_COLLECTION);
+    }
+
+    /** Claims absent from the token never overwrite stored values. */
+    private static boolean needsSync(UserDocument document, String email, String name) {
+        return (email != null && !email.equals(document.getEmail()))
+                || (name != null && !name.equals(document.getName()));
+    }
+
+    private static boolean matchesClaims(UserDto profile, String email, String name) {
+        return (email == null || Objects.equals(email, profile.getEmail()))
+                && (name == null || Objects.equals(name, profile.getName()));
+    }
+
+    /** Purges expired profiles and, if still full, an arbitrary eighth of the rest. */
+    private void makeRoom() {
+        long now = nanoTime.getAsLong();
+        profiles.values().removeIf(profile -> now - profile.expiresAtNanos() >= 0);
+        int excess = profiles.size() - (maxEntries - 1 - maxEntries / 8);
+        Iterator<CachedProfile> iterator = profiles.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            excess--;
+        }
     }
 
     private UserDto toDto(UserDocument doc) {
@@ -38,4 +161,3 @@ public class UserService {
                 .build();
     }
 }
-
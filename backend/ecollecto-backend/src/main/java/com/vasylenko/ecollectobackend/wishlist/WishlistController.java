@@ -1,6 +1,8 @@
 package com.vasylenko.ecollectobackend.wishlist;
 
 import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import com.vasylenko.ecollectobackend.common.userlist.StampIdsBatchRequest;
+import com.vasylenko.ecollectobackend.dto.BatchResultDto;
 import com.vasylenko.ecollectobackend.dto.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -12,6 +14,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/me/wishlist")
 @RequiredArgsConstructor
 @Tag(name = "Wishlist", description = "User wishlist endpoints (protected - requires Bearer JWT).")
@@ -81,6 +85,46 @@ public class WishlistController {
         wishlistService.removeItem(userId, stampId);
         return ResponseEntity.noContent().build();
     }
-}
 
+    @PostMapping("/items:batch")
+    @Operation(summary = "Add several to wishlist",
+            description = "Adds up to " + StampIdsBatchRequest.MAX_ITEMS + " stamps to the authenticated user's wishlist "
+                    + "in one unordered bulk write. Each stamp is reported as CREATED, DUPLICATE or NOT_FOUND (unknown stamp).",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "207", description = "Per-stamp results, in request order.",
+                    content = @Content(schema = @Schema(implementation = BatchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResultDto> addBatchToWishlist(@Valid @RequestBody StampIdsBatchRequest request) {
+        String userId = currentUserService.getCurrentUserId();
+        BatchResultDto result = new BatchResultDto(wishlistService.addItems(userId, request.getStampIds()));
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+    }
 
+    @DeleteMapping("/items:batch")
+    @Operation(summary = "Remove several from wishlist",
+            description = "Removes up to " + StampIdsBatchRequest.MAX_ITEMS + " stamps from the authenticated user's wishlist "
+                    + "in one unordered bulk write. Each stamp is reported as DELETED or NOT_FOUND.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "207", description = "Per-stamp results, in request order.",
+                    content = @Content(schema = @Schema(implementation = BatchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Missing or invalid JWT token.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions.",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<BatchResultDto> removeBatchFromWishlist(@Valid @RequestBody StampIdsBatchRequest request) {
+        String userId = currentUserService.getCurrentUserId();
+        BatchResultDto result = new BatchResultDto(wishlistService.removeItems(userId, request.getStampIds()));
+        return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result);
+    }
+}
@@ -1,52 +1,50 @@
 package com.vasylenko.ecollectobackend.wishlist;
 
-import com.vasylenko.ecollectobackend.common.exception.ConflictException;
-import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
-import lombok.RequiredArgsConstructor;
-import org.springframework.dao.DuplicateKeyException;
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.popularity.PopularityList;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
 
+/**
+ * The authenticated user's wishlist ({@code user_wishlists}); see {@link UserListService}.
+ */
 @Service
-@RequiredArgsConstructor
-public class WishlistService {
+public class WishlistService extends UserListService<WishlistItemDto> {
 
-    private final WishlistRepository wishlistRepository;
+    private final StampPopularityService stampPopularityService;
+
+    public WishlistService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                           StampStatesService stampStatesService,
+                           StampPopularityService stampPopularityService) {
+        super(mongoTemplate, stampCatalog, stampStatesService, WishlistItemDocument.class, "on your wishlist");
+        this.stampPopularityService = stampPopularityService;
+    }
 
     public List<WishlistItemDto> getWishlist(String userId) {
-        return wishlistRepository.findByUserId(userId)
-                .stream()
-                .map(this::toDto)
-                .toList();
+        return findAll(userId);
     }
 
-    public WishlistItemDto addItem(String userId, String stampId) {
-        WishlistItemDocument doc = new WishlistItemDocument();
-        doc.setUserId(userId);
-        doc.setStampId(stampId);
-        doc.setAddedAt(Instant.now());
-        try {
-            WishlistItemDocument saved = wishlistRepository.save(doc);
-            return toDto(saved);
-        } catch (DuplicateKeyException e) {
-            throw new ConflictException("Stamp '" + stampId + "' is already on your wishlist.");
-        }
+    @Override
+    protected void onAdded(String userId, List<String> stampIds) {
+        stampPopularityService.record(PopularityList.WISHED, stampIds, 1);
     }
 
-    public void removeItem(String userId, String stampId) {
-        WishlistItemDocument doc = wishlistRepository.findByUserIdAndStampId(userId, stampId)
-                .orElseThrow(() -> new NotFoundException(
-                        "Stamp '" + stampId + "' is not on your wishlist."));
-        wishlistRepository.delete(doc);
+    @Override
+    protected void onRemoved(String userId, List<String> stampIds) {
+        stampPopularityService.record(PopularityList.WISHED, stampIds, -1);
     }
 
-    private WishlistItemDto toDto(WishlistItemDocument doc) {
+    @Override
+    protected WishlistItemDto toDto(String stampId, Instant addedAt) {
         return WishlistItemDto.builder()
-                .stampId(doc.getStampId())
-                .addedAt(doc.getAddedAt())
+                .stampId(stampId)
+                .addedAt(addedAt)
                 .build();
     }
 }
-
@@ -0,0 +1,208 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.DeleteResult;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.stamp.popularity.PopularityList;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String COLLECTION = "user_collections";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    @Mock
+    private StampStatesService stampStatesService;
+
+    @Mock
+    private CollectionStatsService collectionStatsService;
+
+    @Mock
+    private StampPopularityService stampPopularityService;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private CollectionService collectionService;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(CollectionItemDocument.class)).thenReturn(COLLECTION);
+        collectionService = new CollectionService(mongoTemplate, stampCatalog, stampStatesService,
+                collectionStatsService, stampPopularityService);
+    }
+
+    @Test
+    void addItem_shouldCountTheStampInStatistics() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+
+        collectionService.addItem(USER_ID, "s1");
+
+        InOrder order = inOrder(collectionStatsService, collection);
+        order.verify(collectionStatsService).beginWrite(USER_ID);
+        order.verify(collection).insertOne(any(Document.class));
+        order.verify(collectionStatsService).apply(USER_ID, List.of("s1"), 1);
+        verify(stampPopularityService).record(PopularityList.COLLECTED, List.of("s1"), 1);
+    }
+
+    @Test
+    void removeItem_shouldUncountTheStampInStatistics() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.deleteOne(any())).thenReturn(DeleteResult.acknowledged(1));
+
+        collectionService.removeItem(USER_ID, "s1");
+
+        verify(collectionStatsService).apply(USER_ID, List.of("s1"), -1);
+        verify(stampPopularityService).record(PopularityList.COLLECTED, List.of("s1"), -1);
+    }
+
+    @Test
+    void removeItem_shouldEndPendingWriteWithoutChangesWhenNothingWasRemoved() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.deleteOne(any())).thenReturn(DeleteResult.acknowledged(0));
+
+        assertThatThrownBy(() -> collectionService.removeItem(USER_ID, "s1")).isInstanceOf(NotFoundException.class);
+        verify(collectionStatsService).beginWrite(USER_ID);
+        verify(collectionStatsService).apply(USER_ID, List.of(), -1);
+    }
+
+    @Test
+    void getCollectionPage_shouldJoinCatalogNewestFirstByDefault() {
+        stubCatalog();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(List.of(
+                item("s4", 4), item("s3", 3), item("s2", 2), item("s1", 1)));
+
+        CollectionPageDto page = collectionService.getCollectionPage(USER_ID, null, null, null, null);
+
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getItems()).extracting(CollectionStampDto::getStampId).containsExactly("s4", "s3", "s2", "s1");
+        assertThat(page.getItems().get(1).getStamp().getName()).isEqualTo("Stamp s3");
+        assertThat(page.getItems().getFirst().getStamp()).isNull();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq(COLLECTION));
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("addedAt", -1).append("stampId", -1));
+        assertThat(query.getValue().getLimit()).isEqualTo(CollectionService.DEFAULT_LIMIT);
+        verify(mongoTemplate, never()).count(any(Query.class), eq(COLLECTION));
+    }
+
+    @Test
+    void getCollectionPage_shouldPageByAddedAtOnTheServerAndCountTheRest() {
+        stubCatalog();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(List.of(
+                item("s2", 2), item("s3", 3)));
+        when(mongoTemplate.count(any(Query.class), eq(COLLECTION))).thenReturn(4L);
+
+        CollectionPageDto page = collectionService.getCollectionPage(USER_ID, "addedAt", "asc", 1, 2);
+
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getItems()).extracting(CollectionStampDto::getStampId).containsExactly("s2", "s3");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq(COLLECTION));
+        assertThat(query.getValue().getSkip()).isEqualTo(1);
+        assertThat(query.getValue().getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void getCollectionPage_shouldSortByYearAndPage() {
+        stubCollection();
+
+        CollectionPageDto page = collectionService.getCollectionPage(USER_ID, "year", "desc", 1, 2);
+
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getItems()).extracting(CollectionStampDto::getStampId).containsExactly("s2", "s1");
+    }
+
+    @Test
+    void getCollectionPage_shouldSortByCurrencyThenFaceValue() {
+        stubCollection();
+
+        CollectionPageDto page = collectionService.getCollectionPage(USER_ID, "denomination", null, null, null);
+
+        assertThat(page.getItems()).extracting(CollectionStampDto::getStampId).containsExactly("s2", "s3", "s1", "s4");
+    }
+
+    @Test
+    void getCollectionPage_shouldRejectUnknownSort() {
+        assertThatThrownBy(() -> collectionService.getCollectionPage(USER_ID, "price", null, null, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getCollectionPage_shouldRejectNegativeOffset() {
+        assertThatThrownBy(() -> collectionService.getCollectionPage(USER_ID, null, null, -1, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    /**
+     * s1 (UAK 0.15, 1992), s2 (UAH 2.00, 2001), s3 (UAH 10, 2024) and s4, which left the catalog;
+     * added in id order.
+     */
+    private void stubCollection() {
+        stubCatalog();
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(List.of(
+                item("s1", 1), item("s2", 2), item("s3", 3), item("s4", 4)));
+    }
+
+    private void stubCatalog() {
+        List<StampDocument> documents = List.of(
+                stamp("s1", "UAK", "0.15", 1992), stamp("s2", "UAH", "2.00", 2001), stamp("s3", "UAH", "10", 2024));
+        List<StampDto> stamps = documents.stream()
+                .map(document -> StampDto.builder().stampId(document.getId()).name("Stamp " + document.getId()).build())
+                .toList();
+        when(stampCatalog.snapshot()).thenReturn(StampCatalogSnapshot.of(1, documents, stamps));
+    }
+
+    private static Document item(String stampId, long addedAt) {
+        return new Document("stampId", stampId).append("addedAt", new Date(addedAt));
+    }
+
+    private static StampDocument stamp(String id, String currency, String code, int year) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        StampDocument.Denomination denomination = new StampDocument.Denomination();
+        denomination.setCurrency(currency);
+        denomination.setCode(code);
+        StampDocument.Meta meta = new StampDocument.Meta();
+        meta.setDenomination(denomination);
+        document.setMeta(meta);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,279 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffCatalog;
+import com.vasylenko.ecollectobackend.tariff.TariffTable;
+import com.vasylenko.ecollectobackend.tariff.TariffsDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffsRepository;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CollectionStatsServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String SERIES = "Україна. Незалежність";
+    private static final String ITEMS_COLLECTION = "user_collections";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    @Mock
+    private DesignerNameResolver designerNameResolver;
+
+    @Mock
+    private TariffsRepository tariffsRepository;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private CollectionStatsService collectionStatsService;
+
+    @BeforeEach
+    void setUp() {
+        collectionStatsService = new CollectionStatsService(
+                mongoTemplate, stampCatalog, designerNameResolver, new TariffCatalog(tariffsRepository), false,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+        List<StampDocument> documents = List.of(
+                stamp("s1", 1992, SERIES, "UAK", "0.15"),
+                stamp("s2", 1992, SERIES, "UAH", "1,50"),
+                stamp("s3", 2024, "", "non-denominated stamp", "F+8.00"));
+        List<StampDto> stamps = documents.stream().map(document -> StampDto.builder().stampId(document.getId()).build()).toList();
+        when(stampCatalog.snapshot()).thenReturn(StampCatalogSnapshot.of(1, documents, stamps));
+    }
+
+    @Test
+    void apply_shouldUpsertOneIncrementForAllStamps() {
+        stubTariffs();
+
+        collectionStatsService.apply(USER_ID, List.of("s1", "s3"), 1);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CollectionStatsService.STATS_COLLECTION));
+        Document increments = update.getValue().getUpdateObject().get("$inc", Document.class);
+        assertThat(increments)
+                .containsEntry("total", 2L)
+                .containsEntry("years.1992", 1L)
+                .containsEntry("years.2024", 1L)
+                .containsEntry("series." + CollectionStatsService.hashKey(SERIES), 1L)
+                .containsEntry("designers.d1", 2L)
+                .containsEntry("faceValue.UAK", 15L)
+                .containsEntry("faceValue.UAH", 5600L)
+                .doesNotContainKey("unvalued")
+                .containsEntry(CollectionStatsService.VERSION, 1)
+                .containsEntry(CollectionStatsService.PENDING, -1);
+    }
+
+    @Test
+    void beginWrite_shouldMarkWritePendingAndBumpVersion() {
+        collectionStatsService.beginWrite(USER_ID);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CollectionStatsService.STATS_COLLECTION));
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry(CollectionStatsService.PENDING, 1)
+                .containsEntry(CollectionStatsService.VERSION, 1);
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+                .containsKey(CollectionStatsService.PENDING_AT);
+    }
+
+    @Test
+    void apply_shouldSubtractOnRemoval() {
+        stubTariffs();
+
+        collectionStatsService.apply(USER_ID, List.of("s2"), -1);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(CollectionStatsService.STATS_COLLECTION));
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class))
+                .containsEntry("total", -1L)
+                .containsEntry("faceValue.UAH", -150L);
+    }
+
+    @Test
+    void rebuildAll_shouldRecomputeUserWhoseStatisticsChangedDuringTheRebuild() {
+        when(mongoTemplate.getCollectionName(CollectionItemDocument.class)).thenReturn(ITEMS_COLLECTION);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(ITEMS_COLLECTION)))
+                .thenReturn(Stream.of(new Document("userId", USER_ID)));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(CollectionStatsService.STATS_COLLECTION)))
+                .thenReturn(Stream.empty());
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(CollectionStatsService.STATS_COLLECTION)))
+                .thenReturn(List.of(new Document("_id", USER_ID).append(CollectionStatsService.VERSION, 3L)),
+                        List.of(new Document("_id", USER_ID).append(CollectionStatsService.VERSION, 4L)));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(ITEMS_COLLECTION)))
+                .thenReturn(List.of(new Document("userId", USER_ID).append("stampId", "s1")));
+        when(mongoTemplate.getCollection(CollectionStatsService.STATS_COLLECTION)).thenReturn(collection);
+        MongoBulkWriteException conflict = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenThrow(conflict)
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 1, List.of(), List.of()));
+
+        assertThat(collectionStatsService.rebuildAll()).hasValue(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection, times(2)).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        Document replacement = ((ReplaceOneModel<Document>) writes.getAllValues().get(1).getFirst()).getReplacement();
+        assertThat(replacement)
+                .containsEntry(CollectionStatsService.VERSION, 5L)
+                .containsEntry("total", 1L);
+    }
+
+    @Test
+    void rebuildAll_shouldWaitForPendingWriteBeforeReplacing() {
+        when(mongoTemplate.getCollectionName(CollectionItemDocument.class)).thenReturn(ITEMS_COLLECTION);
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(ITEMS_COLLECTION)))
+                .thenReturn(Stream.of(new Document("userId", USER_ID)));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq(CollectionStatsService.STATS_COLLECTION)))
+                .thenReturn(Stream.empty());
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(CollectionStatsService.STATS_COLLECTION)))
+                .thenReturn(List.of(new Document("_id", USER_ID).append(CollectionStatsService.VERSION, 3L)
+                                .append(CollectionStatsService.PENDING, 1L)
+                                .append(CollectionStatsService.PENDING_AT, new Date())),
+                        List.of(new Document("_id", USER_ID).append(CollectionStatsService.VERSION, 4L)
+                                .append(CollectionStatsService.PENDING, 0L)
+                                .append(CollectionStatsService.PENDING_AT, new Date())));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(ITEMS_COLLECTION)))
+                .thenReturn(List.of(new Document("userId", USER_ID).append("stampId", "s1")));
+        when(mongoTemplate.getCollection(CollectionStatsService.STATS_COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 1, List.of(), List.of()));
+
+        assertThat(collectionStatsService.rebuildAll()).hasValue(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Document.class), eq(ITEMS_COLLECTION));
+        assertThat(((ReplaceOneModel<Document>) writes.getValue().getFirst()).getReplacement())
+                .containsEntry(CollectionStatsService.VERSION, 5L)
+                .containsEntry(CollectionStatsService.PENDING, 0L);
+    }
+
+    @Test
+    void rebuildAll_shouldSkipWhileAnotherRebuildHoldsTheLease() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(CollectionStatsService.LEASE_COLLECTION)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        assertThat(collectionStatsService.rebuildAll()).isEmpty();
+
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Document.class), any(String.class));
+    }
+
+    @Test
+    void fingerprint_shouldNotDependOnLoadOrderOrSnapshotVersion() {
+        StampCatalogSnapshot catalog = stampCatalog.snapshot();
+        List<StampDocument> reversed = catalog.documents().reversed();
+        StampCatalogSnapshot reloaded = StampCatalogSnapshot.of(2, reversed, catalog.stamps().reversed());
+
+        assertThat(collectionStatsService.fingerprint(reloaded, TariffTable.EMPTY))
+                .isEqualTo(collectionStatsService.fingerprint(catalog, TariffTable.EMPTY));
+    }
+
+    @Test
+    void getStats_shouldJoinOwnedCountsWithCatalogTotals() {
+        String seriesKey = CollectionStatsService.hashKey(SERIES);
+        when(mongoTemplate.findById(USER_ID, Document.class, CollectionStatsService.STATS_COLLECTION)).thenReturn(
+                new Document("total", 1L)
+                        .append("years", new Document("1992", 1L).append("2024", 0L))
+                        .append("series", new Document(seriesKey, 1L))
+                        .append("designers", new Document("d1", 1L))
+                        .append("faceValue", new Document("UAH", 150L))
+                        .append("unvalued", 0L));
+        when(designerNameResolver.nameOf("d1")).thenReturn("Designer One");
+
+        CollectionStatsDto stats = collectionStatsService.getStats(USER_ID);
+
+        assertThat(stats.getOwned()).isEqualTo(1);
+        assertThat(stats.getCatalogSize()).isEqualTo(3);
+        assertThat(stats.getYears()).extracting(CollectionStatsGroupDto::getKey, CollectionStatsGroupDto::getOwned,
+                CollectionStatsGroupDto::getTotal).containsExactly(tuple("1992", 1L, 2L));
+        assertThat(stats.getSeries()).extracting(CollectionStatsGroupDto::getLabel, CollectionStatsGroupDto::getTotal)
+                .containsExactly(tuple(SERIES, 2L));
+        assertThat(stats.getDesigners()).extracting(CollectionStatsGroupDto::getLabel, CollectionStatsGroupDto::getTotal)
+                .containsExactly(tuple("Designer One", 3L));
+        assertThat(stats.getFaceValue()).containsEntry("UAH", new BigDecimal("1.50"));
+    }
+
+    @Test
+    void getStats_shouldReturnZerosForUserWithoutStatistics() {
+        CollectionStatsDto stats = collectionStatsService.getStats(USER_ID);
+
+        assertThat(stats.getOwned()).isZero();
+        assertThat(stats.getYears()).isEmpty();
+        assertThat(stats.getFaceValue()).isEmpty();
+    }
+
+    private void stubTariffs() {
+        TariffsDocument old = new TariffsDocument();
+        old.setYear(2024);
+        old.setCurrencies(Map.of("UAH", Map.of("F", 30.0)));
+        TariffsDocument current = new TariffsDocument();
+        current.setYear(2026);
+        current.setCurrencies(Map.of("UAH", Map.of("F", 48.0)));
+        when(tariffsRepository.findAll()).thenReturn(List.of(old, current));
+    }
+
+    private static StampDocument stamp(String id, int year, String series, String currency, String code) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        StampDocument.Denomination denomination = new StampDocument.Denomination();
+        denomination.setCurrency(currency);
+        denomination.setCode(code);
+        StampDocument.Meta meta = new StampDocument.Meta();
+        meta.setDenomination(denomination);
+        meta.setSeries(series);
+        meta.setDesignerIds(List.of("d1"));
+        document.setMeta(meta);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,76 @@
+package com.vasylenko.ecollectobackend.collection;
+
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffTable;
+import com.vasylenko.ecollectobackend.tariff.TariffsDocument;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FaceValueTest {
+
+    private static final TariffTable TARIFFS = TariffTable.compile(List.of(
+            tariffs(2024, Map.of("U", 15.0)),
+            tariffs(2026, Map.of("U", 24.0, "Є", 92.5))));
+
+    @Test
+    void shouldTakeNumericDenominationsAsPrinted() {
+        assertThat(FaceValue.of(denomination("UAH", "1,50"), TARIFFS)).isEqualTo(new FaceValue("UAH", 150));
+        assertThat(FaceValue.of(denomination("UAK", "0.15"), TARIFFS)).isEqualTo(new FaceValue("UAK", 15));
+    }
+
+    @Test
+    void shouldPriceLetterDenominationsAtTheTariffPlusSurcharge() {
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "U"), TARIFFS))
+                .isEqualTo(new FaceValue("UAH", 2400));
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "U + 8.00"), TARIFFS))
+                .isEqualTo(new FaceValue("UAH", 3200));
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "Є"), TARIFFS))
+                .isEqualTo(new FaceValue("UAH", 9250));
+    }
+
+    @Test
+    void shouldPriceLetterDenominationsAtTheUahTariffInForce() {
+        TariffsDocument usdOnly = new TariffsDocument();
+        usdOnly.setYear(2027);
+        usdOnly.setCurrencies(Map.of("USD", Map.of("U", 1.0)));
+        TariffTable tariffs = TariffTable.compile(List.of(
+                tariffs(2024, Map.of("U", 15.0)),
+                tariffs(2026, Map.of("U", 24.0)),
+                usdOnly));
+
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "U"), tariffs))
+                .isEqualTo(new FaceValue("UAH", 2400));
+    }
+
+    @Test
+    void shouldNotPriceWhatItCannotResolve() {
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "Z"), TARIFFS)).isNull();
+        assertThat(FaceValue.of(denomination("non-denominated stamp", "1.00"), TARIFFS)).isNull();
+        assertThat(FaceValue.of(denomination("UAH", null), TARIFFS)).isNull();
+        assertThat(FaceValue.of(null, TARIFFS)).isNull();
+    }
+
+    @Test
+    void shouldConvertMinorUnitsToAmount() {
+        assertThat(FaceValue.toAmount(3200)).isEqualTo(new BigDecimal("32.00"));
+    }
+
+    private static TariffsDocument tariffs(int year, Map<String, Double> uah) {
+        TariffsDocument document = new TariffsDocument();
+        document.setYear(year);
+        document.setCurrencies(Map.of("UAH", uah));
+        return document;
+    }
+
+    private static StampDocument.Denomination denomination(String currency, String code) {
+        StampDocument.Denomination denomination = new StampDocument.Denomination();
+        denomination.setCurrency(currency);
+        denomination.setCode(code);
+        return denomination;
+    }
+}
@@ -0,0 +1,110 @@
+package com.vasylenko.ecollectobackend.common.catalog;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs {@link CatalogChangeWatcher} against a single-node MongoDB replica set, which is what
+ * change streams need. Skipped when Docker is not available.
+ */
+class CatalogChangeWatcherReplicaSetTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    private static MongoDBContainer mongo;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void startMongo() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        mongo = new MongoDBContainer("mongo:8.0");
+        mongo.start();
+        client = MongoClients.create(mongo.getReplicaSetUrl("ecollecto_test"));
+        mongoTemplate = new MongoTemplate(client, "ecollecto_test");
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+    }
+
+    @Test
+    void shouldPublishTypedEventForChangedCollection() throws Exception {
+        CatalogResumeTokenStore tokens = new CatalogResumeTokenStore(mongoTemplate, "node-live");
+        Recorder recorder = new Recorder();
+        CatalogChangeWatcher watcher = recorder.watcher(tokens);
+        watcher.start();
+        try {
+            awaitToken(tokens);
+            mongoTemplate.getCollection(CatalogChangeEvent.STAMP_COLLECTION).insertOne(new Document("_id", "s1"));
+
+            assertThat(recorder.events.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                    .isEqualTo(new CatalogChangeEvent.StampsChanged(
+                            Set.of("s1"), Set.of(CatalogChangeEvent.STAMP_COLLECTION)));
+        } finally {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void restartedNodeShouldReplayChangesMadeWhileItWasDown() throws Exception {
+        CatalogResumeTokenStore tokens = new CatalogResumeTokenStore(mongoTemplate, "node-restarted");
+        CatalogChangeWatcher first = new Recorder().watcher(tokens);
+        first.start();
+        awaitToken(tokens);
+        first.stop();
+
+        mongoTemplate.getCollection(CatalogChangeEvent.DESIGNER_COLLECTION).insertOne(new Document("_id", "d1"));
+
+        Recorder recorder = new Recorder();
+        CatalogChangeWatcher second = recorder.watcher(new CatalogResumeTokenStore(mongoTemplate, "node-restarted"));
+        second.start();
+        try {
+            assertThat(recorder.events.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS))
+                    .isEqualTo(new CatalogChangeEvent.DesignersChanged(
+                            Set.of("d1"), Set.of(CatalogChangeEvent.DESIGNER_COLLECTION)));
+        } finally {
+            second.stop();
+        }
+    }
+
+    private static void awaitToken(CatalogResumeTokenStore tokens) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (tokens.load() == null) {
+            assertThat(System.nanoTime()).as("resume token saved").isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    /** Captures the events a watcher publishes. */
+    private static final class Recorder {
+
+        final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+        CatalogChangeWatcher watcher(CatalogResumeTokenStore tokens) {
+            return new CatalogChangeWatcher(mongoTemplate, events::add, tokens, "auto");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTest {
+
+    private static final RSAKey KEY = TestTokens.generateKey("k1");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final JwkSetCache jwkSetCache = new JwkSetCache(
+            () -> new JWKSet(KEY.toPublicJWK()), Duration.ofSeconds(30), meterRegistry);
+    private final JwtTokenCache tokenCache = new JwtTokenCache(meterRegistry, 100, clock);
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(
+            JwtDecoderConfig.verifyingDecoder(jwkSetCache, TestTokens.ISSUER), tokenCache, meterRegistry);
+    private final JwtAuthorityConverter converter = new JwtAuthorityConverter(tokenCache);
+
+    @Test
+    void shouldVerifyEachTokenOnce() {
+        String token = TestTokens.sign(KEY, "user-1", inOneHour(), "user");
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSubject()).isEqualTo("user-1");
+        assertThat(meterRegistry.timer("ecollecto.security.jwt.verify").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("ecollecto.security.jwt.cache", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("ecollecto.security.jwt.cache", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldConvertAuthoritiesOncePerCachedToken() {
+        String token = TestTokens.sign(KEY, "user-1", inOneHour(), "user", "admin");
+
+        AbstractAuthenticationToken first = converter.convert(decoder.decode(token));
+        Jwt cached = decoder.decode(token);
+
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(tokenCache.authorities(cached, jwt -> {
+            throw new AssertionError("authorities should not be derived again");
+        })).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        assertThat(converter.convert(cached).getName()).isEqualTo("user-1");
+    }
+
+    @Test
+    void shouldVerifyAgainOnceTokenHasExpiredInCache() {
+        String token = TestTokens.sign(KEY, "user-1", Instant.now().plusSeconds(120), "user");
+        Jwt first = decoder.decode(token);
+
+        clock.advance(Duration.ofSeconds(121));
+        Jwt second = decoder.decode(token);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(meterRegistry.timer("ecollecto.security.jwt.verify").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCacheRejectedTokens() {
+        RSAKey unknown = TestTokens.generateKey("k2");
+        String forged = TestTokens.sign(unknown, "user-1", inOneHour(), "admin");
+
+        assertThatThrownBy(() -> decoder.decode(forged)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(forged)).isInstanceOf(JwtException.class);
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    void shouldRejectTokenFromAnotherIssuer() {
+        String token = TestTokens.sign(KEY, "http://localhost:8180/realms/other", "user-1", inOneHour(), "user");
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        JwtTokenCache small = new JwtTokenCache(meterRegistry, 2, clock);
+        CachingJwtDecoder bounded = new CachingJwtDecoder(
+                JwtDecoderConfig.verifyingDecoder(jwkSetCache, TestTokens.ISSUER), small, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            bounded.decode(TestTokens.sign(KEY, "user-" + i, inOneHour(), "user"));
+            assertThat(small.size()).isLessThanOrEqualTo(2);
+        }
+        assertThat(meterRegistry.counter("ecollecto.security.jwt.cache.evictions").count()).isPositive();
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabled() {
+        JwtTokenCache disabled = new JwtTokenCache(meterRegistry, 0, clock);
+        CachingJwtDecoder uncached = new CachingJwtDecoder(
+                JwtDecoderConfig.verifyingDecoder(jwkSetCache, TestTokens.ISSUER), disabled, meterRegistry);
+        String token = TestTokens.sign(KEY, "user-1", inOneHour(), "user");
+
+        assertThat(uncached.decode(token)).isNotSameAs(uncached.decode(token));
+        assertThat(disabled.size()).isZero();
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plus(1, ChronoUnit.HOURS);
+    }
+}
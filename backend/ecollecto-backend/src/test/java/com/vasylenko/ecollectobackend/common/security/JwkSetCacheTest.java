@@ -0,0 +1,99 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwkSetCacheTest {
+
+    private static final RSAKey OLD_KEY = TestTokens.generateKey("old");
+    private static final RSAKey NEW_KEY = TestTokens.generateKey("new");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.now());
+    private final AtomicReference<JWKSet> published = new AtomicReference<>(new JWKSet(OLD_KEY.toPublicJWK()));
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final JwkSetCache cache = new JwkSetCache(() -> {
+        fetches.incrementAndGet();
+        JWKSet keys = published.get();
+        if (keys == null) {
+            throw new IOException("connection refused");
+        }
+        return keys;
+    }, Duration.ofSeconds(30), meterRegistry, clock);
+    private final JwtDecoder decoder = JwtDecoderConfig.verifyingDecoder(cache, TestTokens.ISSUER);
+
+    @Test
+    void shouldKeepVerifyingWithLastKeysWhileProviderIsDown() {
+        assertThat(cache.refresh()).isTrue();
+        published.set(null);
+        clock.advance(Duration.ofMinutes(10));
+
+        assertThat(cache.refresh()).isFalse();
+
+        assertThat(decoder.decode(TestTokens.sign(OLD_KEY, "user-1", inOneHour(), "user")).getSubject())
+                .isEqualTo("user-1");
+        assertThat(cache.ageSeconds()).isEqualTo(600.0);
+        assertThat(meterRegistry.counter("ecollecto.security.jwks.refresh", "result", "failure").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldLoadKeysOnFirstUse() {
+        decoder.decode(TestTokens.sign(OLD_KEY, "user-1", inOneHour(), "user"));
+
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void shouldRefetchWhenTokenIsSignedWithRotatedKey() {
+        cache.refresh();
+        published.set(new JWKSet(NEW_KEY.toPublicJWK()));
+        clock.advance(Duration.ofSeconds(31));
+
+        assertThat(decoder.decode(TestTokens.sign(NEW_KEY, "user-1", inOneHour(), "user")).getSubject())
+                .isEqualTo("user-1");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void shouldRefetchForUnknownKeysAtMostOncePerInterval() {
+        cache.refresh();
+        RSAKey unknown = TestTokens.generateKey("unknown");
+        clock.advance(Duration.ofSeconds(31));
+
+        for (int i = 0; i < 3; i++) {
+            String token = TestTokens.sign(unknown, "user-" + i, inOneHour(), "user");
+            assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        }
+
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void shouldRejectTokensWhenKeysWereNeverLoaded() {
+        published.set(null);
+        String token = TestTokens.sign(OLD_KEY, "user-1", inOneHour(), "user");
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThat(meterRegistry.counter("ecollecto.security.jwks.refresh", "result", "failure").count())
+                .isEqualTo(1.0);
+    }
+
+    private static Instant inOneHour() {
+        return Instant.now().plus(1, ChronoUnit.HOURS);
+    }
+}
@@ -1,9 +1,11 @@
 package com.vasylenko.ecollectobackend.common.security;
 
 import com.vasylenko.ecollectobackend.designer.DesignerRepository;
+import com.vasylenko.ecollectobackend.dto.TariffValuationDto;
 import com.vasylenko.ecollectobackend.fdc.FirstDayCoverRepository;
 import com.vasylenko.ecollectobackend.stamp.StampRepository;
 import com.vasylenko.ecollectobackend.stamp.StampService;
+import com.vasylenko.ecollectobackend.tariff.TariffValuationService;
 import com.vasylenko.ecollectobackend.tariff.TariffsRepository;
 import com.vasylenko.ecollectobackend.user.UserDto;
 import com.vasylenko.ecollectobackend.user.UserRepository;
@@ -14,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -21,11 +24,13 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -46,6 +51,8 @@ class SecurityConfigTest {
     @MockitoBean StampService stampService;
     @MockitoBean UserService userService;
 
+    @MockitoBean TariffValuationService tariffValuationService;
+
     // Mock CurrentUserService so it does not cast principal to Jwt in tests
     @MockitoBean CurrentUserService currentUserService;
 
@@ -68,6 +75,17 @@ class SecurityConfigTest {
                .andExpect(status().isOk());
     }
 
+    @Test
+    void tariffValuation_shouldBeAccessibleWithoutAuth() throws Exception {
+        when(tariffValuationService.valuateStamps(List.of("s1")))
+            .thenReturn(TariffValuationDto.builder().stamps(List.of()).build());
+
+        mockMvc.perform(post("/api/tariffs/valuate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"stampIds\": [\"s1\"]}"))
+               .andExpect(status().isOk());
+    }
+
     @Test
     void protectedEndpoint_withoutToken_shouldReturn401() throws Exception {
         mockMvc.perform(get("/api/me"))
@@ -77,7 +95,7 @@ class SecurityConfigTest {
     @Test
     void protectedEndpoint_withUserRole_shouldReturn200() throws Exception {
         when(currentUserService.getCurrentUserId()).thenReturn("mock-user-id");
-        when(userService.getOrCreateProfile(anyString()))
+        when(userService.getOrCreateProfile(anyString(), any(), any()))
             .thenReturn(UserDto.builder().id("mock-user-id").email("test@test.com").name("Test").build());
 
         mockMvc.perform(get("/api/me")
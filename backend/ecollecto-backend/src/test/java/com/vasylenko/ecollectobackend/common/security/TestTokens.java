@@ -0,0 +1,53 @@
+package com.vasylenko.ecollectobackend.common.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/** Signs Keycloak-shaped access tokens with locally generated RSA keys. */
+final class TestTokens {
+
+    static final String ISSUER = "http://localhost:8180/realms/ecollecto";
+
+    private TestTokens() {
+    }
+
+    static RSAKey generateKey(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sign(RSAKey key, String subject, Instant expiresAt, String... roles) {
+        return sign(key, ISSUER, subject, expiresAt, roles);
+    }
+
+    static String sign(RSAKey key, String issuer, String subject, Instant expiresAt, String... roles) {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .claim("realm_access", Map.of("roles", List.of(roles)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(key));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return jwt.serialize();
+    }
+}
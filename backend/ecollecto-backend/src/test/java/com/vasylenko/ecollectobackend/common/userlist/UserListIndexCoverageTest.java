@@ -0,0 +1,106 @@
+package com.vasylenko.ecollectobackend.common.userlist;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the list queries against a real {@code mongod} and checks from the explain output that
+ * they are answered from index keys alone. Skipped when Docker is not available.
+ */
+class UserListIndexCoverageTest {
+
+    private static final String COLLECTION = "user_collections";
+    private static final String USER_ID = "user-1";
+
+    private static MongoDBContainer mongo;
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void startMongo() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+        mongo = new MongoDBContainer("mongo:8.0");
+        mongo.start();
+        client = MongoClients.create(mongo.getConnectionString());
+        mongoTemplate = new MongoTemplate(client, "ecollecto_test");
+        for (Index index : UserListService.indexes()) {
+            mongoTemplate.indexOps(COLLECTION).createIndex(index);
+        }
+
+        List<Document> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(new Document("userId", USER_ID).append("stampId", "s" + i).append("addedAt", new Date(i)));
+            items.add(new Document("userId", "user-2").append("stampId", "s" + i).append("addedAt", new Date(i)));
+        }
+        mongoTemplate.getCollection(COLLECTION).insertMany(items);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (client != null) {
+            client.close();
+        }
+        if (mongo != null) {
+            mongo.stop();
+        }
+    }
+
+    @Test
+    void fullListShouldBeCoveredByTheIndex() {
+        Document stats = executionStats(UserListService.listQuery(USER_ID, false, 0, 0));
+
+        assertThat(stats.getInteger("nReturned")).isEqualTo(50);
+        assertThat(stats.getInteger("totalDocsExamined")).isZero();
+    }
+
+    @Test
+    void newestFirstPageShouldBeCoveredAndSortedByTheIndex() {
+        Query query = UserListService.listQuery(USER_ID, true, 10, 5);
+        Document explain = explain(query);
+        Document stats = explain.get("executionStats", Document.class);
+
+        assertThat(stats.getInteger("nReturned")).isEqualTo(5);
+        assertThat(stats.getInteger("totalDocsExamined")).isZero();
+        assertThat(explain.get("queryPlanner", Document.class).toJson())
+                .doesNotContain("\"FETCH\"")
+                .doesNotContain("\"SORT\"");
+        assertThat(mongoTemplate.find(query, Document.class, COLLECTION))
+                .extracting(item -> item.getString("stampId"))
+                .containsExactly("s39", "s38", "s37", "s36", "s35");
+    }
+
+    private static Document executionStats(Query query) {
+        return explain(query).get("executionStats", Document.class);
+    }
+
+    private static Document explain(Query query) {
+        FindIterable<Document> find = mongoTemplate.getCollection(COLLECTION)
+                .find(query.getQueryObject())
+                .projection(query.getFieldsObject())
+                .sort(query.getSortObject())
+                .hintString(query.getHint())
+                .skip((int) query.getSkip());
+        if (query.isLimited()) {
+            find.limit(query.getLimit());
+        }
+        return find.explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+}
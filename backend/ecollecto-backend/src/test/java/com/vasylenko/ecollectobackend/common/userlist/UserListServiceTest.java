@@ -0,0 +1,362 @@
+package com.vasylenko.ecollectobackend.common.userlist;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import com.vasylenko.ecollectobackend.collection.CollectionItemDocument;
+import com.vasylenko.ecollectobackend.common.exception.ConflictException;
+import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
+import com.vasylenko.ecollectobackend.dto.BatchItemResultDto;
+import com.vasylenko.ecollectobackend.dto.BatchItemResultDto.Outcome;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.stamp.state.StampStatesService;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserListServiceTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String COLLECTION = "user_collections";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    @Mock
+    private StampStatesService stampStatesService;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private UserListService<String> service;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(CollectionItemDocument.class)).thenReturn(COLLECTION);
+        service = new StampIdListService(mongoTemplate, stampCatalog, stampStatesService);
+    }
+
+    @Test
+    void findAll_shouldMapItemsOfTheUser() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(new Document("stampId", "s1").append("addedAt", new Date(0))));
+
+        assertThat(service.findAll(USER_ID)).containsExactly("s1@" + Instant.EPOCH);
+    }
+
+    @Test
+    void findAll_shouldReadOnlyCoveringIndexKeysOldestFirst() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(List.of());
+
+        service.findAll(USER_ID);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq(COLLECTION));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("userId", USER_ID));
+        assertThat(query.getValue().getFieldsObject())
+                .isEqualTo(new Document("stampId", 1).append("addedAt", 1).append("_id", 0));
+        assertThat(query.getValue().getSortObject()).isEqualTo(new Document("addedAt", 1).append("stampId", 1));
+        assertThat(query.getValue().getHint()).isEqualTo(UserListService.ADDED_AT_INDEX);
+        assertThat(query.getValue().isLimited()).isFalse();
+    }
+
+    @Test
+    void listQuery_shouldPageNewestFirstOnTheServer() {
+        Query query = UserListService.listQuery(USER_ID, true, 40, 20);
+
+        assertThat(query.getSortObject()).isEqualTo(new Document("addedAt", -1).append("stampId", -1));
+        assertThat(query.getSkip()).isEqualTo(40);
+        assertThat(query.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void addItem_shouldInsertOneDocument() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+
+        assertThat(service.addItem(USER_ID, "s1")).startsWith("s1@");
+
+        ArgumentCaptor<Document> inserted = ArgumentCaptor.forClass(Document.class);
+        verify(collection).insertOne(inserted.capture());
+        assertThat(inserted.getValue()).containsEntry("userId", USER_ID).containsEntry("stampId", "s1");
+        verify(stampStatesService).invalidate(USER_ID);
+    }
+
+    @Test
+    void addItem_shouldThrowConflictOnDuplicateKey() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.insertOne(any(Document.class))).thenThrow(new MongoWriteException(
+                new WriteError(11000, "E11000 duplicate key", new BsonDocument()), new ServerAddress(), Set.of()));
+
+        assertThatThrownBy(() -> service.addItem(USER_ID, "s1"))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Stamp 's1' is already on the test list.");
+        verify(stampStatesService, never()).invalidate(any());
+        assertThat(listService().writes).isEqualTo(1);
+        assertThat(listService().added).containsExactly(List.of());
+    }
+
+    @Test
+    void removeItem_shouldDeleteInOneRoundTrip() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.deleteOne(any())).thenReturn(DeleteResult.acknowledged(1));
+
+        service.removeItem(USER_ID, "s1");
+
+        verify(collection).deleteOne(any());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), eq(COLLECTION));
+        verify(stampStatesService).invalidate(USER_ID);
+    }
+
+    @Test
+    void removeItem_shouldThrowNotFoundWhenNothingWasDeleted() {
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.deleteOne(any())).thenReturn(DeleteResult.acknowledged(0));
+
+        assertThatThrownBy(() -> service.removeItem(USER_ID, "s1"))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Stamp 's1' is not on the test list.");
+        assertThat(listService().writes).isEqualTo(1);
+        assertThat(listService().removed).containsExactly(List.of());
+    }
+
+    @Test
+    void addItems_shouldInsertKnownStampsInOneUnorderedBulkWrite() {
+        when(stampCatalog.snapshot()).thenReturn(catalog("s1", "s2"));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()));
+
+        List<BatchItemResultDto> results = service.addItems(USER_ID, List.of("s1", "s9", "s2"));
+
+        assertThat(results).extracting(BatchItemResultDto::getStampId, BatchItemResultDto::getResult)
+                .containsExactly(tuple("s1", Outcome.CREATED), tuple("s9", Outcome.NOT_FOUND), tuple("s2", Outcome.CREATED));
+        assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(201, 404, 201);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection).bulkWrite(writes.capture(), options.capture());
+        assertThat(options.getValue().isOrdered()).isFalse();
+        assertThat(writes.getValue())
+                .extracting(model -> ((InsertOneModel<Document>) model).getDocument())
+                .allSatisfy(document -> assertThat(document.getString("userId")).isEqualTo(USER_ID))
+                .extracting(document -> document.getString("stampId"))
+                .containsExactly("s1", "s2");
+    }
+
+    @Test
+    void addItems_shouldReportDuplicateKeyErrorsPerItem() {
+        when(stampCatalog.snapshot()).thenReturn(catalog("s1", "s2", "s3"));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        MongoBulkWriteException duplicate = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(duplicate);
+
+        List<BatchItemResultDto> results = service.addItems(USER_ID, List.of("s1", "s2", "s3"));
+
+        assertThat(results).extracting(BatchItemResultDto::getResult)
+                .containsExactly(Outcome.CREATED, Outcome.DUPLICATE, Outcome.CREATED);
+        assertThat(results.get(1).getStatus()).isEqualTo(409);
+    }
+
+    @Test
+    void addItems_shouldNotifyAppliedInsertsBeforeRethrowingOtherWriteErrors() {
+        when(stampCatalog.snapshot()).thenReturn(catalog("s1", "s2", "s3"));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        MongoBulkWriteException failure = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0),
+                        new BulkWriteError(121, "Document failed validation", new BsonDocument(), 2)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(failure);
+
+        assertThatThrownBy(() -> service.addItems(USER_ID, List.of("s1", "s2", "s3"))).isSameAs(failure);
+
+        verify(stampStatesService).invalidate(USER_ID);
+        assertThat(listService().added).containsExactly(List.of("s2"));
+    }
+
+    @Test
+    void addItems_shouldStoreMillisecondTimestamps() {
+        when(stampCatalog.snapshot()).thenReturn(catalog("s1"));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()));
+
+        service.addItems(USER_ID, List.of("s1"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        Date addedAt = ((InsertOneModel<Document>) writes.getValue().getFirst()).getDocument().getDate("addedAt");
+        assertThat(addedAt.toInstant().getNano() % 1_000_000).isZero();
+    }
+
+    @Test
+    void addItems_shouldSkipWriteWhenNoStampIsKnown() {
+        when(stampCatalog.snapshot()).thenReturn(catalog("s1"));
+
+        List<BatchItemResultDto> results = service.addItems(USER_ID, List.of("s9"));
+
+        assertThat(results).extracting(BatchItemResultDto::getResult).containsExactly(Outcome.NOT_FOUND);
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(stampStatesService, never()).invalidate(any());
+    }
+
+    @Test
+    void removeItems_shouldDeleteOnlyStampsOnTheListInOneBulkWrite() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(new Document("stampId", "s1"), new Document("stampId", "s3")));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 2, 0, List.of(), List.of()));
+
+        List<BatchItemResultDto> results = service.removeItems(USER_ID, List.of("s1", "s2", "s3", "s1"));
+
+        assertThat(results).extracting(BatchItemResultDto::getResult)
+                .containsExactly(Outcome.DELETED, Outcome.NOT_FOUND, Outcome.DELETED, Outcome.NOT_FOUND);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<BulkWriteOptions> options = ArgumentCaptor.forClass(BulkWriteOptions.class);
+        verify(collection).bulkWrite(writes.capture(), options.capture());
+        assertThat(writes.getValue()).hasSize(2).allMatch(DeleteOneModel.class::isInstance);
+        assertThat(options.getValue().isOrdered()).isFalse();
+        verify(collection, never()).deleteOne(any());
+        verify(stampStatesService).invalidate(USER_ID);
+        assertThat(listService().removed).containsExactly(List.of("s1", "s3"));
+    }
+
+    @Test
+    void removeItems_shouldReportNothingWhenConcurrentRemovesTookEveryStamp() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(new Document("stampId", "s1"), new Document("stampId", "s2")));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        List<BatchItemResultDto> results = service.removeItems(USER_ID, List.of("s1", "s2"));
+
+        assertThat(results).extracting(BatchItemResultDto::getResult)
+                .containsExactly(Outcome.NOT_FOUND, Outcome.NOT_FOUND);
+        verify(stampStatesService, never()).invalidate(any());
+        assertThat(listService().removed).containsExactly(List.of());
+    }
+
+    @Test
+    void removeItems_shouldNotifyAppliedDeletesBeforeRethrowingWriteErrors() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION)))
+                .thenReturn(List.of(new Document("stampId", "s1"), new Document("stampId", "s2")));
+        when(mongoTemplate.getCollection(COLLECTION)).thenReturn(collection);
+        MongoBulkWriteException failure = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(50, "operation exceeded time limit", new BsonDocument(), 1)),
+                null, new ServerAddress(), Set.of());
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenThrow(failure);
+
+        assertThatThrownBy(() -> service.removeItems(USER_ID, List.of("s1", "s2"))).isSameAs(failure);
+
+        verify(stampStatesService).invalidate(USER_ID);
+        assertThat(listService().removed).containsExactly(List.of("s1"));
+    }
+
+    @Test
+    void removeItems_shouldSkipWriteWhenNothingIsOnTheList() {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(COLLECTION))).thenReturn(List.of());
+
+        List<BatchItemResultDto> results = service.removeItems(USER_ID, List.of("s1"));
+
+        assertThat(results).extracting(BatchItemResultDto::getResult).containsExactly(Outcome.NOT_FOUND);
+        verify(mongoTemplate, never()).getCollection(any());
+        verify(stampStatesService, never()).invalidate(any());
+    }
+
+    private static StampCatalogSnapshot catalog(String... ids) {
+        List<StampDocument> documents = Stream.of(ids).map(id -> {
+            StampDocument document = new StampDocument();
+            document.setId(id);
+            return document;
+        }).toList();
+        List<StampDto> stamps = Stream.of(ids).map(id -> StampDto.builder().stampId(id).build()).toList();
+        return StampCatalogSnapshot.of(1, documents, stamps);
+    }
+
+    private StampIdListService listService() {
+        return (StampIdListService) service;
+    }
+
+    /** Minimal list whose DTO is {@code stampId@addedAt}; records the hook calls. */
+    private static final class StampIdListService extends UserListService<String> {
+
+        private int writes;
+        private final List<List<String>> added = new ArrayList<>();
+        private final List<List<String>> removed = new ArrayList<>();
+
+        StampIdListService(MongoTemplate mongoTemplate, StampCatalog stampCatalog,
+                           StampStatesService stampStatesService) {
+            super(mongoTemplate, stampCatalog, stampStatesService, CollectionItemDocument.class, "on the test list");
+        }
+
+        @Override
+        protected String toDto(String stampId, Instant addedAt) {
+            return stampId + "@" + addedAt;
+        }
+
+        @Override
+        protected void beforeWrite(String userId) {
+            writes++;
+        }
+
+        @Override
+        protected void onAdded(String userId, List<String> stampIds) {
+            added.add(stampIds);
+        }
+
+        @Override
+        protected void onRemoved(String userId, List<String> stampIds) {
+            removed.add(stampIds);
+        }
+    }
+}
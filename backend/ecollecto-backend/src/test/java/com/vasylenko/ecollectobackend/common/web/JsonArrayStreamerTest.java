@@ -0,0 +1,73 @@
+package com.vasylenko.ecollectobackend.common.web;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonArrayStreamerTest {
+
+    private final JsonArrayStreamer streamer = new JsonArrayStreamer(JsonMapper.builder().build());
+
+    @Test
+    void shouldWriteElementsAsJsonArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.write(Stream.of(Map.of("id", "a"), Map.of("id", "b")), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"id\":\"a\"},{\"id\":\"b\"}]");
+    }
+
+    @Test
+    void shouldWriteEmptyArrayForEmptyStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.write(Stream.empty(), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    void shouldCloseStreamButNotOutputStream() throws IOException {
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        AtomicBoolean outClosed = new AtomicBoolean();
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                outClosed.set(true);
+            }
+        };
+
+        streamer.body(Stream.of("x").onClose(() -> streamClosed.set(true))).writeTo(out);
+
+        assertThat(streamClosed).isTrue();
+        assertThat(outClosed).isFalse();
+    }
+
+    @Test
+    void shouldCloseStreamWhenCursorFails() {
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        Stream<String> failing = Stream.of("x", "y")
+                .map(value -> {
+                    if (value.equals("y")) {
+                        throw new IllegalStateException("cursor lost");
+                    }
+                    return value;
+                })
+                .onClose(() -> streamClosed.set(true));
+
+        assertThatThrownBy(() -> streamer.write(failing, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("cursor lost");
+        assertThat(streamClosed).isTrue();
+    }
+}
@@ -0,0 +1,155 @@
+package com.vasylenko.ecollectobackend.config;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImporterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CatalogImporter catalogImporter;
+
+    @BeforeEach
+    void setUp() {
+        catalogImporter = new CatalogImporter(mongoTemplate, meterRegistry, 2, false);
+    }
+
+    @Test
+    void shouldStreamRecordsInUnorderedBulkBatches() throws Exception {
+        List<List<String>> batches = stubBulkWrites();
+
+        CatalogImporter.ImportResult result = catalogImporter.importResource("seed/designers.json", "designers");
+
+        assertThat(batches).containsExactly(List.of("d1", "d2"), List.of("d3", "d4"), List.of("d5"));
+        assertThat(result.read()).isEqualTo(5);
+        assertThat(result.inserted()).isEqualTo(5);
+        assertThat(result.unchanged()).isZero();
+        assertThat(meterRegistry.counter("ecollecto.seed.records", "collection", "designers").count()).isEqualTo(5);
+        assertThat(meterRegistry.counter("ecollecto.seed.writes", "collection", "designers", "result", "inserted").count())
+                .isEqualTo(5);
+    }
+
+    @Test
+    void shouldRecordManifestOfFileAndRecordHashes() throws Exception {
+        stubBulkWrites();
+
+        catalogImporter.importResource("seed/designers.json", "designers");
+
+        Document state = savedState();
+        assertThat(state.getString("_id")).isEqualTo("designers");
+        assertThat(state.getString("fileHash")).hasSize(64);
+        assertThat(state.getList("documents", Document.class))
+                .extracting(entry -> entry.getString("_id"))
+                .containsExactly("d1", "d2", "d3", "d4", "d5");
+    }
+
+    @Test
+    void shouldSkipFileWhoseHashMatchesManifest() throws Exception {
+        stubBulkWrites();
+        catalogImporter.importResource("seed/designers.json", "designers");
+        Document state = savedState();
+        when(mongoTemplate.findById("designers", Document.class, CatalogImporter.STATE_COLLECTION)).thenReturn(state);
+
+        CatalogImporter.ImportResult result = catalogImporter.importResource("seed/designers.json", "designers");
+
+        assertThat(result.read()).isEqualTo(5);
+        assertThat(result.unchanged()).isEqualTo(5);
+        verify(collection, times(3)).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void shouldWriteOnlyChangedRecordsAndDeleteRemovedOnes() throws Exception {
+        List<List<String>> batches = stubBulkWrites();
+        catalogImporter.importResource("seed/designers.json", "designers");
+        Document state = savedState();
+        List<Document> documents = new ArrayList<>(state.getList("documents", Document.class));
+        documents.get(1).put("sha256", "stale");
+        documents.add(new Document("_id", "d9").append("sha256", "gone"));
+        state.put("documents", documents);
+        state.put("fileHash", "previous-file");
+        when(mongoTemplate.findById("designers", Document.class, CatalogImporter.STATE_COLLECTION)).thenReturn(state);
+        batches.clear();
+
+        CatalogImporter.ImportResult result = catalogImporter.importResource("seed/designers.json", "designers");
+
+        assertThat(batches).containsExactly(List.of("d2", "delete:d9"));
+        assertThat(result.read()).isEqualTo(5);
+        assertThat(result.deleted()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipMissingResource() throws Exception {
+        assertThat(catalogImporter.importResource("seed/missing.json", "designers")).isNull();
+        verify(mongoTemplate, never()).getCollection(any());
+    }
+
+    /**
+     * Records the ids written by each bulkWrite ({@code delete:<id>} for deletes), answering as if
+     * every upsert inserted a new document.
+     */
+    private List<List<String>> stubBulkWrites() {
+        List<List<String>> batches = new ArrayList<>();
+        when(mongoTemplate.getCollection("designers")).thenReturn(collection);
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            List<WriteModel<Document>> batch = invocation.getArgument(0);
+            assertThat(invocation.<BulkWriteOptions>getArgument(1).isOrdered()).isFalse();
+            batches.add(batch.stream().map(CatalogImporterTest::describe).toList());
+            List<BulkWriteUpsert> upserts = IntStream.range(0, batch.size())
+                    .filter(i -> batch.get(i) instanceof ReplaceOneModel)
+                    .mapToObj(i -> new BulkWriteUpsert(i, new BsonString("id" + i)))
+                    .toList();
+            int deletes = batch.size() - upserts.size();
+            return BulkWriteResult.acknowledged(0, 0, deletes, 0, upserts, List.of());
+        });
+        return batches;
+    }
+
+    private Document savedState() {
+        ArgumentCaptor<Document> state = ArgumentCaptor.forClass(Document.class);
+        verify(mongoTemplate, atLeastOnce()).save(state.capture(), eq(CatalogImporter.STATE_COLLECTION));
+        return state.getValue();
+    }
+
+    private static String describe(WriteModel<Document> model) {
+        if (model instanceof DeleteOneModel<Document> delete) {
+            return "delete:" + ((Document) delete.getFilter()).getString("_id");
+        }
+        return ((ReplaceOneModel<Document>) model).getReplacement().getString("_id");
+    }
+}
@@ -0,0 +1,80 @@
+package com.vasylenko.ecollectobackend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MongoConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoConcurrencyLimitFilter filter = new MongoConcurrencyLimitFilter(
+            JsonMapper.builder().build(), meterRegistry, 1, Duration.ZERO, false);
+
+    @Test
+    void shouldRejectWithServiceUnavailableWhenNoPermitIsFree() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+
+        // The nested request arrives while the outer one still holds the only permit.
+        filter.doFilter(request("/api/me/collection"), outer, (req, res) -> {
+            assertThat(filter.inUse()).isEqualTo(1);
+            filter.doFilter(request("/api/me/wishlist"), inner, (r, s) -> {
+                throw new AssertionError("request should not have been admitted");
+            });
+        });
+
+        assertThat(inner.getStatus()).isEqualTo(503);
+        assertThat(inner.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(inner.getContentAsString()).contains("\"code\":\"SERVICE_UNAVAILABLE\"");
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(filter.inUse()).isZero();
+        assertThat(meterRegistry.counter("ecollecto.mongo.limiter.rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldNotLimitCatalogRequests() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/me"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request("/api/stamps"), inner, (r, s) -> ((MockHttpServletResponse) s).setStatus(200)));
+
+        assertThat(inner.getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("ecollecto.mongo.limiter.rejected").count()).isZero();
+    }
+
+    @Test
+    void shouldLimitOnlyMongoBackedPaths() {
+        assertThat(filter.shouldNotFilter(request("/api/me"))).isFalse();
+        assertThat(filter.shouldNotFilter(request("/api/me/collection"))).isFalse();
+        assertThat(filter.shouldNotFilter(request("/api/stamps/page"))).isFalse();
+        assertThat(filter.shouldNotFilter(request("/api/designer/d1"))).isFalse();
+        assertThat(filter.shouldNotFilter(request("/api/media"))).isTrue();
+        assertThat(filter.shouldNotFilter(request("/api/stamps"))).isTrue();
+
+        MongoConcurrencyLimitFilter streaming = new MongoConcurrencyLimitFilter(
+                JsonMapper.builder().build(), new SimpleMeterRegistry(), 1, Duration.ZERO, true);
+        assertThat(streaming.shouldNotFilter(request("/api/stamps"))).isFalse();
+    }
+
+    @Test
+    void shouldReleasePermitWhenChainThrows() {
+        assertThatThrownBy(() -> filter.doFilter(request("/api/admin/stats/rebuild"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    throw new IllegalStateException("boom");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(filter.inUse()).isZero();
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,60 @@
+package com.vasylenko.ecollectobackend.config;
+
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.stamp.StampRepositoryCustomImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations stampIndexOps;
+
+    @Mock
+    private IndexOperations listIndexOps;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps("stamp")).thenReturn(stampIndexOps);
+        when(mongoTemplate.indexOps("user_collections")).thenReturn(listIndexOps);
+        when(mongoTemplate.indexOps("user_wishlists")).thenReturn(listIndexOps);
+        when(mongoTemplate.indexOps("user_favorites")).thenReturn(listIndexOps);
+    }
+
+    @Test
+    void shouldCreateReleaseDateIndexOnStartup() {
+        new MongoIndexInitializer(mongoTemplate).run(null);
+
+        ArgumentCaptor<Index> index = ArgumentCaptor.forClass(Index.class);
+        verify(stampIndexOps).createIndex(index.capture());
+        assertThat(index.getValue().getIndexOptions().getString("name"))
+                .isEqualTo(StampRepositoryCustomImpl.RELEASE_DATE_INDEX);
+        assertThat(index.getValue().getIndexKeys().keySet()).containsExactly("release.date", "_id");
+    }
+
+    @Test
+    void shouldCreateHintedIndexesOnEveryListCollection() {
+        new MongoIndexInitializer(mongoTemplate).run(null);
+
+        ArgumentCaptor<Index> indexes = ArgumentCaptor.forClass(Index.class);
+        verify(listIndexOps, times(6)).createIndex(indexes.capture());
+        assertThat(indexes.getAllValues()).extracting(index -> index.getIndexOptions().getString("name"))
+                .containsOnly(UserListService.STAMP_INDEX, UserListService.ADDED_AT_INDEX);
+    }
+}
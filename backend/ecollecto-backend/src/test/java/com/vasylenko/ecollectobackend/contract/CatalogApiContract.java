@@ -0,0 +1,150 @@
+package com.vasylenko.ecollectobackend.contract;
+
+import com.vasylenko.ecollectobackend.designer.DesignerDocument;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverDocument;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffsDocument;
+import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+
+/**
+ * HTTP contract of the public catalog API, run against both the MVC controllers and their
+ * WebFlux counterparts ({@code reactive} profile) so the two stacks stay interchangeable.
+ *
+ * <p>Subclasses serve the same fixture documents from their own (mocked) repositories.</p>
+ */
+abstract class CatalogApiContract {
+
+    static final String DESIGNER_ID = "d19";
+    static final String DESIGNER_NAME = "Boris Groh";
+
+    protected StampDocument stamp;
+    protected DesignerDocument designer;
+    protected FirstDayCoverDocument cover;
+    protected TariffsDocument tariffs;
+
+    protected WebTestClient client;
+
+    /**
+     * Stubs the repositories behind the controllers with the fixtures and binds a client to them.
+     */
+    protected abstract WebTestClient createClient();
+
+    @BeforeEach
+    void setUpContract() throws IOException {
+        stamp = CollectionTestDataLoader.loadStampDocument();
+        designer = CollectionTestDataLoader.loadDesignerDocument();
+        designer.setId(DESIGNER_ID);
+        cover = CollectionTestDataLoader.loadFirstDayCoverDocument();
+        tariffs = CollectionTestDataLoader.loadTariffsDocument();
+        client = createClient();
+    }
+
+    @Test
+    void shouldListStampsWithDesignerNames() {
+        client.get().uri("/api/stamps").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].stamp_id").isEqualTo(stamp.getId())
+                .jsonPath("$[0].meta.designer").isEqualTo(DESIGNER_NAME);
+    }
+
+    @Test
+    void shouldFilterStampsByYear() {
+        client.get().uri("/api/stamps?year=2022").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].stamp_id").isEqualTo(stamp.getId());
+
+        client.get().uri("/api/stamps?year=1991").exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void shouldReturnStampByIdOrNotFound() {
+        client.get().uri("/api/stamp/{id}", stamp.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.stamp_id").isEqualTo(stamp.getId())
+                .jsonPath("$.release.year").isEqualTo(2022);
+
+        client.get().uri("/api/stamp/missing").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldListStampYears() {
+        client.get().uri("/api/stamps/years").exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"year\":2022,\"count\":1}]");
+    }
+
+    @Test
+    void shouldListDesignersAndReturnOneById() {
+        client.get().uri("/api/designers").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].designer_id").isEqualTo(DESIGNER_ID)
+                .jsonPath("$[0].name").isEqualTo(DESIGNER_NAME);
+
+        client.get().uri("/api/designer/{id}", DESIGNER_ID).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo(DESIGNER_NAME);
+
+        client.get().uri("/api/designer/missing").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldListFirstDayCoversAndReturnOneById() {
+        client.get().uri("/api/first-day-covers").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo(cover.getName())
+                .jsonPath("$[0].designer").isEqualTo(DESIGNER_NAME);
+
+        client.get().uri("/api/first-day-covers/{id}", cover.getId()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.designer").isEqualTo(DESIGNER_NAME);
+
+        client.get().uri("/api/first-day-covers/missing").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldServeTariffsByYearCurrencyAndLetter() {
+        client.get().uri("/api/tariffs").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(tariffs.getId())
+                .jsonPath("$[0].year").isEqualTo(2026);
+
+        client.get().uri("/api/tariffs/2026/UAH").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.V").isEqualTo(24.0);
+
+        client.get().uri("/api/tariffs/2026/USD/P").exchange()
+                .expectStatus().isOk()
+                .expectBody(Double.class).isEqualTo(6.0);
+
+        client.get().uri("/api/tariffs/2026/UAH/Q").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReturnErrorResponseForUnknownTariffYear() {
+        client.get().uri("/api/tariffs/1991/UAH").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("NOT_FOUND")
+                .jsonPath("$.status").isEqualTo(404);
+    }
+}
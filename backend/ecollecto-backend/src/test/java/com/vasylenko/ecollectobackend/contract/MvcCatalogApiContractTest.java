@@ -0,0 +1,104 @@
+package com.vasylenko.ecollectobackend.contract;
+
+import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
+import com.vasylenko.ecollectobackend.designer.DesignerController;
+import com.vasylenko.ecollectobackend.designer.DesignerMapperImpl;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.designer.DesignerRepository;
+import com.vasylenko.ecollectobackend.designer.DesignerService;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverController;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverMapperImpl;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverRepository;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverService;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampController;
+import com.vasylenko.ecollectobackend.stamp.StampMapperImpl;
+import com.vasylenko.ecollectobackend.stamp.StampPageService;
+import com.vasylenko.ecollectobackend.stamp.StampRepository;
+import com.vasylenko.ecollectobackend.stamp.StampResponseCache;
+import com.vasylenko.ecollectobackend.stamp.StampService;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchService;
+import com.vasylenko.ecollectobackend.tariff.TariffCatalog;
+import com.vasylenko.ecollectobackend.tariff.TariffsController;
+import com.vasylenko.ecollectobackend.tariff.TariffsMapperImpl;
+import com.vasylenko.ecollectobackend.tariff.TariffsRepository;
+import com.vasylenko.ecollectobackend.tariff.TariffsService;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the catalog contract against the Spring MVC controllers over MockMvc.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT) // each contract test uses only some of the fixtures
+class MvcCatalogApiContractTest extends CatalogApiContract {
+
+    @Mock
+    private StampRepository stampRepository;
+
+    @Mock
+    private DesignerRepository designerRepository;
+
+    @Mock
+    private FirstDayCoverRepository firstDayCoverRepository;
+
+    @Mock
+    private TariffsRepository tariffsRepository;
+
+    @Mock
+    private StampPageService stampPageService;
+
+    @Mock
+    private StampSearchService stampSearchService;
+
+    @Mock
+    private StampPopularityService stampPopularityService;
+
+    @Override
+    protected WebTestClient createClient() {
+        when(stampRepository.findAll(any(Sort.class))).thenReturn(List.of(stamp));
+        when(designerRepository.findAll()).thenReturn(List.of(designer));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
+        when(designerRepository.findById(DESIGNER_ID)).thenReturn(Optional.of(designer));
+        when(firstDayCoverRepository.findAll()).thenReturn(List.of(cover));
+        when(firstDayCoverRepository.streamAll()).thenAnswer(invocation -> Stream.of(cover));
+        when(firstDayCoverRepository.findById(cover.getId())).thenReturn(Optional.of(cover));
+        when(tariffsRepository.findAll()).thenReturn(List.of(tariffs));
+        when(tariffsRepository.findByYear(tariffs.getYear())).thenReturn(Optional.of(tariffs));
+
+        DesignerNameResolver designerNameResolver = new DesignerNameResolver(designerRepository);
+        StampService stampService = new StampService(
+                new StampCatalog(stampRepository, designerNameResolver, new StampMapperImpl()));
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        StampResponseCache responseCache = new StampResponseCache(stampService, jsonMapper);
+        JsonArrayStreamer jsonArrayStreamer = new JsonArrayStreamer(jsonMapper);
+
+        return MockMvcWebTestClient.bindToController(
+                        new StampController(stampService, responseCache, stampPageService, stampSearchService,
+                                stampPopularityService, jsonArrayStreamer, false),
+                        new DesignerController(new DesignerService(designerRepository, new DesignerMapperImpl())),
+                        new FirstDayCoverController(new FirstDayCoverService(
+                                firstDayCoverRepository, designerNameResolver, new FirstDayCoverMapperImpl()),
+                                jsonArrayStreamer),
+                        new TariffsController(new TariffsService(
+                                tariffsRepository, new TariffsMapperImpl(), new TariffCatalog(tariffsRepository))))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.vasylenko.ecollectobackend.contract;
+
+import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.designer.DesignerMapperImpl;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.designer.DesignerRepository;
+import com.vasylenko.ecollectobackend.designer.ReactiveDesignerController;
+import com.vasylenko.ecollectobackend.designer.ReactiveDesignerRepository;
+import com.vasylenko.ecollectobackend.fdc.FirstDayCoverMapperImpl;
+import com.vasylenko.ecollectobackend.fdc.ReactiveFirstDayCoverController;
+import com.vasylenko.ecollectobackend.fdc.ReactiveFirstDayCoverRepository;
+import com.vasylenko.ecollectobackend.stamp.ReactiveStampController;
+import com.vasylenko.ecollectobackend.stamp.ReactiveStampRepository;
+import com.vasylenko.ecollectobackend.stamp.StampMapperImpl;
+import com.vasylenko.ecollectobackend.stamp.StampPageService;
+import com.vasylenko.ecollectobackend.stamp.StampRepository;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchService;
+import com.vasylenko.ecollectobackend.tariff.ReactiveTariffsController;
+import com.vasylenko.ecollectobackend.tariff.ReactiveTariffsRepository;
+import com.vasylenko.ecollectobackend.tariff.TariffsMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the catalog contract against the WebFlux controllers of the {@code reactive} profile,
+ * plus the streaming behaviour only that stack offers.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT) // each contract test uses only some of the fixtures
+class ReactiveCatalogApiContractTest extends CatalogApiContract {
+
+    @Mock
+    private ReactiveStampRepository stampRepository;
+
+    @Mock
+    private ReactiveDesignerRepository designerRepository;
+
+    @Mock
+    private ReactiveFirstDayCoverRepository firstDayCoverRepository;
+
+    @Mock
+    private ReactiveTariffsRepository tariffsRepository;
+
+    @Mock
+    private DesignerRepository blockingDesignerRepository;
+
+    @Mock
+    private StampPageService stampPageService;
+
+    @Mock
+    private StampSearchService stampSearchService;
+
+    @Mock
+    private StampPopularityService stampPopularityService;
+
+    @Override
+    protected WebTestClient createClient() {
+        when(stampRepository.findAll()).thenReturn(Flux.just(stamp));
+        when(stampRepository.findByReleaseYear(anyInt())).thenReturn(Flux.empty());
+        when(stampRepository.findByReleaseYear(stamp.getRelease().getYear())).thenReturn(Flux.just(stamp));
+        when(stampRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(stampRepository.findById(stamp.getId())).thenReturn(Mono.just(stamp));
+        when(stampRepository.findDistinctReleaseYears()).thenReturn(Flux.just(yearCount(2022, 1L)));
+        when(designerRepository.findAll()).thenReturn(Flux.just(designer));
+        when(designerRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(designerRepository.findById(DESIGNER_ID)).thenReturn(Mono.just(designer));
+        when(blockingDesignerRepository.findAllNames()).thenReturn(List.of(designer));
+        when(firstDayCoverRepository.findAll()).thenReturn(Flux.just(cover));
+        when(firstDayCoverRepository.findById(anyString())).thenReturn(Mono.empty());
+        when(firstDayCoverRepository.findById(cover.getId())).thenReturn(Mono.just(cover));
+        when(tariffsRepository.findAll()).thenReturn(Flux.just(tariffs));
+        when(tariffsRepository.findByYear(any())).thenReturn(Mono.empty());
+        when(tariffsRepository.findByYear(tariffs.getYear())).thenReturn(Mono.just(tariffs));
+
+        DesignerNameResolver designerNameResolver = new DesignerNameResolver(blockingDesignerRepository);
+
+        return WebTestClient.bindToController(
+                        new ReactiveStampController(stampRepository, designerNameResolver, new StampMapperImpl(),
+                                stampPageService, stampSearchService, stampPopularityService),
+                        new ReactiveDesignerController(designerRepository, new DesignerMapperImpl()),
+                        new ReactiveFirstDayCoverController(
+                                firstDayCoverRepository, designerNameResolver, new FirstDayCoverMapperImpl()),
+                        new ReactiveTariffsController(tariffsRepository, new TariffsMapperImpl()))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldStreamStampsAsNdjson() {
+        String body = client.get().uri("/api/stamps").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body)
+                .startsWith("{")
+                .contains("\"stamp_id\":\"" + stamp.getId() + "\"")
+                .endsWith("}\n");
+    }
+
+    @Test
+    void shouldSendFirstStampBeforeTheCursorIsExhausted() {
+        when(stampRepository.findAll()).thenReturn(Flux.concat(Flux.just(stamp), Flux.never()));
+
+        String first = client.get().uri("/api/stamps").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody()
+                .blockFirst(Duration.ofSeconds(5));
+
+        assertThat(first).contains("\"stamp_id\":\"" + stamp.getId() + "\"");
+    }
+
+    private static StampRepository.YearCount yearCount(int year, long count) {
+        return new StampRepository.YearCount() {
+            @Override
+            public Integer getYear() {
+                return year;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.vasylenko.ecollectobackend.designer;
+
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DesignerNameResolverTest {
+
+    @Mock
+    private DesignerRepository designerRepository;
+
+    @Test
+    void shouldLoadOnceAndResolveFromMemory() {
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer("d1", "Boris Groh")));
+        DesignerNameResolver resolver = new DesignerNameResolver(designerRepository);
+
+        assertThat(resolver.nameOf("d1")).isEqualTo("Boris Groh");
+        assertThat(resolver.nameOf("missing")).isNull();
+        assertThat(resolver.nameOf(null)).isNull();
+        verify(designerRepository, times(1)).findAllNames();
+    }
+
+    @Test
+    void shouldReplaceNamesWhenDesignersChange() {
+        when(designerRepository.findAllNames())
+                .thenReturn(List.of(designer("d1", "Old")))
+                .thenReturn(List.of(designer("d1", "New"), designer("d2", "Added")));
+        DesignerNameResolver resolver = new DesignerNameResolver(designerRepository);
+
+        Map<String, String> before = resolver.names();
+        resolver.onDesignersChanged(designersChanged());
+
+        assertThat(before).containsExactly(Map.entry("d1", "Old"));
+        assertThat(resolver.names()).containsOnly(Map.entry("d1", "New"), Map.entry("d2", "Added"));
+    }
+
+    @Test
+    void shouldKeepPreviousNamesWhenReloadFails() {
+        when(designerRepository.findAllNames())
+                .thenReturn(List.of(designer("d1", "Boris Groh")))
+                .thenThrow(new IllegalStateException("mongo down"));
+        DesignerNameResolver resolver = new DesignerNameResolver(designerRepository);
+
+        Map<String, String> before = resolver.names();
+        resolver.onDesignersChanged(designersChanged());
+
+        assertThat(resolver.names()).isSameAs(before);
+    }
+
+    @Test
+    void shouldKeepEveryDesigner() {
+        List<DesignerDocument> designers = IntStream.range(0, 20_000)
+                .mapToObj(i -> designer("d" + i, "Designer " + i))
+                .toList();
+        when(designerRepository.findAllNames()).thenReturn(designers);
+        DesignerNameResolver resolver = new DesignerNameResolver(designerRepository);
+
+        assertThat(resolver.names()).hasSize(20_000);
+        assertThat(resolver.nameOf("d19999")).isEqualTo("Designer 19999");
+    }
+
+    @Test
+    void shouldIgnoreChangesBeforeFirstLoad() {
+        DesignerNameResolver resolver = new DesignerNameResolver(designerRepository);
+
+        resolver.onDesignersChanged(designersChanged());
+
+        verify(designerRepository, never()).findAllNames();
+    }
+
+    private static DesignerDocument designer(String id, String name) {
+        DesignerDocument designer = new DesignerDocument();
+        designer.setId(id);
+        designer.setName(name);
+        return designer;
+    }
+
+    private static CatalogChangeEvent.DesignersChanged designersChanged() {
+        return new CatalogChangeEvent.DesignersChanged(Set.of(), Set.of(CatalogChangeEvent.DESIGNER_COLLECTION));
+    }
+}
@@ -1,21 +1,30 @@
 package com.vasylenko.ecollectobackend.fdc;
 
 import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
 import com.vasylenko.ecollectobackend.dto.FirstDayCoverDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +39,8 @@ class FirstDayCoverControllerTest {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new FirstDayCoverController(firstDayCoverService))
+        mockMvc = MockMvcBuilders.standaloneSetup(new FirstDayCoverController(
+                        firstDayCoverService, new JsonArrayStreamer(JsonMapper.builder().build())))
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
     }
@@ -43,15 +53,33 @@ class FirstDayCoverControllerTest {
                 .release(FirstDayCoverDto.ReleaseDto.builder().year(2024).build())
                 .build();
 
-        when(firstDayCoverService.findAll()).thenReturn(List.of(dto));
+        when(firstDayCoverService.stream()).thenReturn(Stream.of(dto));
 
-        mockMvc.perform(get("/api/first-day-covers"))
+        MvcResult result = mockMvc.perform(get("/api/first-day-covers"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].name").value("Space"))
                 .andExpect(jsonPath("$[0].designer").value(DESIGNER_NAME))
                 .andExpect(jsonPath("$[0].release.year").value(2024));
     }
 
+    @Test
+    void shouldCloseCoverStreamOnceWritten() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(firstDayCoverService.stream()).thenReturn(Stream.<FirstDayCoverDto>empty().onClose(() -> closed.set(true)));
+
+        MvcResult result = mockMvc.perform(get("/api/first-day-covers")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+        assertThat(closed).isTrue();
+    }
+
     @Test
     void shouldReturnFirstDayCoverByIdWhenFound() throws Exception {
         FirstDayCoverDto dto = FirstDayCoverDto.builder()
@@ -77,7 +105,7 @@ class FirstDayCoverControllerTest {
 
     @Test
     void shouldReturnErrorResponseWhenServiceThrows() throws Exception {
-        when(firstDayCoverService.findAll()).thenThrow(new RuntimeException("boom"));
+        when(firstDayCoverService.stream()).thenThrow(new RuntimeException("boom"));
 
         mockMvc.perform(get("/api/first-day-covers"))
                 .andExpect(status().isInternalServerError())
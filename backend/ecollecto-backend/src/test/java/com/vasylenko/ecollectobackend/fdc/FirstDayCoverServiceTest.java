@@ -1,12 +1,13 @@
 package com.vasylenko.ecollectobackend.fdc;
 
 import com.vasylenko.ecollectobackend.designer.DesignerDocument;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
 import com.vasylenko.ecollectobackend.designer.DesignerRepository;
 import com.vasylenko.ecollectobackend.dto.FirstDayCoverDto;
 import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,10 +15,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,9 +35,14 @@ class FirstDayCoverServiceTest {
     @Spy
     private FirstDayCoverMapper firstDayCoverMapper = new FirstDayCoverMapperImpl();
 
-    @InjectMocks
     private FirstDayCoverService firstDayCoverService;
 
+    @BeforeEach
+    void setUp() {
+        firstDayCoverService = new FirstDayCoverService(
+                firstDayCoverRepository, new DesignerNameResolver(designerRepository), firstDayCoverMapper);
+    }
+
     @Test
     void shouldReturnMappedDtosWhenFindAllInvoked() throws IOException {
         FirstDayCoverDocument document = CollectionTestDataLoader.loadFirstDayCoverDocument();
@@ -46,7 +51,7 @@ class FirstDayCoverServiceTest {
         designer.setName(DESIGNER_NAME);
 
         when(firstDayCoverRepository.findAll()).thenReturn(List.of(document));
-        when(designerRepository.findAllById(Set.of(document.getDesignerId()))).thenReturn(List.of(designer));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
 
         List<FirstDayCoverDto> result = firstDayCoverService.findAll();
 
@@ -73,7 +78,27 @@ class FirstDayCoverServiceTest {
         List<FirstDayCoverDto> result = firstDayCoverService.findAll();
 
         assertThat(result).isEmpty();
-        verify(designerRepository, never()).findAllById(anyCollection());
+        verify(designerRepository, never()).findAllNames();
+    }
+
+    @Test
+    void shouldStreamMappedDtosFromCursor() throws IOException {
+        FirstDayCoverDocument document = CollectionTestDataLoader.loadFirstDayCoverDocument();
+        DesignerDocument designer = new DesignerDocument();
+        designer.setId(document.getDesignerId());
+        designer.setName(DESIGNER_NAME);
+
+        when(firstDayCoverRepository.streamAll()).thenReturn(Stream.of(document));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
+
+        try (Stream<FirstDayCoverDto> result = firstDayCoverService.stream()) {
+            assertThat(result)
+                    .singleElement()
+                    .satisfies(dto -> {
+                        assertThat(dto.getName()).isEqualTo(document.getName());
+                        assertThat(dto.getDesigner()).isEqualTo(DESIGNER_NAME);
+                    });
+        }
     }
 
     @Test
@@ -83,7 +108,7 @@ class FirstDayCoverServiceTest {
         document.setDesignerId("d1");
 
         when(firstDayCoverRepository.findAll()).thenReturn(List.of(document));
-        when(designerRepository.findAllById(Set.of("d1"))).thenReturn(List.of());
+        when(designerRepository.findAllNames()).thenReturn(List.of());
 
         List<FirstDayCoverDto> result = firstDayCoverService.findAll();
 
@@ -108,7 +133,7 @@ class FirstDayCoverServiceTest {
         designer.setName(DESIGNER_NAME);
 
         when(firstDayCoverRepository.findById(document.getId())).thenReturn(Optional.of(document));
-        when(designerRepository.findAllById(Set.of(document.getDesignerId()))).thenReturn(List.of(designer));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
 
         Optional<FirstDayCoverDto> result = firstDayCoverService.findById(document.getId());
 
@@ -124,7 +149,7 @@ class FirstDayCoverServiceTest {
         Optional<FirstDayCoverDto> result = firstDayCoverService.findById("missing");
 
         assertThat(result).isEmpty();
-        verify(designerRepository, never()).findAllById(anyCollection());
+        verify(designerRepository, never()).findAllNames();
     }
 
 }
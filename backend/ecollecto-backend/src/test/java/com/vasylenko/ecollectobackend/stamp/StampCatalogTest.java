@@ -0,0 +1,112 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.common.catalog.CatalogChangeEvent;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.designer.DesignerRepository;
+import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampCatalogTest {
+
+    @Mock
+    private StampRepository stampRepository;
+
+    @Mock
+    private DesignerRepository designerRepository;
+
+    @Spy
+    private StampMapper stampMapper = new StampMapperImpl();
+
+    private StampCatalog stampCatalog;
+
+    @BeforeEach
+    void setUp() {
+        stampCatalog = new StampCatalog(stampRepository, new DesignerNameResolver(designerRepository), stampMapper);
+    }
+
+    @Test
+    void shouldLoadOnceAndServeRepeatedReadsFromMemory() throws IOException {
+        StampDocument document = CollectionTestDataLoader.loadStampDocument();
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document));
+        when(designerRepository.findAllNames()).thenReturn(List.of());
+
+        StampCatalogSnapshot first = stampCatalog.snapshot();
+        StampCatalogSnapshot second = stampCatalog.snapshot();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(first.ordinalOf(document.getId())).isZero();
+        assertThat(first.ordinalOf("missing")).isEqualTo(-1);
+        assertThat(first.findById(document.getId())).isPresent();
+        verify(stampRepository, times(1)).findAll(StampCatalog.LOAD_ORDER);
+    }
+
+    @Test
+    void shouldSwapInNewSnapshotWhenCatalogChanges() throws IOException {
+        StampDocument document = CollectionTestDataLoader.loadStampDocument();
+        StampDocument added = new StampDocument();
+        added.setId("s2");
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document), List.of(document, added));
+        when(designerRepository.findAllNames()).thenReturn(List.of());
+
+        StampCatalogSnapshot before = stampCatalog.snapshot();
+        stampCatalog.onStampsChanged(stampsChanged());
+        StampCatalogSnapshot after = stampCatalog.snapshot();
+
+        assertThat(after.version()).isGreaterThan(before.version());
+        assertThat(after.findById("s2")).isPresent();
+        assertThat(before.findById("s2")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenRebuildFails() throws IOException {
+        StampDocument document = CollectionTestDataLoader.loadStampDocument();
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER))
+                .thenReturn(List.of(document))
+                .thenThrow(new IllegalStateException("mongo down"));
+        when(designerRepository.findAllNames()).thenReturn(List.of());
+
+        StampCatalogSnapshot before = stampCatalog.snapshot();
+        stampCatalog.onDesignersChanged(new CatalogChangeEvent.DesignersChanged(
+                Set.of(), Set.of(CatalogChangeEvent.DESIGNER_COLLECTION)));
+
+        assertThat(stampCatalog.snapshot()).isSameAs(before);
+    }
+
+    @Test
+    void shouldIgnoreChangesBeforeFirstLoad() {
+        stampCatalog.onStampsChanged(stampsChanged());
+
+        verify(stampRepository, never()).findAll(StampCatalog.LOAD_ORDER);
+    }
+
+    @Test
+    void shouldLeaveDesignerChangesToStampRebuildInSameBatch() {
+        stampCatalog.snapshot();
+
+        stampCatalog.onDesignersChanged(new CatalogChangeEvent.DesignersChanged(Set.of(), Set.of(
+                CatalogChangeEvent.DESIGNER_COLLECTION, CatalogChangeEvent.STAMP_COLLECTION)));
+
+        verify(stampRepository, times(1)).findAll(StampCatalog.LOAD_ORDER);
+    }
+
+    private static CatalogChangeEvent.StampsChanged stampsChanged() {
+        return new CatalogChangeEvent.StampsChanged(Set.of(), Set.of(CatalogChangeEvent.STAMP_COLLECTION));
+    }
+}
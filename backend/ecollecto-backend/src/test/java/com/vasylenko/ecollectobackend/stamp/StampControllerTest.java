@@ -1,21 +1,47 @@
 package com.vasylenko.ecollectobackend.stamp;
 
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
 import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
+import com.vasylenko.ecollectobackend.dto.PopularStampDto;
 import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampPageDto;
+import com.vasylenko.ecollectobackend.dto.StampSearchResultDto;
+import com.vasylenko.ecollectobackend.stamp.popularity.StampPopularityService;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchQuery;
+import com.vasylenko.ecollectobackend.stamp.search.StampSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +54,26 @@ class StampControllerTest {
     @Mock
     private StampService stampService;
 
+    @Mock
+    private StampPageService stampPageService;
+
+    @Mock
+    private StampSearchService stampSearchService;
+
+    @Mock
+    private StampPopularityService stampPopularityService;
+
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(new StampController(stampService))
+        mockMvc = buildMockMvc(false);
+    }
+
+    private MockMvc buildMockMvc(boolean streamList) {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        StampResponseCache responseCache = new StampResponseCache(stampService, jsonMapper);
+        return MockMvcBuilders.standaloneSetup(new StampController(
+                        stampService, responseCache, stampPageService, stampSearchService, stampPopularityService,
+                        new JsonArrayStreamer(jsonMapper), streamList))
                 .setControllerAdvice(new GlobalExceptionHandler())
                 .build();
     }
@@ -50,6 +93,132 @@ class StampControllerTest {
                 .andExpect(jsonPath("$[0].name").value(STAMP_NAME));
     }
 
+    @Test
+    void shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+        when(stampService.findAll()).thenReturn(List.of(StampDto.builder().stampId(STAMP_ID).build()));
+
+        String etag = mockMvc.perform(get("/api/stamps"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/stamps").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        verify(stampService, times(1)).findAll();
+    }
+
+    @Test
+    void shouldReturnGzipBodyWhenClientAcceptsIt() throws Exception {
+        when(stampService.findAll()).thenReturn(List.of(StampDto.builder().stampId(STAMP_ID).name(STAMP_NAME).build()));
+
+        byte[] body = mockMvc.perform(get("/api/stamps").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gz\"")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).contains("\"stamp_id\":\"" + STAMP_ID + "\"");
+        }
+    }
+
+    @Test
+    void shouldStreamStampsFromCursorWhenStreamingEnabled() throws Exception {
+        mockMvc = buildMockMvc(true);
+        when(stampService.stream(2022)).thenReturn(Stream.of(StampDto.builder().stampId(STAMP_ID).name(STAMP_NAME).build()));
+
+        MvcResult result = mockMvc.perform(get("/api/stamps").param("year", "2022"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$[0].stamp_id").value(STAMP_ID))
+                .andExpect(jsonPath("$[0].name").value(STAMP_NAME));
+        verify(stampService, never()).findAll();
+    }
+
+    @Test
+    void shouldDetectGzipInAcceptEncoding() {
+        assertThat(StampController.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(StampController.acceptsGzip("*")).isTrue();
+        assertThat(StampController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(StampController.acceptsGzip("identity")).isFalse();
+        assertThat(StampController.acceptsGzip("*;q=0, gzip")).isTrue();
+        assertThat(StampController.acceptsGzip("gzip;q=0, *")).isFalse();
+        assertThat(StampController.acceptsGzip("gzip; q=0.5")).isTrue();
+        assertThat(StampController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void shouldReturnStampPage() throws Exception {
+        StampPageDto page = StampPageDto.builder()
+                .items(List.of(StampDto.builder().stampId(STAMP_ID).name(STAMP_NAME).build()))
+                .nextCursor("aTpzMTk3NA")
+                .build();
+        when(stampPageService.findPage("abc", 10, "date", 1992, List.of("name", "images.small"))).thenReturn(page);
+
+        mockMvc.perform(get("/api/stamps/page")
+                        .param("cursor", "abc")
+                        .param("limit", "10")
+                        .param("sort", "date")
+                        .param("year", "1992")
+                        .param("fields", "name,images.small"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].stamp_id").value(STAMP_ID))
+                .andExpect(jsonPath("$.next_cursor").value("aTpzMTk3NA"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidPageRequest() throws Exception {
+        when(stampPageService.findPage(null, null, null, null, List.of("price")))
+                .thenThrow(new BadRequestException("Unknown field 'price'"));
+
+        mockMvc.perform(get("/api/stamps/page").param("fields", "price"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+    }
+
+    @Test
+    void shouldSearchStamps() throws Exception {
+        StampSearchResultDto result = StampSearchResultDto.builder()
+                .total(1L)
+                .items(List.of(StampDto.builder().stampId(STAMP_ID).name(STAMP_NAME).build()))
+                .facets(Map.of())
+                .build();
+        StampSearchQuery query = new StampSearchQuery(
+                "тризуб", null, Set.of("d19", "d20"), null, null, true, 2020, null, null, 10);
+        when(stampSearchService.search(query)).thenReturn(result);
+
+        mockMvc.perform(get("/api/stamps/search")
+                        .param("q", "тризуб")
+                        .param("designer", "d19", "d20")
+                        .param("perforation", "true")
+                        .param("yearFrom", "2020")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].stamp_id").value(STAMP_ID));
+    }
+
+    @Test
+    void shouldReturnPopularStamps() throws Exception {
+        StampDto stamp = StampDto.builder().stampId(STAMP_ID).name(STAMP_NAME).build();
+        when(stampPopularityService.getPopular("wished", 2024, 5))
+                .thenReturn(List.of(new PopularStampDto(STAMP_ID, 42L, stamp)));
+
+        mockMvc.perform(get("/api/stamps/popular")
+                        .param("list", "wished")
+                        .param("year", "2024")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stampId").value(STAMP_ID))
+                .andExpect(jsonPath("$[0].count").value(42))
+                .andExpect(jsonPath("$[0].stamp.name").value(STAMP_NAME));
+    }
+
     @Test
     void shouldReturnStampByIdWhenFound() throws Exception {
         StampDto dto = StampDto.builder()
@@ -0,0 +1,74 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.dto.FacetCountDto;
+import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StampFacetIndexTest {
+
+    private final StampFacetIndex index = StampFacetIndex.build(List.of(
+            stamp("UAH", List.of("d1"), true, 2022),
+            stamp("UAH", List.of("d1", "d2"), false, 2022),
+            stamp("non-denominated stamp", List.of("d2"), true, 2024),
+            stamp("UAK", List.of(), true, 1992)));
+
+    @Test
+    void shouldSummarizeYearsNewestFirst() {
+        assertThat(index.yearSummaries())
+                .extracting(YearSummaryDto::getYear, YearSummaryDto::getCount)
+                .containsExactly(tuple(2024, 1L), tuple(2022, 2L), tuple(1992, 1L));
+    }
+
+    @Test
+    void shouldCombineFiltersWithBitmapOperations() {
+        RoaringBitmap designers = index.anyOf(StampFacetIndex.DESIGNERS, Set.of("d2", "missing"));
+        RoaringBitmap years = index.yearRange(2023, null);
+
+        assertThat(designers.toArray()).containsExactly(1, 2);
+        assertThat(RoaringBitmap.and(designers, years).toArray()).containsExactly(2);
+        assertThat(index.yearRange(null, 2022).toArray()).containsExactly(0, 1, 3);
+        assertThat(index.anyOf(StampFacetIndex.YEARS, Set.of("2022", "n/a")).toArray()).containsExactly(0, 1);
+    }
+
+    @Test
+    void shouldCountEachFacetUnderTheOtherFacetsFilters() {
+        Map<String, List<FacetCountDto>> counts = index.count(index.all(), Map.of(
+                StampFacetIndex.CURRENCY, index.anyOf(StampFacetIndex.CURRENCY, Set.of("UAH")),
+                StampFacetIndex.PERFORATION, index.anyOf(StampFacetIndex.PERFORATION, Set.of("true"))));
+
+        assertThat(counts.get(StampFacetIndex.CURRENCY))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("UAH", 1L), tuple("UAK", 1L), tuple("non-denominated stamp", 1L));
+        assertThat(counts.get(StampFacetIndex.PERFORATION))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("false", 1L), tuple("true", 1L));
+        assertThat(counts.get(StampFacetIndex.DESIGNERS))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("d1", 1L));
+        assertThat(counts.get(StampFacetIndex.THEMES)).isEmpty();
+    }
+
+    private static StampDocument stamp(String currency, List<String> designerIds, boolean perforation, int year) {
+        StampDocument document = new StampDocument();
+        StampDocument.Denomination denomination = new StampDocument.Denomination();
+        denomination.setCurrency(currency);
+        StampDocument.Meta meta = new StampDocument.Meta();
+        meta.setDenomination(denomination);
+        meta.setDesignerIds(designerIds);
+        meta.setPerforation(perforation);
+        meta.setThemes(List.of());
+        document.setMeta(meta);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,130 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.designer.DesignerDocument;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
+import com.vasylenko.ecollectobackend.designer.DesignerRepository;
+import com.vasylenko.ecollectobackend.dto.StampPageDto;
+import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampPageServiceTest {
+
+    @Mock
+    private StampRepository stampRepository;
+
+    @Mock
+    private DesignerRepository designerRepository;
+
+    @Spy
+    private StampMapper stampMapper = new StampMapperImpl();
+
+    private StampPageService stampPageService;
+
+    @BeforeEach
+    void setUp() {
+        stampPageService = new StampPageService(stampRepository, new DesignerNameResolver(designerRepository), stampMapper);
+    }
+
+    @Test
+    void shouldProjectListFieldsByDefaultAndSkipDesignerLookup() {
+        when(stampRepository.findPage(any())).thenReturn(List.of(stamp("s1", "1992-03-01")));
+
+        StampPageDto page = stampPageService.findPage(null, null, null, null, null);
+
+        ArgumentCaptor<StampPageQuery> query = ArgumentCaptor.forClass(StampPageQuery.class);
+        verify(stampRepository).findPage(query.capture());
+        assertThat(query.getValue().fields())
+                .containsExactly("name", "release.year", "meta.denomination", "images.small");
+        assertThat(query.getValue().limit()).isEqualTo(StampPageService.DEFAULT_LIMIT + 1);
+        assertThat(query.getValue().afterId()).isNull();
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+        verifyNoInteractions(designerRepository);
+    }
+
+    @Test
+    void shouldReturnCursorThatResumesAfterLastStampOfPage() {
+        when(stampRepository.findPage(any())).thenReturn(List.of(
+                stamp("s1", "1992-03-01"), stamp("s2", "1992-03-01"), stamp("s3", "1992-05-12")));
+
+        StampPageDto page = stampPageService.findPage(null, 2, "date", null, List.of("name"));
+
+        assertThat(page.getItems()).extracting("stampId").containsExactly("s1", "s2");
+        assertThat(StampPageService.decodeCursor(page.getNextCursor(), StampPageQuery.Sort.RELEASE_DATE))
+                .containsExactly("1992-03-01", "s2");
+    }
+
+    @Test
+    void shouldKeepMissingReleaseDateDistinctFromEmptyDateInCursor() {
+        String nullDate = StampPageService.encodeCursor(stamp("s1", null), StampPageQuery.Sort.RELEASE_DATE);
+        String emptyDate = StampPageService.encodeCursor(stamp("s1", ""), StampPageQuery.Sort.RELEASE_DATE);
+
+        assertThat(StampPageService.decodeCursor(nullDate, StampPageQuery.Sort.RELEASE_DATE))
+                .containsExactly(null, "s1");
+        assertThat(StampPageService.decodeCursor(emptyDate, StampPageQuery.Sort.RELEASE_DATE))
+                .containsExactly("", "s1");
+    }
+
+    @Test
+    void shouldResolveDesignerNamesWhenDesignerIsRequested() throws IOException {
+        StampDocument document = CollectionTestDataLoader.loadStampDocument();
+        DesignerDocument designer = new DesignerDocument();
+        designer.setId(document.getMeta().getDesignerIds().getFirst());
+        designer.setName("Designer");
+        when(stampRepository.findPage(any())).thenReturn(List.of(document));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
+
+        StampPageDto page = stampPageService.findPage(null, 10, null, null, List.of("meta.designer"));
+
+        assertThat(page.getItems().getFirst().getMeta().getDesigner()).contains("Designer");
+    }
+
+    @Test
+    void shouldCapLimitAndAvoidParentChildPathCollisions() {
+        assertThat(StampPageService.resolveLimit(10_000)).isEqualTo(StampPageService.MAX_LIMIT);
+        assertThat(StampPageService.resolvePaths(List.of("release", "release.year"), StampPageQuery.Sort.RELEASE_DATE))
+                .containsExactly("release");
+    }
+
+    @Test
+    void shouldRejectInvalidRequests() {
+        assertThatThrownBy(() -> StampPageService.resolvePaths(List.of("price"), StampPageQuery.Sort.ID))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> StampPageService.resolveLimit(0))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> StampPageService.parseSort("name"))
+                .isInstanceOf(BadRequestException.class);
+        String idCursor = StampPageService.encodeCursor(stamp("s1", "1992-03-01"), StampPageQuery.Sort.ID);
+        assertThatThrownBy(() -> StampPageService.decodeCursor(idCursor, StampPageQuery.Sort.RELEASE_DATE))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> StampPageService.decodeCursor("%%%", StampPageQuery.Sort.ID))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static StampDocument stamp(String id, String date) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setDate(date);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,71 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampResponseCacheTest {
+
+    @Mock
+    private StampService stampService;
+
+    private StampResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new StampResponseCache(stampService, JsonMapper.builder().build());
+    }
+
+    @Test
+    void shouldSerializeOncePerCatalogVersion() {
+        when(stampService.catalogVersion()).thenReturn(1L, 1L, 2L);
+        when(stampService.findAll())
+                .thenReturn(List.of(StampDto.builder().stampId("s1").build()))
+                .thenReturn(List.of(StampDto.builder().stampId("s2").build()));
+
+        StampResponseCache.Body first = cache.get(null);
+        StampResponseCache.Body cached = cache.get(null);
+        StampResponseCache.Body rebuilt = cache.get(null);
+
+        assertThat(cached).isSameAs(first);
+        assertThat(rebuilt.etag()).isNotEqualTo(first.etag());
+        assertThat(new String(rebuilt.json(), StandardCharsets.UTF_8)).contains("\"s2\"");
+        verify(stampService, times(2)).findAll();
+    }
+
+    @Test
+    void shouldReturnSharedEmptyBodyForUnknownYear() {
+        when(stampService.findByYear(1800)).thenReturn(List.of());
+
+        StampResponseCache.Body body = cache.get(1800);
+
+        assertThat(new String(body.json(), StandardCharsets.UTF_8)).isEqualTo("[]");
+        assertThat(cache.get(1800)).isSameAs(body);
+    }
+
+    @Test
+    void shouldMatchEitherVariantEtag() {
+        when(stampService.findAll()).thenReturn(List.of());
+
+        StampResponseCache.Body body = cache.get(null);
+
+        assertThat(body.matches(body.etag())).isTrue();
+        assertThat(body.matches("\"other\", " + body.gzipEtag())).isTrue();
+        assertThat(body.matches("W/" + body.gzipEtag())).isTrue();
+        assertThat(body.matches("\"other\"")).isFalse();
+        assertThat(body.matches(null)).isFalse();
+    }
+}
@@ -1,12 +1,14 @@
 package com.vasylenko.ecollectobackend.stamp;
 
 import com.vasylenko.ecollectobackend.designer.DesignerDocument;
+import com.vasylenko.ecollectobackend.designer.DesignerNameResolver;
 import com.vasylenko.ecollectobackend.designer.DesignerRepository;
 import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.YearSummaryDto;
 import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,10 +16,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,9 +37,13 @@ class StampServiceTest {
     @Spy
     private StampMapper stampMapper = new StampMapperImpl();
 
-    @InjectMocks
     private StampService stampService;
 
+    @BeforeEach
+    void setUp() {
+        stampService = new StampService(new StampCatalog(stampRepository, new DesignerNameResolver(designerRepository), stampMapper));
+    }
+
     @Test
     void shouldReturnMappedDtosWhenFindAllInvoked() throws IOException {
         StampDocument document = CollectionTestDataLoader.loadStampDocument();
@@ -45,8 +51,8 @@ class StampServiceTest {
         designer.setId(document.getMeta().getDesignerIds().getFirst());
         designer.setName(DESIGNER_NAME);
 
-        when(stampRepository.findAll()).thenReturn(List.of(document));
-        when(designerRepository.findAllById(Set.of(designer.getId()))).thenReturn(List.of(designer));
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
 
         List<StampDto> result = stampService.findAll();
 
@@ -75,12 +81,12 @@ class StampServiceTest {
 
     @Test
     void shouldReturnEmptyListWhenFindAllHasNoResults() {
-        when(stampRepository.findAll()).thenReturn(List.of());
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of());
 
         List<StampDto> result = stampService.findAll();
 
         assertThat(result).isEmpty();
-        verify(designerRepository, never()).findAllById(anyCollection());
+        verify(designerRepository, never()).findAllNames();
     }
 
     @Test
@@ -90,8 +96,8 @@ class StampServiceTest {
         designer.setId(document.getMeta().getDesignerIds().getFirst());
         designer.setName(DESIGNER_NAME);
 
-        when(stampRepository.findById(document.getId())).thenReturn(Optional.of(document));
-        when(designerRepository.findAllById(Set.of(designer.getId()))).thenReturn(List.of(designer));
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document));
+        when(designerRepository.findAllNames()).thenReturn(List.of(designer));
 
         Optional<StampDto> result = stampService.findById(document.getId());
 
@@ -102,12 +108,33 @@ class StampServiceTest {
 
     @Test
     void shouldReturnEmptyWhenFindByIdMissing() {
-        when(stampRepository.findById("missing")).thenReturn(Optional.empty());
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of());
 
         Optional<StampDto> result = stampService.findById("missing");
 
         assertThat(result).isEmpty();
-        verify(designerRepository, never()).findAllById(anyCollection());
+        verify(designerRepository, never()).findAllNames();
+    }
+
+    @Test
+    void shouldFilterByYearAndSummarizeYearsFromCatalog() throws IOException {
+        StampDocument document = CollectionTestDataLoader.loadStampDocument();
+        StampDocument older = new StampDocument();
+        older.setId("s1");
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(1992);
+        older.setRelease(release);
+
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document, older));
+        when(designerRepository.findAllNames()).thenReturn(List.of());
+
+        assertThat(stampService.findByYear(1992)).extracting(StampDto::getStampId).containsExactly("s1");
+        assertThat(stampService.findByYear(1800)).isEmpty();
+        assertThat(stampService.findDistinctYears())
+                .extracting(YearSummaryDto::getYear, YearSummaryDto::getCount)
+                .containsExactly(tuple(2022, 1L), tuple(1992, 1L));
+        verify(stampRepository, never()).findByReleaseYear(anyInt());
+        verify(stampRepository, never()).findDistinctReleaseYears();
     }
 
     @Test
@@ -116,7 +143,7 @@ class StampServiceTest {
         document.setId("s1");
         document.setName("Plain");
 
-        when(stampRepository.findAll()).thenReturn(List.of(document));
+        when(stampRepository.findAll(StampCatalog.LOAD_ORDER)).thenReturn(List.of(document));
 
         List<StampDto> result = stampService.findAll();
 
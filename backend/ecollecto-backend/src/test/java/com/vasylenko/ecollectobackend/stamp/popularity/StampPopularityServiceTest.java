@@ -0,0 +1,270 @@
+package com.vasylenko.ecollectobackend.stamp.popularity;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.dto.PopularStampDto;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampPopularityServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    private StampPopularityService stampPopularityService;
+
+    @BeforeEach
+    void setUp() {
+        stampPopularityService = new StampPopularityService(mongoTemplate, stampCatalog, Duration.ofMinutes(1),
+                Duration.ofMinutes(10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldWriteNetDeltasAsOneUpsertPerStamp() {
+        givenCatalog();
+        givenLease(null);
+        when(mongoTemplate.getCollection(StampPopularityService.POPULARITY_COLLECTION)).thenReturn(collection);
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s1", "s2", "unknown"), 1);
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s1"), 1);
+        stampPopularityService.record(PopularityList.WISHED, List.of("s1"), 1);
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s2"), -1);
+
+        stampPopularityService.flush();
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        assertThat(writes.getValue()).singleElement().satisfies(write -> {
+            assertThat(((UpdateOneModel<Document>) write).getFilter().toBsonDocument().toJson())
+                    .contains("\"epoch\"");
+            Document update = (Document) ((UpdateOneModel<Document>) write).getUpdate();
+            assertThat(update.get("$inc", Document.class))
+                    .containsEntry("collected", 2L)
+                    .containsEntry("wished", 1L)
+                    .doesNotContainKey("favorited");
+        });
+    }
+
+    @Test
+    void flush_shouldSkipMongoWhenNothingIsPending() {
+        stampPopularityService.flush();
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void flush_shouldKeepDeltasWhenTheWriteFails() {
+        givenCatalog();
+        givenLease(null);
+        when(mongoTemplate.getCollection(StampPopularityService.POPULARITY_COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(any(), any(BulkWriteOptions.class)))
+                .thenThrow(new MongoException("connection reset"))
+                .thenReturn(null);
+        stampPopularityService.record(PopularityList.FAVORITED, List.of("s3"), 1);
+
+        stampPopularityService.flush();
+        stampPopularityService.flush();
+        stampPopularityService.flush();
+
+        verify(collection, times(2)).bulkWrite(any(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void flush_shouldDropDeltasWhoseDocumentARebuildAlreadyReplaced() {
+        givenCatalog();
+        givenLease(null);
+        when(mongoTemplate.getCollection(StampPopularityService.POPULARITY_COLLECTION)).thenReturn(collection);
+        when(collection.bulkWrite(any(), any(BulkWriteOptions.class))).thenThrow(new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of()));
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s1"), 1);
+
+        stampPopularityService.flush();
+        stampPopularityService.flush();
+
+        verify(collection).bulkWrite(any(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void flush_shouldHoldDeltasWhileARebuildIsRunning() {
+        givenCatalog();
+        when(mongoTemplate.findById("rebuild", Document.class, StampPopularityService.LEASE_COLLECTION))
+                .thenReturn(lease(2, new Date(0), new Date(System.currentTimeMillis() + 60_000)))
+                .thenReturn(lease(2, new Date(0), new Date(0)));
+        when(mongoTemplate.getCollection(StampPopularityService.POPULARITY_COLLECTION)).thenReturn(collection);
+        stampPopularityService.record(PopularityList.WISHED, List.of("s2"), 1);
+
+        stampPopularityService.flush();
+        verify(collection, never()).bulkWrite(any(), any(BulkWriteOptions.class));
+
+        stampPopularityService.flush();
+        verify(collection).bulkWrite(any(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void flush_shouldDiscardDeltasRecordedBeforeTheRebuildCutoff() {
+        givenCatalog();
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s1"), 1);
+        givenLease(lease(1, new Date(System.currentTimeMillis() + 1_000), new Date(0)));
+
+        stampPopularityService.flush();
+
+        verify(mongoTemplate, never()).getCollection(anyString());
+    }
+
+    @Test
+    void rebuild_shouldReturnEmptyWhileAnotherNodeHoldsTheLease() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(StampPopularityService.LEASE_COLLECTION)))
+                .thenThrow(new DuplicateKeyException("lease held"));
+
+        assertThat(stampPopularityService.rebuild()).isEmpty();
+
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Document.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_shouldReplaceCountsWithTheNewEpochAndDiscardEarlierDeltas() {
+        givenCatalog();
+        stampPopularityService.record(PopularityList.COLLECTED, List.of("s1"), 1);
+        Date cutoff = new Date(System.currentTimeMillis() + 1_000);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Document.class), eq(StampPopularityService.LEASE_COLLECTION)))
+                .thenReturn(lease(3, cutoff, new Date(cutoff.getTime() + 600_000)));
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq(PopularityList.COLLECTED.sourceCollection()),
+                eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", "s1").append("count", 4)),
+                        new Document()));
+        when(mongoTemplate.getCollection(StampPopularityService.POPULARITY_COLLECTION)).thenReturn(collection);
+
+        assertThat(stampPopularityService.rebuild()).isEqualTo(OptionalInt.of(1));
+
+        ArgumentCaptor<List<WriteModel<Document>>> writes = ArgumentCaptor.forClass(List.class);
+        verify(collection).bulkWrite(writes.capture(), any(BulkWriteOptions.class));
+        assertThat(writes.getValue()).singleElement().satisfies(write ->
+                assertThat(((ReplaceOneModel<Document>) write).getReplacement())
+                        .containsEntry("collected", 4L)
+                        .containsEntry("wished", 0L)
+                        .containsEntry(StampPopularityService.EPOCH, 3L));
+        verify(mongoTemplate).remove(any(Query.class), eq(StampPopularityService.POPULARITY_COLLECTION));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class),
+                eq(StampPopularityService.LEASE_COLLECTION));
+
+        stampPopularityService.flush();
+        verify(collection).bulkWrite(any(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void getPopular_shouldRankByCountThenCatalogOrder() {
+        givenCatalog();
+        when(mongoTemplate.findAll(Document.class, StampPopularityService.POPULARITY_COLLECTION)).thenReturn(List.of(
+                new Document("_id", "s1").append("collected", 3L),
+                new Document("_id", "s2").append("collected", 5L).append("wished", 1L),
+                new Document("_id", "s3").append("collected", 3L),
+                new Document("_id", "gone").append("collected", 9L)));
+
+        assertThat(stampPopularityService.getPopular(null, null, null))
+                .extracting(PopularStampDto::getStampId, PopularStampDto::getCount)
+                .containsExactly(tuple("s2", 5L), tuple("s1", 3L), tuple("s3", 3L));
+        assertThat(stampPopularityService.getPopular("collected", 2024, 1))
+                .extracting(PopularStampDto::getStampId)
+                .containsExactly("s2");
+        assertThat(stampPopularityService.getPopular("wished", null, null))
+                .extracting(PopularStampDto::getStampId)
+                .containsExactly("s2");
+        assertThat(stampPopularityService.getPopular("favorited", 1992, null)).isEmpty();
+        verify(mongoTemplate).findAll(Document.class, StampPopularityService.POPULARITY_COLLECTION);
+    }
+
+    @Test
+    void getPopular_shouldRejectUnknownListAndNonPositiveLimit() {
+        assertThatThrownBy(() -> stampPopularityService.getPopular("owned", null, null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> stampPopularityService.getPopular(null, null, 0))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private void givenCatalog() {
+        List<StampDocument> documents = List.of(stamp("s1", 2022), stamp("s2", 2024), stamp("s3", 2024));
+        List<StampDto> stamps = documents.stream()
+                .map(document -> StampDto.builder().stampId(document.getId()).build())
+                .toList();
+        when(stampCatalog.snapshot()).thenReturn(StampCatalogSnapshot.of(1, documents, stamps));
+    }
+
+    private void givenLease(Document lease) {
+        when(mongoTemplate.findById("rebuild", Document.class, StampPopularityService.LEASE_COLLECTION))
+                .thenReturn(lease);
+    }
+
+    private static Document lease(long epoch, Date cutoff, Date expiresAt) {
+        return new Document("_id", "rebuild")
+                .append(StampPopularityService.EPOCH, epoch)
+                .append(StampPopularityService.CUTOFF, cutoff)
+                .append("expiresAt", expiresAt);
+    }
+
+    private static StampDocument stamp(String id, int year) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,143 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.dto.FacetCountDto;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampSearchResultDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampSearchServiceTest {
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    private StampSearchService stampSearchService;
+
+    @BeforeEach
+    void setUp() {
+        stampSearchService = new StampSearchService(stampCatalog);
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        when(stampCatalog.snapshot()).thenReturn(snapshot(1,
+                stamp("s1", "Поділля", "Писанки з України", "", "d1", true, 1993),
+                stamp("s2", "Писанка", "", "Писанки", "d2", false, 2001)));
+
+        StampSearchResultDto result = stampSearchService.search(query("писанки ", null, null, null));
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(StampDto::getStampId).containsExactly("s2", "s1");
+    }
+
+    @Test
+    void shouldTreatLastWordAsPrefix() {
+        when(stampCatalog.snapshot()).thenReturn(snapshot(1,
+                stamp("s1", "Краса і велич України", "", "", "d1", true, 2010),
+                stamp("s2", "Тигр", "", "", "d1", true, 2012)));
+
+        StampSearchResultDto result = stampSearchService.search(query("краса укр", null, null, null));
+
+        assertThat(result.getItems()).extracting(StampDto::getStampId).containsExactly("s1");
+    }
+
+    @Test
+    void shouldKeepStopWordAsPrefixOfLastWord() {
+        when(stampCatalog.snapshot()).thenReturn(snapshot(1,
+                stamp("s1", "Наука", "", "", "d1", true, 2010),
+                stamp("s2", "Тигр", "", "", "d1", true, 2012),
+                stamp("s3", "Марки нації", "", "", "d1", true, 2014)));
+
+        assertThat(stampSearchService.search(query("на", null, null, null)).getItems())
+                .extracting(StampDto::getStampId).containsExactly("s1", "s3");
+        assertThat(stampSearchService.search(query("марки на", null, null, null)).getItems())
+                .extracting(StampDto::getStampId).containsExactly("s3");
+    }
+
+    @Test
+    void shouldFilterFacetsAndCountEachFacetWithoutItsOwnFilter() {
+        when(stampCatalog.snapshot()).thenReturn(snapshot(1,
+                stamp("s1", "A", "", "", "d1", true, 1993),
+                stamp("s2", "B", "", "", "d2", true, 2001),
+                stamp("s3", "C", "", "", "d2", false, 2022)));
+
+        StampSearchResultDto result = stampSearchService.search(query(null, Set.of("d2"), 2000, null));
+
+        assertThat(result.getItems()).extracting(StampDto::getStampId).containsExactly("s2", "s3");
+        assertThat(result.getFacets().get("designers"))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("d2", 2L));
+        assertThat(result.getFacets().get("years"))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("2022", 1L), tuple("2001", 1L));
+        assertThat(result.getFacets().get("perforation"))
+                .extracting(FacetCountDto::getValue, FacetCountDto::getCount)
+                .containsExactly(tuple("false", 1L), tuple("true", 1L));
+    }
+
+    @Test
+    void shouldReindexWhenSnapshotVersionChanges() {
+        when(stampCatalog.snapshot())
+                .thenReturn(snapshot(1, stamp("s1", "Тигр", "", "", "d1", true, 2000)))
+                .thenReturn(snapshot(2, stamp("s1", "Тигр", "", "", "d1", true, 2000),
+                        stamp("s2", "Тигри", "", "", "d1", true, 2001)));
+
+        assertThat(stampSearchService.search(query("тигр ", null, null, null)).getTotal()).isEqualTo(1);
+        assertThat(stampSearchService.search(query("тигр ", null, null, null)).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectInvalidPaging() {
+        assertThatThrownBy(() -> stampSearchService.search(
+                new StampSearchQuery(null, null, null, null, null, null, null, null, -1, null)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> stampSearchService.search(query(null, null, 2020, 2010)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(StampSearchService.resolveLimit(10_000)).isEqualTo(StampSearchService.MAX_LIMIT);
+    }
+
+    private static StampSearchQuery query(String text, Set<String> designerIds, Integer yearFrom, Integer yearTo) {
+        return new StampSearchQuery(text, null, designerIds, null, null, null, yearFrom, yearTo, null, null);
+    }
+
+    private static StampCatalogSnapshot snapshot(long version, StampDocument... documents) {
+        List<StampDto> stamps = Arrays.stream(documents)
+                .map(document -> StampDto.builder().stampId(document.getId()).name(document.getName()).build())
+                .toList();
+        return StampCatalogSnapshot.of(version, List.of(documents), stamps);
+    }
+
+    private static StampDocument stamp(String id, String name, String description, String series,
+                                       String designerId, boolean perforation, int year) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        document.setName(name);
+        document.setDescription(description);
+        StampDocument.Meta meta = new StampDocument.Meta();
+        meta.setSeries(series);
+        meta.setDesignerIds(List.of(designerId));
+        meta.setPerforation(perforation);
+        document.setMeta(meta);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
@@ -0,0 +1,28 @@
+package com.vasylenko.ecollectobackend.stamp.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UkrainianAnalyzerTest {
+
+    @Test
+    void shouldFoldCaseFormsToOneStem() {
+        assertThat(UkrainianAnalyzer.terms("Україна України Україною Україні"))
+                .containsOnly("україн");
+        assertThat(UkrainianAnalyzer.terms("Писанка Писанки")).containsOnly("писанк");
+    }
+
+    @Test
+    void shouldKeepApostropheWordsTogetherAndDropStopWords() {
+        assertThat(UkrainianAnalyzer.tokens("М'ята та мʼята, «Знаки зодіаку»"))
+                .containsExactly("мята", "та", "мята", "знаки", "зодіаку");
+        assertThat(UkrainianAnalyzer.terms("М'ята та мʼята")).containsExactly("мят", "мят");
+    }
+
+    @Test
+    void shouldLeaveLatinTokensNumbersAndShortWordsUnstemmed() {
+        assertThat(UkrainianAnalyzer.terms("EUROPA-2013 Anguilla тигр")).containsExactly("europa", "2013", "anguilla", "тигр");
+        assertThat(UkrainianAnalyzer.stem("ліс")).isEqualTo("ліс");
+    }
+}
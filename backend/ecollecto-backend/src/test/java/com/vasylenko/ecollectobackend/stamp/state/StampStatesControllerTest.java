@@ -0,0 +1,78 @@
+package com.vasylenko.ecollectobackend.stamp.state;
+
+import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class StampStatesControllerTest {
+    private static final String USER_ID = "user-1";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private StampStatesService stampStatesService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StampStatesController(stampStatesService, currentUserService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(currentUserService.getCurrentUserId()).thenReturn(USER_ID);
+        when(stampStatesService.get(USER_ID)).thenReturn(new StampStatesService.StampStates("\"q1w2e3\"", StampStatesDto.builder()
+                .catalogLayout("q2Xj0JmJ7vQ3VwW1pZ9m4A")
+                .size(9)
+                .collection("AQE=")
+                .wishlist("CA==")
+                .favorites("")
+                .build()));
+    }
+
+    @Test
+    void shouldReturnBitsetsWithEtag() throws Exception {
+        mockMvc.perform(get("/api/me/stamp-states"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"q1w2e3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.catalogLayout").value("q2Xj0JmJ7vQ3VwW1pZ9m4A"))
+                .andExpect(jsonPath("$.size").value(9))
+                .andExpect(jsonPath("$.collection").value("AQE="))
+                .andExpect(jsonPath("$.favorites").value(""));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForCurrentEtag() throws Exception {
+        mockMvc.perform(get("/api/me/stamp-states").header(HttpHeaders.IF_NONE_MATCH, "\"q1w2e3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void shouldMatchAnyTagInIfNoneMatchListWeakly() throws Exception {
+        mockMvc.perform(get("/api/me/stamp-states").header(HttpHeaders.IF_NONE_MATCH, "\"old\", W/\"q1w2e3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldNotMatchTagThatOnlyContainsTheEtag() throws Exception {
+        mockMvc.perform(get("/api/me/stamp-states").header(HttpHeaders.IF_NONE_MATCH, "\"x\"q1w2e3\"\""))
+                .andExpect(status().isOk());
+    }
+}
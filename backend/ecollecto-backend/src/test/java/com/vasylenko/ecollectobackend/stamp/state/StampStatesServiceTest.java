@@ -0,0 +1,177 @@
+package com.vasylenko.ecollectobackend.stamp.state;
+
+import com.vasylenko.ecollectobackend.common.userlist.UserListService;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StampStatesServiceTest {
+
+    private static final String USER_ID = "user-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    private StampStatesService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StampStatesService(mongoTemplate, stampCatalog, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldSetOneBitPerListedStampByCatalogOrdinal() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(7, "s0", "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8"));
+        stubList(UserListService.COLLECTIONS, "s0", "s8", "gone");
+        stubList(UserListService.WISHLISTS, "s3");
+        stubList(UserListService.FAVORITES);
+
+        StampStatesDto states = service.get(USER_ID).body();
+
+        assertThat(states.getCatalogLayout()).matches("[A-Za-z0-9_-]+");
+        assertThat(states.getSize()).isEqualTo(9);
+        assertThat(decode(states.getCollection())).isEqualTo(bits(0, 8));
+        assertThat(decode(states.getWishlist())).isEqualTo(bits(3));
+        assertThat(states.getFavorites()).isEmpty();
+    }
+
+    @Test
+    void shouldQueryOnlyTheCoveringIndex() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+
+        service.get(USER_ID);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq(UserListService.COLLECTIONS));
+        assertThat(query.getValue().getQueryObject()).containsEntry("userId", USER_ID).hasSize(1);
+        assertThat(query.getValue().getFieldsObject()).containsEntry("stampId", 1).containsEntry("_id", 0);
+        assertThat(query.getValue().getHint()).isEqualTo(UserListService.STAMP_INDEX);
+    }
+
+    @Test
+    void shouldServeCachedStatesUntilInvalidated() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+
+        StampStatesService.StampStates first = service.get(USER_ID);
+        StampStatesService.StampStates second = service.get(USER_ID);
+        service.invalidate(USER_ID);
+        StampStatesService.StampStates third = service.get(USER_ID);
+
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        assertThat(third.etag()).isEqualTo(first.etag());
+        verify(mongoTemplate, times(6)).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void shouldDeriveEtagFromContentRatherThanNodeLocalCounters() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0", "s1"), catalog(9, "s0", "s1"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+        StampStatesService otherNode = new StampStatesService(mongoTemplate, stampCatalog, 100, Duration.ofMinutes(1));
+
+        StampStatesService.StampStates here = service.get(USER_ID);
+        StampStatesService.StampStates there = otherNode.get(USER_ID);
+
+        assertThat(there.body().getCatalogLayout()).isEqualTo(here.body().getCatalogLayout());
+        assertThat(there.etag()).isEqualTo(here.etag()).matches("\"[A-Za-z0-9_-]+\"");
+    }
+
+    @Test
+    void shouldTellLayoutsWithDifferentOrdinalsApart() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0", "s1"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+        StampStatesService otherNode = new StampStatesService(mongoTemplate, stampCatalog, 100, Duration.ofMinutes(1));
+        StampStatesService.StampStates here = service.get(USER_ID);
+
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s1", "s0"));
+        StampStatesService.StampStates there = otherNode.get(USER_ID);
+
+        assertThat(there.body().getCatalogLayout()).isNotEqualTo(here.body().getCatalogLayout());
+        assertThat(there.etag()).isNotEqualTo(here.etag());
+    }
+
+    @Test
+    void shouldReloadStatesOlderThanTtl() {
+        service = new StampStatesService(mongoTemplate, stampCatalog, 100, Duration.ZERO);
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0"));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), anyString())).thenReturn(List.of());
+
+        service.get(USER_ID);
+        service.get(USER_ID);
+
+        verify(mongoTemplate, times(6)).find(any(Query.class), eq(Document.class), anyString());
+    }
+
+    @Test
+    void shouldRebuildWhenCatalogVersionChanges() {
+        when(stampCatalog.snapshot()).thenReturn(catalog(1, "s0"), catalog(2, "s1", "s0"));
+        stubList(UserListService.COLLECTIONS, "s0");
+        stubList(UserListService.WISHLISTS);
+        stubList(UserListService.FAVORITES);
+
+        StampStatesService.StampStates before = service.get(USER_ID);
+        StampStatesService.StampStates after = service.get(USER_ID);
+
+        assertThat(decode(before.body().getCollection())).isEqualTo(bits(0));
+        assertThat(decode(after.body().getCollection())).isEqualTo(bits(1));
+        assertThat(after.body().getCatalogLayout()).isNotEqualTo(before.body().getCatalogLayout());
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    private void stubList(String collectionName, String... stampIds) {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq(collectionName)))
+                .thenReturn(Stream.of(stampIds).map(id -> new Document("stampId", id)).toList());
+    }
+
+    private static BitSet decode(String base64) {
+        return BitSet.valueOf(Base64.getDecoder().decode(base64));
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+
+    private static StampCatalogSnapshot catalog(long version, String... ids) {
+        List<StampDocument> documents = Stream.of(ids).map(id -> {
+            StampDocument document = new StampDocument();
+            document.setId(id);
+            return document;
+        }).toList();
+        List<StampDto> stamps = Stream.of(ids).map(id -> StampDto.builder().stampId(id).build()).toList();
+        return StampCatalogSnapshot.of(version, documents, stamps);
+    }
+}
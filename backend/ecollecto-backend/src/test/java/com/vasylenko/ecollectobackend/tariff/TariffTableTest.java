@@ -0,0 +1,111 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TariffTableTest {
+
+    @Test
+    void shouldLookUpRatesInMinorUnits() {
+        TariffTable table = TariffTable.compile(List.of(
+                tariffs(2024, Map.of("UAH", Map.of("I", 0.01, "V", 15.0))),
+                tariffs(2026, Map.of("UAH", Map.of("V", 24.0), "USD", Map.of("P", 6.0, "Є", 1.2)))));
+
+        assertThat(table.minorUnits(2024, Currency.UAH, "I")).isEqualTo(1L);
+        assertThat(table.minorUnits(2024, Currency.UAH, "V")).isEqualTo(1500L);
+        assertThat(table.minorUnits(2026, Currency.UAH, "V")).isEqualTo(2400L);
+        assertThat(table.minorUnits(2026, Currency.USD, "Є")).isEqualTo(120L);
+        assertThat(table.latestYear()).isEqualTo(2026);
+    }
+
+    @Test
+    void shouldReturnMissingForUnknownYearCurrencyOrLetter() {
+        TariffTable table = TariffTable.compile(List.of(
+                tariffs(2024, Map.of("UAH", Map.of("V", 15.0))),
+                tariffs(2026, Map.of("USD", Map.of("P", 6.0)))));
+
+        assertThat(table.hasYear(2025)).isFalse();
+        assertThat(table.minorUnits(2025, Currency.UAH, "V")).isEqualTo(TariffTable.MISSING);
+        assertThat(table.minorUnits(2026, Currency.UAH, "V")).isEqualTo(TariffTable.MISSING);
+        assertThat(table.minorUnits(2024, Currency.UAH, "P")).isEqualTo(TariffTable.MISSING);
+        assertThat(table.minorUnits(2024, Currency.UAH, "Q")).isEqualTo(TariffTable.MISSING);
+        assertThat(table.minorUnits(2024, Currency.UAH, null)).isEqualTo(TariffTable.MISSING);
+        assertThat(table.minorUnits(1991, Currency.UAH, "V")).isEqualTo(TariffTable.MISSING);
+    }
+
+    @Test
+    void shouldKeepYearsWhoseCurrenciesCannotBeRequested() {
+        TariffTable table = TariffTable.compile(List.of(tariffs(1992, Map.of("UAK", Map.of("1", 1.0)))));
+
+        assertThat(table.hasYear(1992)).isTrue();
+        assertThat(table.rates(1992, Currency.UAH)).isNull();
+        assertThat(table.minorUnits(1992, Currency.UAH, "1")).isEqualTo(TariffTable.MISSING);
+    }
+
+    @Test
+    void shouldExposeRatesInDocumentOrder() {
+        Map<String, Double> uah = new LinkedHashMap<>();
+        uah.put("V", 24.0);
+        uah.put("H", 0.6);
+        uah.put("F", 48.0);
+        TariffTable table = TariffTable.compile(List.of(tariffs(2026, Map.of("UAH", uah))));
+
+        assertThat(table.rates(2026, Currency.UAH)).containsExactly(
+                Map.entry("V", 24.0), Map.entry("H", 0.6), Map.entry("F", 48.0));
+        assertThat(table.rates(2026, Currency.USD)).isNull();
+    }
+
+    @Test
+    void shouldResolveTariffInForceForAnyYear() {
+        TariffTable table = TariffTable.compile(List.of(
+                tariffs(1992, Map.of("UAK", Map.of("1", 1.0))),
+                tariffs(2022, Map.of("UAH", Map.of("V", 12.0))),
+                tariffs(2024, Map.of("UAH", Map.of("V", 15.0)))));
+
+        assertThat(table.yearInForce(2021, Currency.UAH)).isEqualTo(-1);
+        assertThat(table.yearInForce(2022, Currency.UAH)).isEqualTo(2022);
+        assertThat(table.yearInForce(2023, Currency.UAH)).isEqualTo(2022);
+        assertThat(table.yearInForce(2030, Currency.UAH)).isEqualTo(2024);
+        assertThat(table.yearInForce(2030, Currency.USD)).isEqualTo(-1);
+        assertThat(table.yearInForce(1900, Currency.UAH)).isEqualTo(-1);
+        assertThat(table.currentYear(Currency.UAH)).isEqualTo(2024);
+        assertThat(table.currentYear(Currency.USD)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldPriceManyItemsInOnePass() {
+        TariffTable table = TariffTable.compile(List.of(
+                tariffs(2024, Map.of("UAH", Map.of("F", 30.0, "V", 15.0))),
+                tariffs(2026, Map.of("UAH", Map.of("F", 48.0, "V", 24.0)))));
+        int f = table.letterIndex("F");
+        int v = table.letterIndex("V");
+        long[] out = new long[4];
+
+        table.price(Currency.UAH, new int[] {2024, 2026, 2026, -1}, new int[] {f, v, table.letterIndex("Q"), f}, out);
+
+        assertThat(out).containsExactly(3000L, 2400L, TariffTable.MISSING, TariffTable.MISSING);
+    }
+
+    @Test
+    void shouldBeEmptyWithoutDocuments() {
+        assertThat(TariffTable.EMPTY.hasYear(2026)).isFalse();
+        assertThat(TariffTable.EMPTY.minorUnits(TariffTable.EMPTY.latestYear(), Currency.UAH, "V"))
+                .isEqualTo(TariffTable.MISSING);
+        assertThat(TariffTable.EMPTY.yearInForce(2026, Currency.UAH)).isEqualTo(-1);
+        assertThat(TariffTable.EMPTY.currentYear(Currency.UAH)).isEqualTo(-1);
+        assertThat(TariffTable.EMPTY.letterIndex("V")).isEqualTo(-1);
+    }
+
+    private static TariffsDocument tariffs(int year, Map<String, Map<String, Double>> currencies) {
+        TariffsDocument document = new TariffsDocument();
+        document.setYear(year);
+        document.setCurrencies(currencies);
+        return document;
+    }
+}
@@ -0,0 +1,106 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.common.exception.GlobalExceptionHandler;
+import com.vasylenko.ecollectobackend.common.security.CurrentUserService;
+import com.vasylenko.ecollectobackend.dto.TariffValuationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class TariffValuationControllerTest {
+    private static final String USER_ID = "user-1";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private TariffValuationService tariffValuationService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new TariffValuationController(tariffValuationService, currentUserService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldValueRequestedStamps() throws Exception {
+        when(tariffValuationService.valuateStamps(List.of("s1", "s2"))).thenReturn(valuation());
+
+        mockMvc.perform(post("/api/tariffs/valuate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stampIds\": [\"s1\", \"s2\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tariffYear").value(2026))
+                .andExpect(jsonPath("$.currentTotal.UAH").value(48.0));
+    }
+
+    @Test
+    void shouldValueCollectionOfAuthenticatedUser() throws Exception {
+        when(currentUserService.findCurrentUserId()).thenReturn(Optional.of(USER_ID));
+        when(tariffValuationService.valuateCollection(USER_ID)).thenReturn(valuation());
+
+        mockMvc.perform(post("/api/tariffs/valuate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"collection\": true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.unvalued").value(0));
+    }
+
+    @Test
+    void shouldReturnUnauthorizedForAnonymousCollectionValuation() throws Exception {
+        when(currentUserService.findCurrentUserId()).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/tariffs/valuate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"collection\": true}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("UNAUTHORIZED"));
+        verify(tariffValuationService, never()).valuateCollection(any());
+    }
+
+    @Test
+    void shouldReturnBadRequestWhenServiceRejectsIds() throws Exception {
+        when(tariffValuationService.valuateStamps(null))
+                .thenThrow(new BadRequestException("stampIds must not be empty"));
+
+        mockMvc.perform(post("/api/tariffs/valuate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("stampIds must not be empty"));
+    }
+
+    private static TariffValuationDto valuation() {
+        return TariffValuationDto.builder()
+                .tariffYear(2026)
+                .stamps(List.of())
+                .currentTotal(Map.of("UAH", new BigDecimal("48.00")))
+                .historicalTotal(Map.of("UAH", new BigDecimal("30.00")))
+                .unvalued(0L)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.collection.CollectionItemDto;
+import com.vasylenko.ecollectobackend.collection.CollectionService;
+import com.vasylenko.ecollectobackend.common.exception.BadRequestException;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import com.vasylenko.ecollectobackend.dto.StampValuationDto;
+import com.vasylenko.ecollectobackend.dto.TariffValuationDto;
+import com.vasylenko.ecollectobackend.stamp.StampCatalog;
+import com.vasylenko.ecollectobackend.stamp.StampCatalogSnapshot;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TariffValuationServiceTest {
+    private static final String USER_ID = "user-1";
+
+    @Mock
+    private StampCatalog stampCatalog;
+
+    @Mock
+    private TariffsRepository tariffsRepository;
+
+    @Mock
+    private CollectionService collectionService;
+
+    private TariffValuationService tariffValuationService;
+
+    @BeforeEach
+    void setUp() {
+        tariffValuationService = new TariffValuationService(
+                stampCatalog, new TariffCatalog(tariffsRepository), collectionService);
+    }
+
+    @Test
+    void valuateStamps_shouldPriceLettersAtCurrentAndReleaseYearTariffs() {
+        stubCatalog();
+
+        TariffValuationDto valuation = tariffValuationService.valuateStamps(
+                List.of("s1", "s2", "s3", "missing", "s4"));
+
+        assertThat(valuation.getTariffYear()).isEqualTo(2026);
+        assertThat(valuation.getStamps())
+                .extracting(StampValuationDto::getStampId, StampValuationDto::getCurrency,
+                        StampValuationDto::getCurrentValue, StampValuationDto::getHistoricalValue,
+                        StampValuationDto::getHistoricalTariffYear)
+                .containsExactly(
+                        tuple("s1", "UAK", new BigDecimal("0.15"), new BigDecimal("0.15"), null),
+                        tuple("s2", "UAH", new BigDecimal("56.00"), new BigDecimal("38.00"), 2024),
+                        tuple("s3", "UAH", new BigDecimal("48.00"), null, null),
+                        tuple("missing", null, null, null, null),
+                        tuple("s4", null, null, null, null));
+        assertThat(valuation.getCurrentTotal()).containsExactly(
+                Map.entry("UAH", new BigDecimal("104.00")), Map.entry("UAK", new BigDecimal("0.15")));
+        assertThat(valuation.getHistoricalTotal()).containsExactly(
+                Map.entry("UAH", new BigDecimal("38.00")), Map.entry("UAK", new BigDecimal("0.15")));
+        assertThat(valuation.getUnvalued()).isEqualTo(2L);
+    }
+
+    @Test
+    void valuateCollection_shouldValueEveryOwnedStamp() {
+        stubCatalog();
+        when(collectionService.getCollection(USER_ID)).thenReturn(List.of(
+                CollectionItemDto.builder().stampId("s2").build(),
+                CollectionItemDto.builder().stampId("s3").build()));
+
+        TariffValuationDto valuation = tariffValuationService.valuateCollection(USER_ID);
+
+        assertThat(valuation.getStamps()).extracting(StampValuationDto::getStampId).containsExactly("s2", "s3");
+        assertThat(valuation.getCurrentTotal()).containsExactly(Map.entry("UAH", new BigDecimal("104.00")));
+        assertThat(valuation.getUnvalued()).isZero();
+    }
+
+    @Test
+    void valuateStamps_shouldRejectEmptyOrOversizedRequests() {
+        assertThatThrownBy(() -> tariffValuationService.valuateStamps(null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> tariffValuationService.valuateStamps(List.of()))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> tariffValuationService.valuateStamps(
+                Collections.nCopies(TariffValuationService.MAX_STAMP_IDS + 1, "s1")))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining(String.valueOf(TariffValuationService.MAX_STAMP_IDS));
+    }
+
+    private void stubCatalog() {
+        List<StampDocument> documents = List.of(
+                stamp("s1", 1992, "UAK", "0.15"),
+                stamp("s2", 2025, "non-denominated stamp", "F+8.00"),
+                stamp("s3", 2020, "non-denominated stamp", "F"),
+                stamp("s4", 2026, "non-denominated stamp", "Q"));
+        List<StampDto> stamps = documents.stream()
+                .map(document -> StampDto.builder().stampId(document.getId()).build())
+                .toList();
+        when(stampCatalog.snapshot()).thenReturn(StampCatalogSnapshot.of(1, documents, stamps));
+        when(tariffsRepository.findAll()).thenReturn(List.of(
+                tariffs(1992, Map.of("UAK", Map.of("1", 1.0))),
+                tariffs(2024, Map.of("UAH", Map.of("F", 30.0))),
+                tariffs(2026, Map.of("UAH", Map.of("F", 48.0)))));
+    }
+
+    private static TariffsDocument tariffs(int year, Map<String, Map<String, Double>> currencies) {
+        TariffsDocument document = new TariffsDocument();
+        document.setYear(year);
+        document.setCurrencies(currencies);
+        return document;
+    }
+
+    private static StampDocument stamp(String id, int year, String currency, String code) {
+        StampDocument document = new StampDocument();
+        document.setId(id);
+        StampDocument.Denomination denomination = new StampDocument.Denomination();
+        denomination.setCurrency(currency);
+        denomination.setCode(code);
+        StampDocument.Meta meta = new StampDocument.Meta();
+        meta.setDenomination(denomination);
+        document.setMeta(meta);
+        StampDocument.Release release = new StampDocument.Release();
+        release.setYear(year);
+        document.setRelease(release);
+        return document;
+    }
+}
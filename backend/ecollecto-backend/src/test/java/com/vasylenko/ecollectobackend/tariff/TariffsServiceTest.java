@@ -4,9 +4,9 @@ import com.vasylenko.ecollectobackend.common.exception.NotFoundException;
 import com.vasylenko.ecollectobackend.common.model.Currency;
 import com.vasylenko.ecollectobackend.dto.TariffsDto;
 import com.vasylenko.ecollectobackend.utils.CollectionTestDataLoader;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,6 +18,10 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,9 +33,13 @@ class TariffsServiceTest {
     @Spy
     private TariffsMapper tariffsMapper = new TariffsMapperImpl();
 
-    @InjectMocks
     private TariffsService tariffsService;
 
+    @BeforeEach
+    void setUp() {
+        tariffsService = new TariffsService(tariffsRepository, tariffsMapper, new TariffCatalog(tariffsRepository));
+    }
+
     @Test
     void shouldReturnMappedDtosWhenFindAllInvoked() throws IOException {
         TariffsDocument document = CollectionTestDataLoader.loadTariffsDocument();
@@ -72,7 +80,7 @@ class TariffsServiceTest {
     void shouldReturnTariffsByCurrency() throws IOException {
         TariffsDocument document = CollectionTestDataLoader.loadTariffsDocument();
 
-        when(tariffsRepository.findByYear(document.getYear())).thenReturn(Optional.of(document));
+        when(tariffsRepository.findAll()).thenReturn(List.of(document));
 
         Optional<Map<String, Double>> result =
                 tariffsService.getTariffsByCurrency(document.getYear(), Currency.USD);
@@ -85,7 +93,7 @@ class TariffsServiceTest {
     void shouldReturnTariffByLetter() throws IOException {
         TariffsDocument document = CollectionTestDataLoader.loadTariffsDocument();
 
-        when(tariffsRepository.findByYear(document.getYear())).thenReturn(Optional.of(document));
+        when(tariffsRepository.findAll()).thenReturn(List.of(document));
 
         Optional<Double> result =
                 tariffsService.getTariffByLetter(document.getYear(), Currency.USD, "A");
@@ -98,11 +106,33 @@ class TariffsServiceTest {
     void shouldReturnEmptyWhenTariffLetterMissing() throws IOException {
         TariffsDocument document = CollectionTestDataLoader.loadTariffsDocument();
 
-        when(tariffsRepository.findByYear(document.getYear())).thenReturn(Optional.of(document));
+        when(tariffsRepository.findAll()).thenReturn(List.of(document));
 
         Optional<Double> result =
                 tariffsService.getTariffByLetter(document.getYear(), Currency.USD, "Q");
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void shouldThrowWhenLetterLookupYearMissing() throws IOException {
+        when(tariffsRepository.findAll()).thenReturn(List.of(CollectionTestDataLoader.loadTariffsDocument()));
+
+        assertThatThrownBy(() -> tariffsService.getTariffByLetter(1991, Currency.UAH, "V"))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Tariffs not found for year 1991");
+    }
+
+    @Test
+    void shouldCompileTariffsOnceForRepeatedLookups() throws IOException {
+        TariffsDocument document = CollectionTestDataLoader.loadTariffsDocument();
+
+        when(tariffsRepository.findAll()).thenReturn(List.of(document));
+
+        tariffsService.getTariffByLetter(document.getYear(), Currency.UAH, "V");
+        tariffsService.getTariffsByCurrency(document.getYear(), Currency.USD);
+
+        verify(tariffsRepository, times(1)).findAll();
+        verify(tariffsRepository, never()).findByYear(any());
+    }
 }
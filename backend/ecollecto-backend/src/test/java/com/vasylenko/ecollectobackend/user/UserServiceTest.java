@@ -0,0 +1,162 @@
+package com.vasylenko.ecollectobackend.user;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    private static final String SUB = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(mongoTemplate, TTL, 100, nanoTime::get);
+    }
+
+    @Test
+    void shouldCreateProfileWithClaimsInOneUpsert() {
+        when(findAndModify()).thenReturn(document("ann@ecollecto.dev", "Ann"));
+
+        UserDto profile = userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+
+        assertThat(profile.getId()).isEqualTo(SUB);
+        assertThat(profile.getEmail()).isEqualTo("ann@ecollecto.dev");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), options.capture(),
+                eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+        assertThat(options.getValue().isUpsert()).isTrue();
+        assertThat(options.getValue().isReturnNew()).isTrue();
+        assertThat(update.getValue().getUpdateObject().get("$setOnInsert", Document.class))
+                .containsEntry("email", "ann@ecollecto.dev")
+                .containsEntry("name", "Ann")
+                .containsKeys("createdAt", "updatedAt");
+        assertThat(update.getValue().getUpdateObject()).doesNotContainKey("$set");
+    }
+
+    @Test
+    void shouldServeRepeatedLookupsFromCacheUntilTtlExpires() {
+        when(findAndModify()).thenReturn(document("ann@ecollecto.dev", "Ann"));
+
+        UserDto first = userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+        UserDto second = userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+        nanoTime.addAndGet(TTL.toNanos());
+        userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+
+        assertThat(second).isSameAs(first);
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+    }
+
+    @Test
+    void shouldSyncChangedClaimsWithSecondUpdate() {
+        UserDocument synced = document("ann@new.dev", "Ann");
+        when(findAndModify())
+                .thenReturn(document("ann@old.dev", "Ann"))
+                .thenReturn(synced);
+
+        UserDto profile = userService.getOrCreateProfile(SUB, "ann@new.dev", "Ann");
+
+        assertThat(profile.getEmail()).isEqualTo("ann@new.dev");
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(any(Query.class), update.capture(),
+                any(FindAndModifyOptions.class), eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+        assertThat(update.getAllValues().get(1).getUpdateObject().get("$set", Document.class))
+                .containsEntry("email", "ann@new.dev")
+                .containsKey("updatedAt");
+    }
+
+    @Test
+    void shouldBypassCacheWhenTokenClaimsChange() {
+        when(findAndModify())
+                .thenReturn(document("ann@ecollecto.dev", "Ann"))
+                .thenReturn(document("ann@ecollecto.dev", "Ann"))
+                .thenReturn(document("ann@ecollecto.dev", "Ann Smith"));
+
+        userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+        UserDto renamed = userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann Smith");
+
+        assertThat(renamed.getName()).isEqualTo("Ann Smith");
+    }
+
+    @Test
+    void shouldNotOverwriteStoredValuesWithMissingClaims() {
+        when(findAndModify()).thenReturn(document("ann@ecollecto.dev", "Ann"));
+
+        UserDto profile = userService.getOrCreateProfile(SUB, null, null);
+
+        assertThat(profile.getEmail()).isEqualTo("ann@ecollecto.dev");
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldRetryUpsertThatLostFirstLoginRace() {
+        when(findAndModify())
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"))
+                .thenReturn(document("ann@ecollecto.dev", "Ann"));
+
+        UserDto profile = userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+
+        assertThat(profile.getId()).isEqualTo(SUB);
+    }
+
+    @Test
+    void shouldReadMongoAgainAfterEviction() {
+        when(findAndModify()).thenReturn(document("ann@ecollecto.dev", "Ann"));
+
+        userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+        userService.evictProfile(SUB);
+        userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+        userService.evictAllProfiles();
+        userService.getOrCreateProfile(SUB, "ann@ecollecto.dev", "Ann");
+
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+    }
+
+    private UserDocument findAndModify() {
+        return mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(UserDocument.class), eq(UserService.USERS_COLLECTION));
+    }
+
+    private static UserDocument document(String email, String name) {
+        UserDocument document = new UserDocument();
+        document.setId(SUB);
+        document.setEmail(email);
+        document.setName(name);
+        document.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        document.setUpdatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        return document;
+    }
+}
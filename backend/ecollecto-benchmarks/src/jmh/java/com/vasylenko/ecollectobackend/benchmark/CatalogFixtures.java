@@ -0,0 +1,68 @@
+package com.vasylenko.ecollectobackend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.vasylenko.ecollectobackend.designer.DesignerDocument;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import com.vasylenko.ecollectobackend.tariff.TariffsDocument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the canonical catalog from {@code collection/ua/*.json} so benchmarks run against the
+ * real data set rather than synthetic stamps.
+ *
+ * <p>The directory comes from the {@code ecollecto.fixtures} system property, which the Gradle
+ * {@code jmh} task sets to the repository's {@code collection/ua}.</p>
+ */
+public final class CatalogFixtures {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private CatalogFixtures() {
+    }
+
+    public static List<StampDocument> stamps() throws IOException {
+        return load("stamp.json", new TypeReference<>() {});
+    }
+
+    public static List<TariffsDocument> tariffs() throws IOException {
+        return load("tariffs.json", new TypeReference<>() {});
+    }
+
+    /**
+     * @return designer id → name, as {@code DesignerNameResolver} would serve it
+     */
+    public static Map<String, String> designerNames() throws IOException {
+        List<DesignerDocument> designers = load("designers.json", new TypeReference<>() {});
+        Map<String, String> names = new HashMap<>();
+        for (DesignerDocument designer : designers) {
+            if (designer.getId() != null && designer.getName() != null) {
+                names.put(designer.getId(), designer.getName());
+            }
+        }
+        return Map.copyOf(names);
+    }
+
+    private static <T> T load(String fileName, TypeReference<T> type) throws IOException {
+        String directory = System.getProperty("ecollecto.fixtures", "collection/ua");
+        Path path = Path.of(directory, fileName);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("Fixture not found: " + path.toAbsolutePath()
+                    + " (set -Decollecto.fixtures to the collection/ua directory)");
+        }
+        try (InputStream input = Files.newInputStream(path)) {
+            return MAPPER.readValue(input, type);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.benchmark.CatalogFixtures;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-catalog {@link StampMapper} paths: what a {@link StampCatalog} reload pays to map every
+ * stamp, and the two string-joining helpers that dominate per-stamp allocation.
+ *
+ * <p>Lives in the mapper's package so the protected helpers can be measured on their own.</p>
+ */
+@State(Scope.Benchmark)
+public class StampMapperBenchmark {
+
+    private final StampMapper mapper = new StampMapperImpl();
+
+    private List<StampDocument> documents;
+    private Map<String, String> designerNames;
+    private List<StampDto> stamps;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = CatalogFixtures.stamps();
+        designerNames = CatalogFixtures.designerNames();
+        stamps = mapCatalog();
+    }
+
+    @Benchmark
+    public List<StampDto> mapCatalog() {
+        List<StampDto> mapped = new ArrayList<>(documents.size());
+        for (StampDocument document : documents) {
+            mapped.add(mapper.toDto(document, designerNames));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public StampCatalogSnapshot buildSnapshot() {
+        return StampCatalogSnapshot.of(1, documents, stamps);
+    }
+
+    @Benchmark
+    public void joinThemes(Blackhole blackhole) {
+        for (StampDocument document : documents) {
+            blackhole.consume(mapper.joinThemes(document));
+        }
+    }
+
+    @Benchmark
+    public void joinDesignerNames(Blackhole blackhole) {
+        for (StampDocument document : documents) {
+            blackhole.consume(mapper.joinDesignerNames(document, designerNames));
+        }
+    }
+}
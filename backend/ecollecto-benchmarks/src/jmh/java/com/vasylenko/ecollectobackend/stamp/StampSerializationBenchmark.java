@@ -0,0 +1,68 @@
+package com.vasylenko.ecollectobackend.stamp;
+
+import com.vasylenko.ecollectobackend.benchmark.CatalogFixtures;
+import com.vasylenko.ecollectobackend.common.web.JsonArrayStreamer;
+import com.vasylenko.ecollectobackend.dto.StampDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson serialization of mapped {@link StampDto}s, as {@link StampResponseCache} renders
+ * {@code GET /api/stamps} once per catalog version and Spring MVC writes single stamps, plus the
+ * element-by-element path {@link JsonArrayStreamer} takes when list streaming is enabled.
+ */
+@State(Scope.Benchmark)
+public class StampSerializationBenchmark {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final JsonArrayStreamer jsonArrayStreamer = new JsonArrayStreamer(objectMapper);
+
+    private List<StampDto> stamps;
+    private List<StampDto> year;
+    private StampDto stamp;
+
+    @Setup
+    public void setUp() throws IOException {
+        StampMapper mapper = new StampMapperImpl();
+        Map<String, String> designerNames = CatalogFixtures.designerNames();
+        stamps = CatalogFixtures.stamps().stream()
+                .map(document -> mapper.toDto(document, designerNames))
+                .toList();
+        Integer sampleYear = stamps.getLast().getRelease().getYear();
+        year = stamps.stream()
+                .filter(dto -> sampleYear.equals(dto.getRelease().getYear()))
+                .toList();
+        stamp = stamps.getFirst();
+        // Warm the serializer cache so the first measured iteration is not an outlier.
+        objectMapper.writeValueAsBytes(stamps);
+    }
+
+    @Benchmark
+    public byte[] serializeCatalog() {
+        return objectMapper.writeValueAsBytes(stamps);
+    }
+
+    @Benchmark
+    public void streamCatalog() {
+        jsonArrayStreamer.write(stamps.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public byte[] serializeYear() {
+        return objectMapper.writeValueAsBytes(year);
+    }
+
+    @Benchmark
+    public byte[] serializeStamp() {
+        return objectMapper.writeValueAsBytes(stamp);
+    }
+}
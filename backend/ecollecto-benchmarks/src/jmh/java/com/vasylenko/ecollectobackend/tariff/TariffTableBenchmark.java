@@ -0,0 +1,66 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.benchmark.CatalogFixtures;
+import com.vasylenko.ecollectobackend.common.model.Currency;
+import com.vasylenko.ecollectobackend.stamp.StampDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link TariffTable}: compiling every tariff year, as on a {@code tariffs} change, the
+ * per-request letter lookup behind {@code GET /api/tariffs/{year}/{currency}/{letter}}, and the
+ * bulk pass {@link TariffValuationService} makes to price every letter-coded stamp in the catalog.
+ */
+@State(Scope.Benchmark)
+public class TariffTableBenchmark {
+
+    private List<TariffsDocument> documents;
+    private TariffTable table;
+    private int year;
+    private int[] releaseYears;
+    private int[] letterIndexes;
+    private long[] prices;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = CatalogFixtures.tariffs();
+        table = TariffTable.compile(documents);
+        year = table.latestYear();
+
+        List<StampDocument> stamps = CatalogFixtures.stamps();
+        releaseYears = new int[stamps.size()];
+        letterIndexes = new int[stamps.size()];
+        prices = new long[stamps.size()];
+        for (int i = 0; i < stamps.size(); i++) {
+            StampDocument stamp = stamps.get(i);
+            StampDocument.Denomination denomination = stamp.getMeta() != null ? stamp.getMeta().getDenomination() : null;
+            DenominationCode code = denomination != null
+                    ? DenominationCode.parse(denomination.getCurrency(), denomination.getCode())
+                    : null;
+            letterIndexes[i] = code != null && code.isLetter() ? table.letterIndex(code.letter()) : -1;
+            Integer releaseYear = stamp.getRelease() != null ? stamp.getRelease().getYear() : null;
+            releaseYears[i] = releaseYear != null ? table.yearInForce(releaseYear, Currency.UAH) : -1;
+        }
+    }
+
+    @Benchmark
+    public TariffTable compile() {
+        return TariffTable.compile(documents);
+    }
+
+    @Benchmark
+    public long lookUpLetter() {
+        return table.minorUnits(year, Currency.UAH, "V");
+    }
+
+    @Benchmark
+    public long[] priceCatalogAtReleaseYears() {
+        table.price(Currency.UAH, releaseYears, letterIndexes, prices);
+        return prices;
+    }
+}
@@ -0,0 +1,37 @@
+package com.vasylenko.ecollectobackend.tariff;
+
+import com.vasylenko.ecollectobackend.benchmark.CatalogFixtures;
+import com.vasylenko.ecollectobackend.dto.TariffsDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TariffsMapper} over every tariff year, i.e. one {@code GET /api/tariffs}.
+ */
+@State(Scope.Benchmark)
+public class TariffsMapperBenchmark {
+
+    private final TariffsMapper mapper = new TariffsMapperImpl();
+
+    private List<TariffsDocument> documents;
+
+    @Setup
+    public void setUp() throws IOException {
+        documents = CatalogFixtures.tariffs();
+    }
+
+    @Benchmark
+    public List<TariffsDto> mapAll() {
+        List<TariffsDto> mapped = new ArrayList<>(documents.size());
+        for (TariffsDocument document : documents) {
+            mapped.add(mapper.toDto(document));
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,123 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import com.vasylenko.ecollectobackend.EcollectoBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test of the backend.
+ *
+ * <p>Starts MongoDB in a container (or uses {@code loadtest.mongo-uri}), boots the backend
+ * in-process on a random port with {@code loadtest.profiles} (by default {@code seed}, so
+ * {@code DataInitializer} loads the catalog), and replaces Keycloak with {@link LocalJwtIssuer}.
+ * It then drives the {@code loadtest.mix} of public and {@code /api/me/*} requests as open-model
+ * traffic and writes one HdrHistogram percentile distribution per scenario ({@code <scenario>.hgrm}, milliseconds)
+ * plus {@code summary.csv} to {@code loadtest.output}.</p>
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Map<Scenario, Integer> mix = resolveMix(config.mix());
+        LocalJwtIssuer issuer = new LocalJwtIssuer();
+
+        MongoDBContainer mongo = null;
+        String mongoUri = config.mongoUri();
+        if (mongoUri.isBlank()) {
+            mongo = new MongoDBContainer(config.mongoImage());
+            mongo.start();
+            mongoUri = mongo.getReplicaSetUrl("ecollecto_loadtest");
+        }
+
+        try (ConfigurableApplicationContext backend = startBackend(mongoUri, config.profiles(), issuer);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = "http://localhost:" + backend.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            TrafficFixture fixture = TrafficFixture.discover(client, baseUrl, issuer, config.users());
+
+            System.out.printf(Locale.ROOT, "Load test: %.0f req/s for %s after %s warmup, %d users, mix %s%n",
+                    config.rate(), config.duration(), config.warmup(), config.users(), config.mix());
+            List<ScenarioResult> results = new OpenModelDriver(client, fixture, mix, config.maxInFlight())
+                    .run(config.rate(), config.warmup(), config.duration());
+            report(results, config.output());
+        } finally {
+            if (mongo != null) {
+                mongo.stop();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startBackend(String mongoUri, List<String> profiles,
+                                                               LocalJwtIssuer issuer) {
+        return new SpringApplicationBuilder(EcollectoBackendApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.mongodb.uri", mongoUri,
+                        "spring.security.oauth2.resourceserver.jwt.issuer-uri", LocalJwtIssuer.ISSUER,
+                        "app.security.jwt.jwk-set-uri", issuer.jwkSetFile().toUri().toString(),
+                        "spring.main.lazy-initialization", "false",
+                        "logging.level.com.vasylenko.ecollectobackend", "WARN"))
+                .run();
+    }
+
+    private static Map<Scenario, Integer> resolveMix(Map<String, Integer> weights) {
+        Map<String, Scenario> scenarios = Scenario.all();
+        Map<Scenario, Integer> mix = new LinkedHashMap<>();
+        weights.forEach((name, weight) -> {
+            Scenario scenario = scenarios.get(name);
+            if (scenario == null) {
+                throw new IllegalArgumentException("Unknown scenario '" + name + "' in loadtest.mix; known: "
+                        + scenarios.keySet());
+            }
+            mix.put(scenario, weight);
+        });
+        return mix;
+    }
+
+    private static void report(List<ScenarioResult> results, Path output) throws IOException {
+        Files.createDirectories(output);
+        String header = String.format(Locale.ROOT, "%-18s %8s %9s %9s %9s %9s %9s %9s %7s %7s %7s",
+                "scenario", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "unexp", "failed", "dropped");
+        System.out.println(header);
+        StringBuilder csv = new StringBuilder(
+                "scenario,count,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,unexpected,failed,dropped\n");
+        for (ScenarioResult result : results) {
+            System.out.println(String.format(Locale.ROOT,
+                    "%-18s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d",
+                    result.name(), result.count(), result.throughput(), result.millisAt(50), result.millisAt(90),
+                    result.millisAt(99), result.millisAt(99.9), result.latency().getMaxValue() / 1000.0,
+                    result.unexpected(), result.failed(), result.dropped()));
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d%n",
+                    result.name(), result.count(), result.throughput(), result.millisAt(50), result.millisAt(90),
+                    result.millisAt(99), result.millisAt(99.9), result.latency().getMaxValue() / 1000.0,
+                    result.unexpected(), result.failed(), result.dropped()));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(output.resolve(result.name() + ".hgrm")))) {
+                result.latency().outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        Files.writeString(output.resolve("summary.csv"), csv);
+        System.out.println("Histograms written to " + output.toAbsolutePath());
+    }
+}
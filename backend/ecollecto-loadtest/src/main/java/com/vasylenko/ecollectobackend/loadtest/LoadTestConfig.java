@@ -0,0 +1,75 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load-test settings, read from {@code loadtest.*} system properties.
+ *
+ * @param mongoUri    MongoDB to start the backend against; when blank, a throwaway container is started
+ * @param mongoImage  image for that container
+ * @param profiles    Spring profiles the backend runs with; {@code seed} loads the catalog, add
+ *                    {@code reactive} to measure the WebFlux catalog stack instead of Spring MVC
+ * @param rate        target arrival rate in requests per second, independent of response times
+ * @param warmup      time the traffic runs before recording starts
+ * @param duration    recorded time
+ * @param users       distinct JWT subjects the write traffic is spread across
+ * @param maxInFlight requests allowed in flight before new arrivals are counted as dropped
+ * @param mix         scenario name → relative weight
+ * @param output      directory for the {@code .hgrm} histograms and the summary
+ */
+record LoadTestConfig(String mongoUri,
+                      String mongoImage,
+                      List<String> profiles,
+                      double rate,
+                      Duration warmup,
+                      Duration duration,
+                      int users,
+                      int maxInFlight,
+                      Map<String, Integer> mix,
+                      Path output) {
+
+    static final String DEFAULT_MIX = "stamps=20,stamp-years=15,stamp=15,tariffs=15,"
+            + "me=5,collection-add=10,collection-remove=10,collection-page=5,collection-stats=5";
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.mongo-uri", ""),
+                System.getProperty("loadtest.mongo-image", "mongo:8.0"),
+                List.of(System.getProperty("loadtest.profiles", "seed").split("\\s*,\\s*")),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.parseInt(System.getProperty("loadtest.users", "100")),
+                Integer.parseInt(System.getProperty("loadtest.max-in-flight", "5000")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("loadtest.output", "build/reports/loadtest")));
+    }
+
+    /**
+     * Parses {@code name=weight,name=weight}.
+     */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            int weight = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in loadtest.mix: " + entry);
+            }
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no scenario");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,86 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stands in for Keycloak: mints RS256 tokens shaped like the realm's access tokens
+ * ({@code sub}, {@code email}, {@code realm_access.roles}) with a key generated per run.
+ *
+ * <p>The backend trusts them through {@code app.security.jwt.jwk-set-uri} pointing at
+ * {@link #jwkSetFile()}, with {@code issuer-uri} set to {@link #ISSUER} so the issuer check still
+ * runs but no request ever leaves the machine.</p>
+ */
+final class LocalJwtIssuer {
+
+    static final String ISSUER = "https://loadtest.invalid/realms/ecollecto";
+
+    private static final Duration LIFETIME = Duration.ofHours(2);
+
+    private final RSASSASigner signer;
+    private final Path jwkSetFile;
+
+    LocalJwtIssuer() throws IOException {
+        KeyPair keyPair = generateKeyPair();
+        this.signer = new RSASSASigner((RSAPrivateKey) keyPair.getPrivate());
+        this.jwkSetFile = Files.createTempFile("ecollecto-loadtest-", ".jwks.json");
+        this.jwkSetFile.toFile().deleteOnExit();
+        Files.writeString(jwkSetFile, new JWKSet(new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).build()).toString());
+    }
+
+    Path jwkSetFile() {
+        return jwkSetFile;
+    }
+
+    /**
+     * @return a signed bearer token for {@code subject} holding {@code roles}
+     */
+    String mint(String subject, List<String> roles) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .claim("email", subject + "@loadtest.local")
+                .claim("realm_access", Map.of("roles", roles))
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(LIFETIME)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign load-test token", e);
+        }
+        return jwt.serialize();
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA not available", e);
+        }
+    }
+}
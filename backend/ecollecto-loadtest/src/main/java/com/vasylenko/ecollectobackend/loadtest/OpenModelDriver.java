@@ -0,0 +1,132 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic: requests arrive on a fixed schedule at {@code loadtest.rate}, whether or
+ * not earlier ones have completed, as independent users would.
+ *
+ * <p>Latency is measured from each request's scheduled arrival time rather than from when it was
+ * actually sent, so a stalled server is charged for the queueing it causes instead of silently
+ * slowing the load generator down (coordinated omission). Latencies are recorded in
+ * microseconds into one HdrHistogram {@link Recorder} per scenario.</p>
+ */
+final class OpenModelDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+    private final TrafficFixture fixture;
+    private final List<Scenario> schedule;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxInFlight;
+
+    /**
+     * @param mix scenario → weight; the schedule draws scenarios in proportion to their weights
+     */
+    OpenModelDriver(HttpClient client, TrafficFixture fixture, Map<Scenario, Integer> mix, int maxInFlight) {
+        this.client = client;
+        this.fixture = fixture;
+        this.maxInFlight = maxInFlight;
+        List<Scenario> weighted = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+            stats.put(scenario.name(), new Stats());
+        });
+        this.schedule = List.copyOf(weighted);
+    }
+
+    /**
+     * Runs traffic for {@code warmup}, discards what was recorded, then runs for {@code duration}.
+     *
+     * @return per-scenario results of the measured phase
+     */
+    List<ScenarioResult> run(double rate, Duration warmup, Duration duration) {
+        long intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / rate));
+        drive(intervalNanos, warmup);
+        stats.values().forEach(Stats::reset);
+
+        long started = System.nanoTime();
+        drive(intervalNanos, duration);
+        awaitInFlight(Duration.ofSeconds(30));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        List<ScenarioResult> results = new ArrayList<>();
+        stats.forEach((name, scenario) -> results.add(new ScenarioResult(name,
+                scenario.recorder.getIntervalHistogram(), scenario.unexpected.sum(), scenario.failed.sum(),
+                scenario.dropped.sum(), elapsed)));
+        return results;
+    }
+
+    private void drive(long intervalNanos, Duration length) {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long arrival = start; arrival < end; arrival += intervalNanos) {
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario scenario = schedule.get(ThreadLocalRandom.current().nextInt(schedule.size()));
+            send(scenario, arrival);
+        }
+    }
+
+    private void send(Scenario scenario, long scheduledAt) {
+        Stats scenarioStats = stats.get(scenario.name());
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            scenarioStats.dropped.increment();
+            return;
+        }
+        HttpRequest request = scenario.request().apply(fixture);
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+            scenarioStats.recorder.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            if (error != null) {
+                scenarioStats.failed.increment();
+            } else if (!scenario.expected().contains(response.statusCode())) {
+                scenarioStats.unexpected.increment();
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private void awaitInFlight(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static final class Stats {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final LongAdder unexpected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        void reset() {
+            recorder.reset();
+            unexpected.reset();
+            failed.reset();
+            dropped.reset();
+        }
+    }
+}
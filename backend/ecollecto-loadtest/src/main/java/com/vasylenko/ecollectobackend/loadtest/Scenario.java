@@ -0,0 +1,78 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * One kind of request in the traffic mix.
+ *
+ * @param name     key used in {@code loadtest.mix} and in the report
+ * @param expected statuses that count as success; for writes this includes the conflict and
+ *                 not-found answers random traffic is bound to produce
+ * @param request  builds the next request against the fixture
+ */
+record Scenario(String name, Set<Integer> expected, Function<TrafficFixture, HttpRequest> request) {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * @return every known scenario keyed by name
+     */
+    static Map<String, Scenario> all() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        add(scenarios, new Scenario("stamps", Set.of(200), fixture -> get(fixture, "/api/stamps", null)));
+        add(scenarios, new Scenario("stamps-year", Set.of(200),
+                fixture -> get(fixture, "/api/stamps?year=" + pick(fixture.years()), null)));
+        add(scenarios, new Scenario("stamp-years", Set.of(200), fixture -> get(fixture, "/api/stamps/years", null)));
+        add(scenarios, new Scenario("stamp", Set.of(200),
+                fixture -> get(fixture, "/api/stamp/" + pick(fixture.stampIds()), null)));
+        add(scenarios, new Scenario("tariffs", Set.of(200),
+                fixture -> get(fixture, "/api/tariffs/" + pick(fixture.tariffPaths()), null)));
+        add(scenarios, new Scenario("me", Set.of(200), fixture -> get(fixture, "/api/me", fixture.randomToken())));
+        add(scenarios, new Scenario("collection-add", Set.of(201, 409), fixture -> HttpRequest.newBuilder()
+                .uri(uri(fixture, "/api/me/collection/items"))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + fixture.randomToken())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"stampId\":\"" + pick(fixture.stampIds()) + "\"}"))
+                .build()));
+        add(scenarios, new Scenario("collection-remove", Set.of(204, 404), fixture -> HttpRequest.newBuilder()
+                .uri(uri(fixture, "/api/me/collection/items/" + pick(fixture.stampIds())))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + fixture.randomToken())
+                .DELETE()
+                .build()));
+        add(scenarios, new Scenario("collection-page", Set.of(200),
+                fixture -> get(fixture, "/api/me/collection/stamps?limit=50", fixture.randomToken())));
+        add(scenarios, new Scenario("collection-stats", Set.of(200),
+                fixture -> get(fixture, "/api/me/collection/stats", fixture.randomToken())));
+        return scenarios;
+    }
+
+    private static void add(Map<String, Scenario> scenarios, Scenario scenario) {
+        scenarios.put(scenario.name(), scenario);
+    }
+
+    private static HttpRequest get(TrafficFixture fixture, String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(uri(fixture, path)).timeout(TIMEOUT).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.header("Accept-Encoding", "gzip").build();
+    }
+
+    private static URI uri(TrafficFixture fixture, String path) {
+        return URI.create(fixture.baseUrl() + path);
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * Measured phase of one scenario.
+ *
+ * @param latency    response times in microseconds, from scheduled arrival to completion
+ * @param unexpected responses with a status outside {@link Scenario#expected()}
+ * @param failed     requests that ended in an I/O error or timeout
+ * @param dropped    arrivals not sent because {@code loadtest.max-in-flight} was reached
+ * @param elapsed    length of the measured phase, including the drain of in-flight requests
+ */
+record ScenarioResult(String name, Histogram latency, long unexpected, long failed, long dropped, Duration elapsed) {
+
+    long count() {
+        return latency.getTotalCount();
+    }
+
+    double throughput() {
+        return count() / (elapsed.toNanos() / 1e9);
+    }
+
+    /**
+     * @return the latency at {@code percentile} in milliseconds
+     */
+    double millisAt(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
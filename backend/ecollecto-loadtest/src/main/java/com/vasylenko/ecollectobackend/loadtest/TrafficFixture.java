@@ -0,0 +1,67 @@
+package com.vasylenko.ecollectobackend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * What the scenarios draw from: ids discovered from the running backend and one pre-minted
+ * token per simulated user, so signing never shows up in the measured latency.
+ *
+ * @param tariffPaths {@code {year}/{currency}} pairs present in the tariffs collection
+ */
+record TrafficFixture(String baseUrl,
+                      List<String> stampIds,
+                      List<Integer> years,
+                      List<String> tariffPaths,
+                      List<String> tokens) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static TrafficFixture discover(HttpClient client, String baseUrl, LocalJwtIssuer issuer, int users)
+            throws IOException, InterruptedException {
+        List<String> stampIds = new ArrayList<>();
+        for (JsonNode stamp : fetch(client, baseUrl + "/api/stamps")) {
+            stampIds.add(stamp.path("stamp_id").asText());
+        }
+        List<Integer> years = new ArrayList<>();
+        for (JsonNode year : fetch(client, baseUrl + "/api/stamps/years")) {
+            years.add(year.path("year").asInt());
+        }
+        List<String> tariffPaths = new ArrayList<>();
+        for (JsonNode tariff : fetch(client, baseUrl + "/api/tariffs")) {
+            tariff.path("currencies").fieldNames()
+                    .forEachRemaining(currency -> tariffPaths.add(tariff.path("year").asInt() + "/" + currency));
+        }
+        if (stampIds.isEmpty() || years.isEmpty() || tariffPaths.isEmpty()) {
+            throw new IllegalStateException("Backend at " + baseUrl + " has no catalog; was it seeded?");
+        }
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            tokens.add(issuer.mint("loadtest-user-" + i, List.of("user")));
+        }
+        return new TrafficFixture(baseUrl, List.copyOf(stampIds), List.copyOf(years), List.copyOf(tariffPaths),
+                List.copyOf(tokens));
+    }
+
+    String randomToken() {
+        return tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+    }
+
+    private static JsonNode fetch(HttpClient client, String url) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body());
+    }
+}